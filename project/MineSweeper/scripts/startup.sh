@@ -0,0 +1,27 @@
+#!/bin/sh
+# Builds minesweeper.jar and an AppCDS (class-data sharing) archive for it,
+# then reports time-to-first-interactive-frame with and without the archive.
+# Run from anywhere; needs a display and JDK 13+ (dynamic CDS archives).
+set -e
+cd "$(dirname "$0")/.."
+
+# Compile and package (CDS only archives classes loaded from JAR files)
+rm -rf build/classes
+mkdir -p build/classes
+javac -d build/classes $(find src -name '*.java')
+jar --create --file build/minesweeper.jar --main-class Main -C build/classes .
+
+# Training run: benchmark mode exits after the first frame, so the archive holds exactly the startup classes
+java -XX:ArchiveClassesAtExit=build/minesweeper.jsa -jar build/minesweeper.jar --startup-benchmark > /dev/null
+
+echo "Without CDS archive:"
+for i in 1 2 3 4 5; do
+    java -jar build/minesweeper.jar --startup-benchmark
+done
+
+echo "With CDS archive:"
+for i in 1 2 3 4 5; do
+    java -XX:SharedArchiveFile=build/minesweeper.jsa -jar build/minesweeper.jar --startup-benchmark
+done
+
+# To play with the archive: java -XX:SharedArchiveFile=build/minesweeper.jsa -jar build/minesweeper.jar
@@ -1,23 +1,98 @@
 import javax.swing.*;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import game.AutoPlayer;
+import game.BoardCode;
+import game.BoardPool;
+import game.CellStorage;
+import game.Hint;
+import game.HintEngine;
+import game.MineLayout;
 import game.MinesweeperGame;
+import game.OffHeapCellStorage;
+import game.Topology;
+import gui.ImageLoader;
 import gui.MinesweeperGUI;
+import gui.ReplayViewer;
+import spectator.SpectatorServer;
+import utils.GameConstants;
 import utils.InputValidator;
+import utils.MemoryEstimator;
 
 public class Main {
     // Game model and view components
     private MinesweeperGame game;
     private MinesweeperGUI gui;
+    private HintEngine hintEngine;  // Suggests safe cells (created on the first hint request)
+    private AutoPlayer autoPlayer;  // Plays certain moves while auto-play is on (null when off)
+    private Timer autoPlayTimer;    // Runs one batch of auto-play moves per frame
+    private final BoardPool boardPool = createBoardPool();  // Ready-made layouts for New Game (null if disabled)
+    private final SpectatorServer spectators = createSpectatorServer();  // Streams the game to spectators (null if disabled)
+
+    // Builds the next game once the previous one has been released (off-heap storage may fail to allocate)
+    private interface GameFactory {
+        MinesweeperGame create() throws IOException;
+    }
 
     // Main entry point of the application
+    // Pass --startup-benchmark to skip the difficulty dialog, report time-to-first-interactive-frame and exit
     public static void main(String[] args) {
+        // Pass --terminal [rows cols mines] to play in a terminal without Swing
+        if (args.length > 0 && args[0].equals("--terminal")) {
+            try {
+                terminal.TerminalGame.main(java.util.Arrays.copyOfRange(args, 1, args.length));
+            } catch (java.io.IOException e) {
+                System.err.println("Terminal error: " + e.getMessage());
+            }
+            return;
+        }
+
+        boolean startupBenchmark = args.length > 0 && args[0].equals("--startup-benchmark");
+
+        // Decode and scale icons in the background while the EDT sets up the GUI
+        ImageLoader.preload();
+
         // Use SwingUtilities to ensure GUI is created on Event Dispatch Thread
-        SwingUtilities.invokeLater(Main::initializeAndStart);
+        SwingUtilities.invokeLater(() -> initializeAndStart(startupBenchmark));
     }
 
     // Initialize and start the game application
-    private static void initializeAndStart() {
+    private static void initializeAndStart(boolean startupBenchmark) {
         setLookAndFeel();  // Set the system look and feel
-        new Main().start(); // Create Main instance and start the game
+        Main main = new Main();
+        if (startupBenchmark) {
+            main.startBenchmark();
+        } else {
+            main.start();  // Create Main instance and start the game
+        }
+    }
+
+    // Start the board pool and keep the standard difficulties ready (before the dialog is even answered)
+    private static BoardPool createBoardPool() {
+        if (GameConstants.BOARD_POOL_SIZE <= 0) return null;
+        BoardPool pool = new BoardPool(GameConstants.BOARD_POOL_SIZE);
+        pool.pin(8, 8, 10, Topology.CLASSIC);    // Beginner
+        pool.pin(12, 12, 20, Topology.CLASSIC);  // Intermediate
+        pool.pin(16, 16, 40, Topology.CLASSIC);  // Expert
+        return pool;
+    }
+
+    // Start streaming games to spectators if a port is configured
+    private static SpectatorServer createSpectatorServer() {
+        if (GameConstants.SPECTATOR_PORT <= 0) return null;
+        try {
+            SpectatorServer server = new SpectatorServer(GameConstants.SPECTATOR_PORT);
+            System.out.println("Spectators can connect to port " + server.getPort());
+            return server;
+        } catch (java.io.IOException e) {
+            System.err.println("Spectator server disabled: " + e.getMessage());
+            return null;
+        }
     }
 
     // Set the application's look and feel to match the operating system
@@ -40,13 +115,47 @@ public class Main {
         initializeGame();        // Set up game and GUI
     }
 
+    // Start an Expert game without the dialog and report how long it took until the window accepted input
+    private void startBenchmark() {
+        game = new MinesweeperGame(16, 16, 40);
+        initializeGame();
+        gui.addWindowListener(new WindowAdapter() {
+            @Override
+            public void windowOpened(WindowEvent e) {
+                // Queued behind the first paint, so this runs once the frame is on screen and interactive
+                SwingUtilities.invokeLater(() -> {
+                    long startTime = ManagementFactory.getRuntimeMXBean().getStartTime();
+                    System.out.println("time-to-first-interactive-frame: "
+                            + (System.currentTimeMillis() - startTime) + " ms");
+                    System.exit(0);
+                });
+            }
+        });
+    }
+
     // Show dialog for user to select game difficulty or custom settings
     private void showDifficultyDialog() {
         String[] options = {"Beginner (8x8, 10 mines)", "Intermediate (12x12, 20 mines)",
-                "Expert (16x16, 40 mines)", "Custom"};
+                "Expert (16x16, 40 mines)", "Custom", "Large board", "Import code"};
         int choice = JOptionPane.showOptionDialog(null, "Choose difficulty level:", "Minesweeper",
                 JOptionPane.DEFAULT_OPTION, JOptionPane.QUESTION_MESSAGE, null, options, options[0]);
 
+        // Large board: limited by memory instead of the custom limits (falls through to Beginner if cancelled)
+        if (choice == 4) {
+            GameFactory large = askForLargeBoard();
+            if (large != null && startGame(large)) {
+                return;
+            }
+        }
+
+        // Play a shared board exactly as encoded (falls through to Beginner if cancelled)
+        if (choice == 5) {
+            GameFactory imported = askForImportedGame();
+            if (imported != null && startGame(imported)) {
+                return;
+            }
+        }
+
         int rows, cols, mines;
 
         // Set game parameters based on user choice
@@ -64,8 +173,156 @@ public class Main {
             default: rows = 8; cols = 8; mines = 10; // Default to beginner
         }
 
+        Topology topology = chooseTopology();
+
         // Create new game with selected parameters
-        this.game = new MinesweeperGame(rows, cols, mines);
+        MineLayout layout = boardPool != null ? boardPool.take(rows, cols, mines, topology) : null;
+        if (layout != null) {
+            startGame(() -> new MinesweeperGame(layout));  // Pool hit: mines already drawn, table already built
+        } else {
+            startGame(() -> new MinesweeperGame(rows, cols, mines, new Random().nextLong(), topology));
+        }
+        if (boardPool != null && GameConstants.BOARD_POOL_STATS) {
+            System.out.println(boardPool);
+        }
+    }
+
+    // Let user choose how cells neighbor each other (classic if cancelled)
+    private Topology chooseTopology() {
+        Topology topology = (Topology) JOptionPane.showInputDialog(null, "Choose board topology:", "Minesweeper",
+                JOptionPane.QUESTION_MESSAGE, null, Topology.values(), Topology.CLASSIC);
+        return topology != null ? topology : Topology.CLASSIC;
+    }
+
+    // Ask for a large board, to be built in the fastest storage that fits in memory (null if cancelled)
+    // Boards that fit nowhere are refused up front instead of failing with OutOfMemoryError mid-game,
+    // and moving the cells off the heap (no hints, slower reveals) has to be confirmed
+    private GameFactory askForLargeBoard() {
+        MemoryEstimator estimator = MemoryEstimator.forThisJvm();
+        Topology topology = chooseTopology();
+        int percent = getCustomValue("Enter mine density in percent (1-33):", 16, 1, 33);
+        int maxSide = estimator.getMaxSide(percent / 100.0, topology);
+        int max = GameConstants.LARGE_MAX_SIDE;
+        while (true) {
+            int rows = getCustomValue("Enter number of rows (" + GameConstants.MIN_ROWS + "-" + max + ", up to "
+                    + maxSide + "x" + maxSide + " fits in memory):", Math.min(1000, maxSide), GameConstants.MIN_ROWS, max);
+            int cols = getCustomValue("Enter number of columns (" + GameConstants.MIN_COLS + "-" + max + "):",
+                    rows, GameConstants.MIN_COLS, max);
+            int mines = (int) Math.max(1, Math.min(InputValidator.getMaxMines(rows, cols), (long) rows * cols * percent / 100));
+
+            MemoryEstimator.Estimate estimate = estimator.choose(rows, cols, mines, topology);
+            if (!estimate.fits()) {
+                int retry = JOptionPane.showConfirmDialog(null, rows + "x" + cols + " does not fit: " + estimate.getProblem()
+                        + "\nLargest square board at " + percent + "%: " + maxSide + "x" + maxSide + ". Try another size?",
+                        "Large board", JOptionPane.YES_NO_OPTION);
+                if (retry != JOptionPane.YES_OPTION) return null;
+                continue;
+            }
+            if (!acceptBackend(rows, cols, estimate, "Large board")) continue;
+            return () -> createLargeGame(rows, cols, mines, topology, estimate.getBackend());
+        }
+    }
+
+    // Moving the cells off the heap (no hints, slower reveals) has to be confirmed
+    private boolean acceptBackend(int rows, int cols, MemoryEstimator.Estimate estimate, String title) {
+        if (estimate.getBackend() == MemoryEstimator.Backend.HEAP) return true;
+        int accept = JOptionPane.showConfirmDialog(null, "Not enough heap to keep " + rows + "x" + cols
+                + " in memory with hints.\nUse " + estimate + "?\n(No hints, reveals flood-fill the board.)",
+                title, JOptionPane.OK_CANCEL_OPTION);
+        return accept == JOptionPane.OK_OPTION;
+    }
+
+    // Build a game whose cells live in the given backend
+    private MinesweeperGame createLargeGame(int rows, int cols, int mines, Topology topology,
+                                            MemoryEstimator.Backend backend) throws IOException {
+        long seed = new Random().nextLong();
+        CellStorage storage = createStorage((long) rows * cols, backend);
+        return storage == null ? new MinesweeperGame(rows, cols, mines, seed, topology)
+                : new MinesweeperGame(rows, cols, mines, seed, topology, storage);
+    }
+
+    // Cells for an off-heap backend (null for HEAP: those boards keep theirs in an array next to the neighbor table)
+    private CellStorage createStorage(long cells, MemoryEstimator.Backend backend) throws IOException {
+        switch (backend) {
+            case HEAP:
+                return null;
+            case DIRECT:
+                return OffHeapCellStorage.allocate(cells);
+            default:
+                Path file = Files.createTempFile("minesweeper-board", ".cells");
+                OffHeapCellStorage storage = OffHeapCellStorage.map(file, cells);
+                try {
+                    Files.delete(file);  // The mapping stays valid; the space is freed once it is unmapped
+                } catch (IOException e) {
+                    file.toFile().deleteOnExit();  // Platforms that cannot delete mapped files
+                }
+                return storage;
+        }
+    }
+
+    // Switch to a new game; false if it could not be built
+    // The previous game is closed before the next one is built, so a huge board's off-heap cells and spilled
+    // history are freed for it. The window lets go of the old board first: a closed game cannot be painted.
+    private boolean startGame(GameFactory factory) {
+        if (autoPlayer != null) {
+            stopAutoPlay();  // Auto-play belongs to the previous game
+        }
+        if (hintEngine != null) {
+            hintEngine.detach();  // Stop analyzing the previous game
+            hintEngine = null;
+        }
+        if (game != null) {
+            if (gui != null) {
+                gui.releaseGame();
+            }
+            game.close();
+            game = null;  // Its buffers can only be collected once nothing refers to them
+        }
+
+        MinesweeperGame newGame;
+        try {
+            newGame = factory.create();
+        } catch (IOException | OutOfMemoryError e) {
+            JOptionPane.showMessageDialog(null, "Could not create the board: " + e.getMessage());
+            return false;
+        }
+        this.game = newGame;
+        if (spectators != null) {
+            spectators.watch(game);  // Spectators switch to the new board
+        }
+        return true;
+    }
+
+    // Ask for a board code until a valid one is entered (null if cancelled)
+    // Like a large board, it is built in the fastest storage that fits in memory, and boards that fit nowhere are refused
+    private GameFactory askForImportedGame() {
+        while (true) {
+            String input = JOptionPane.showInputDialog(null, "Paste a board code:", "Import board",
+                    JOptionPane.QUESTION_MESSAGE);
+            if (input == null || input.isBlank()) {
+                return null;
+            }
+            BoardCode code;
+            try {
+                code = BoardCode.decode(input);
+            } catch (IllegalArgumentException e) {
+                JOptionPane.showMessageDialog(null, e.getMessage());
+                continue;
+            }
+
+            int rows = code.getRows();
+            int cols = code.getCols();
+            MemoryEstimator.Estimate estimate = MemoryEstimator.forThisJvm().choose(rows, cols, code.getMines(), code.getTopology());
+            if (!estimate.fits()) {
+                JOptionPane.showMessageDialog(null, rows + "x" + cols + " does not fit: " + estimate.getProblem());
+                continue;
+            }
+            if (!acceptBackend(rows, cols, estimate, "Import board")) continue;
+            return () -> {
+                CellStorage storage = createStorage((long) rows * cols, estimate.getBackend());
+                return storage == null ? code.createGame() : code.createGame(storage);
+            };
+        }
     }
 
     // Show dialog to get a custom value from user with validation
@@ -111,10 +368,35 @@ public class Main {
                 handleUndo();                // Handle undo request
             }
 
+            @Override
+            public void onRedo() {
+                handleRedo();                // Handle redo request
+            }
+
             @Override
             public void onNewGame() {
                 handleNewGame();             // Handle new game request
             }
+
+            @Override
+            public void onHint() {
+                handleHint();                // Handle hint request
+            }
+
+            @Override
+            public void onReplay() {
+                handleReplay();              // Handle replay request
+            }
+
+            @Override
+            public void onShare() {
+                handleShare();               // Handle share request
+            }
+
+            @Override
+            public void onAutoPlay() {
+                handleAutoPlay();            // Handle auto-play toggle
+            }
         });
 
         gui.setVisible(true);  // Make the GUI window visible
@@ -162,9 +444,118 @@ public class Main {
         }
     }
 
+    // Handle redo request from GUI
+    private void handleRedo() {
+        if (game.redo()) {
+            gui.updateDisplay();  // Update GUI to the redone state
+            if (game.isGameOver()) {
+                // Redoing the final move ends the game again
+                gui.showGameOver(game.isGameWon(), game.getHitMineRow(), game.getHitMineCol());
+            } else {
+                gui.showMessage("Move redone!");
+            }
+        } else {
+            gui.showMessage("Cannot redo!");  // Nothing has been undone
+        }
+    }
+
     // Handle new game request from GUI
     private void handleNewGame() {
         showDifficultyDialog();  // Show difficulty selection dialog
         gui.resetGame(game);     // Reset GUI with new game
     }
+
+    // Handle auto-play toggle from GUI - plays every certain move until none is left
+    // Moves are made in batches of about one frame on the EDT, and the display is refreshed once per batch
+    private void handleAutoPlay() {
+        if (autoPlayer != null) {
+            stopAutoPlay();  // Toggled off by the player
+            return;
+        }
+        if (game.isGameOver()) {
+            gui.setAutoPlaying(false);
+            gui.showMessage("Game is over!");
+            return;
+        }
+        autoPlayer = new AutoPlayer(game);
+        autoPlayTimer = new Timer(1, e -> playAutoPlayBatch());
+        autoPlayTimer.start();
+        gui.setAutoPlaying(true);
+    }
+
+    // One frame of auto-play: moves for the frame budget, then a single display refresh
+    private void playAutoPlayBatch() {
+        if (autoPlayer == null) return;  // A tick queued before auto-play stopped
+        autoPlayer.play(Integer.MAX_VALUE, GameConstants.AUTO_PLAY_FRAME_MS * 1_000_000L);
+        gui.updateDisplay();
+        if (game.isGameOver()) {
+            stopAutoPlay();
+            gui.showGameOver(game.isGameWon(), game.getHitMineRow(), game.getHitMineCol());
+        } else if (autoPlayer.isFinished()) {
+            stopAutoPlay();
+        }
+    }
+
+    // Stop auto-play and report its speed
+    private void stopAutoPlay() {
+        autoPlayTimer.stop();
+        autoPlayer.detach();
+        System.out.println("Auto-play: " + autoPlayer);
+        gui.showMessage(String.format("Auto-play: %,d moves, %,.0f moves/s", autoPlayer.getMoves(),
+                autoPlayer.getMovesPerSecond()));
+        gui.setAutoPlaying(false);
+        autoPlayer = null;
+        autoPlayTimer = null;
+    }
+
+    // Handle hint request from GUI - highlights a safe (or lowest-risk) cell
+    private void handleHint() {
+        if (game.isGameOver()) return;  // No hints once the game has ended
+        if (game.getView().getNeighborTable() == null) {
+            gui.showMessage("No hints on off-heap boards!");
+            return;
+        }
+
+        if (hintEngine == null) {
+            hintEngine = new HintEngine(game.getView(), GameConstants.HINT_BUDGET_MS);  // Built lazily on first use
+        }
+        Hint hint = hintEngine.findHint();
+        if (hint == null) {
+            gui.showMessage("No hint available!");
+            return;
+        }
+        game.recordHint(hint);  // Recorded in the next undo state for auditing
+        gui.updateDisplay();    // Clear any previous highlight
+        gui.highlightCell(hint.getRow(), hint.getCol(), hint.isSafe());
+        gui.showMessage("Hint: " + hint);
+    }
+
+    // Handle share request from GUI - copies the board's code to the clipboard
+    private void handleShare() {
+        String code = game.getBoardCode();
+        if (code == null) {
+            gui.showMessage("Make the first move to place the mines!");
+            return;
+        }
+        java.awt.Toolkit.getDefaultToolkit().getSystemClipboard()
+                .setContents(new java.awt.datatransfer.StringSelection(code), null);
+        gui.showMessage("Board code copied (" + code.length() + " characters)");
+    }
+
+    // Handle replay request from GUI - opens a playback window for the current game
+    private void handleReplay() {
+        if (game.getMoveLog().isEmpty()) {
+            gui.showMessage("Nothing to replay yet!");
+            return;
+        }
+        if (game.getView().getNeighborTable() == null) {
+            gui.showMessage("No replays on off-heap boards!");  // Playback keeps its keyframes on the heap
+            return;
+        }
+        try {
+            new ReplayViewer(game.toReplay()).open();
+        } catch (IllegalArgumentException | OutOfMemoryError e) {
+            gui.showMessage("Could not open the replay: " + e.getMessage());
+        }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,33 @@
+package bot;
+
+import game.GameView;
+import game.Hint;
+import game.HintEngine;
+import game.Move;
+
+// Solver bot: plays the HintEngine's suggestion (a provably safe cell, else the lowest-risk one)
+public class HintStrategy implements Strategy {
+    private final long budgetMillis;  // Time budget given to the hint engine per move
+    private HintEngine engine;        // Engine attached to the current game
+
+    public HintStrategy(long budgetMillis) {
+        this.budgetMillis = budgetMillis;
+    }
+
+    @Override
+    public String getName() { return "hint-solver"; }
+
+    @Override
+    public void newGame(GameView view) {
+        if (engine != null) {
+            engine.detach();
+        }
+        engine = new HintEngine(view, budgetMillis);
+    }
+
+    @Override
+    public Move nextMove(GameView view) {
+        Hint hint = engine.findHint();
+        return hint == null ? Move.reveal(0, 0) : Move.reveal(hint.getRow(), hint.getCol());
+    }
+}
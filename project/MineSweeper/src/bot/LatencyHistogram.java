@@ -0,0 +1,58 @@
+package bot;
+
+// Log-linear histogram of durations in nanoseconds (about 6% resolution, fixed memory)
+// Each worker fills its own histogram; they are merged once the run is over
+public class LatencyHistogram {
+    private static final int SUB_BUCKETS = 16;  // Linear buckets per power of two
+    private final long[] counts = new long[64 * SUB_BUCKETS];
+    private long total;
+    private long max;
+
+    // Record one duration
+    public void record(long nanos) {
+        nanos = Math.max(nanos, 1);
+        counts[bucketOf(nanos)]++;
+        total++;
+        max = Math.max(max, nanos);
+    }
+
+    // Add another histogram's counts to this one
+    public void merge(LatencyHistogram other) {
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] += other.counts[i];
+        }
+        total += other.total;
+        max = Math.max(max, other.max);
+    }
+
+    // Approximate duration at a percentile (0-100), reported as the bucket's upper bound
+    public long percentile(double percent) {
+        if (total == 0) return 0;
+        long rank = (long) Math.ceil(total * percent / 100.0);
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= Math.max(rank, 1)) {
+                return Math.min(upperBound(i), max);
+            }
+        }
+        return max;
+    }
+
+    private static int bucketOf(long nanos) {
+        int exponent = 63 - Long.numberOfLeadingZeros(nanos);
+        if (exponent < 4) return (int) nanos;  // Values below 16 map one-to-one
+        int sub = (int) ((nanos >>> (exponent - 4)) & (SUB_BUCKETS - 1));
+        return exponent * SUB_BUCKETS + sub;
+    }
+
+    private static long upperBound(int bucket) {
+        int exponent = bucket / SUB_BUCKETS;
+        int sub = bucket % SUB_BUCKETS;
+        if (exponent < 4) return bucket;
+        return ((long) (SUB_BUCKETS + sub + 1) << (exponent - 4)) - 1;
+    }
+
+    public long getCount() { return total; }
+    public long getMax() { return max; }
+}
@@ -0,0 +1,37 @@
+package bot;
+
+import java.util.SplittableRandom;
+import game.GameView;
+import game.Move;
+
+// Baseline bot: reveals a random covered, unflagged cell
+public class RandomStrategy implements Strategy {
+    private final SplittableRandom random;
+
+    public RandomStrategy(long seed) {
+        this.random = new SplittableRandom(seed);
+    }
+
+    @Override
+    public String getName() { return "random"; }
+
+    @Override
+    public Move nextMove(GameView view) {
+        // Sample until a playable cell is found (falls back to a scan when the board is nearly full)
+        for (int attempt = 0; attempt < 64; attempt++) {
+            int row = random.nextInt(view.getRows());
+            int col = random.nextInt(view.getCols());
+            if (!view.isRevealed(row, col) && !view.isFlagged(row, col)) {
+                return Move.reveal(row, col);
+            }
+        }
+        for (int row = 0; row < view.getRows(); row++) {
+            for (int col = 0; col < view.getCols(); col++) {
+                if (!view.isRevealed(row, col) && !view.isFlagged(row, col)) {
+                    return Move.reveal(row, col);
+                }
+            }
+        }
+        return Move.reveal(0, 0);
+    }
+}
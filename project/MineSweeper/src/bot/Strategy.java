@@ -0,0 +1,18 @@
+package bot;
+
+import game.GameView;
+import game.Move;
+
+// An auto-player: looks at what a player can see and picks the next move
+// A tournament creates one instance per worker, so implementations need not be thread-safe
+public interface Strategy {
+    // Name shown in tournament results
+    String getName();
+
+    // Called before each game with the view the strategy will play on
+    default void newGame(GameView view) {
+    }
+
+    // Choose the next reveal, flag or chord (Move.reveal / Move.flag / Move.chord)
+    Move nextMove(GameView view);
+}
@@ -0,0 +1,275 @@
+package bot;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongFunction;
+import game.GameView;
+import game.MinesweeperGame;
+import game.Move;
+
+// Plays every strategy on the same seeded boards, in parallel across cores
+// Each worker lane runs games one after another; the strategy itself runs on a separate bot thread
+// so a move that exceeds the time limit, or throws, forfeits that game instead of stalling the lane.
+// Every game gets a fresh strategy instance, seeded from the game and strategy indexes only, so results
+// do not depend on which lane played what (and a forfeit never leaves a half-updated instance behind).
+// Run with: java bot.Tournament [games] [rows cols mines] [moveLimitMs]
+public class Tournament {
+    // A competitor: a name and a factory creating a fresh strategy per game (given a seed)
+    public static class Entry {
+        private final String name;
+        private final LongFunction<Strategy> factory;
+
+        public Entry(String name, LongFunction<Strategy> factory) {
+            this.name = name;
+            this.factory = factory;
+        }
+
+        public String getName() { return name; }
+    }
+
+    // Results for one strategy (each lane keeps its own, merged at the end)
+    public static class Result {
+        private final String name;
+        private int games;
+        private int wins;
+        private int timeouts;
+        private int errors;      // Games forfeited because the strategy threw
+        private long moves;
+        private long gameNanos;  // Total time spent playing this strategy's games
+        private final LatencyHistogram thinkTimes = new LatencyHistogram();
+
+        Result(String name) {
+            this.name = name;
+        }
+
+        void merge(Result other) {
+            games += other.games;
+            wins += other.wins;
+            timeouts += other.timeouts;
+            errors += other.errors;
+            moves += other.moves;
+            gameNanos += other.gameNanos;
+            thinkTimes.merge(other.thinkTimes);
+        }
+
+        // Getter methods
+        public String getName() { return name; }
+        public int getGames() { return games; }
+        public int getWins() { return wins; }
+        public int getTimeouts() { return timeouts; }
+        public int getErrors() { return errors; }
+        public double getWinRate() { return games == 0 ? 0 : (double) wins / games; }
+        public double getMovesPerGame() { return games == 0 ? 0 : (double) moves / games; }
+        public double getGamesPerSecond() { return gameNanos == 0 ? 0 : games / (gameNanos / 1e9); }
+        public LatencyHistogram getThinkTimes() { return thinkTimes; }
+    }
+
+    private final List<Entry> entries;  // Competing strategies
+    private final int rows;             // Board configuration shared by every game
+    private final int cols;
+    private final int mines;
+    private final int gamesPerStrategy; // Boards played by each strategy
+    private final long baseSeed;        // Game i uses seed baseSeed + i for every strategy (see strategySeed)
+    private final long moveLimitNanos;  // Per-move time limit
+    private final int threads;          // Number of worker lanes
+    private long wallNanos;             // Duration of the last run
+
+    // Constructor - configures a tournament
+    public Tournament(List<Entry> entries, int rows, int cols, int mines, int gamesPerStrategy,
+                      long baseSeed, long moveLimitMillis, int threads) {
+        this.entries = entries;
+        this.rows = rows;
+        this.cols = cols;
+        this.mines = mines;
+        this.gamesPerStrategy = gamesPerStrategy;
+        this.baseSeed = baseSeed;
+        this.moveLimitNanos = moveLimitMillis * 1_000_000L;
+        this.threads = threads;
+    }
+
+    // Run every game and return merged results in entry order
+    public List<Result> run() throws InterruptedException {
+        int totalTasks = entries.size() * gamesPerStrategy;
+        AtomicInteger nextTask = new AtomicInteger();
+        List<Lane> lanes = new ArrayList<>();
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+
+        long start = System.nanoTime();
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            Lane lane = new Lane(i, nextTask, totalTasks);
+            lanes.add(lane);
+            futures.add(pool.submit(lane));
+        }
+        for (Future<?> future : futures) {
+            try {
+                future.get();
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("Tournament worker failed", e.getCause());
+            }
+        }
+        pool.shutdown();
+        wallNanos = System.nanoTime() - start;
+
+        // Merge per-lane partial results
+        List<Result> results = new ArrayList<>();
+        for (int s = 0; s < entries.size(); s++) {
+            Result merged = new Result(entries.get(s).getName());
+            for (Lane lane : lanes) {
+                merged.merge(lane.results[s]);
+            }
+            results.add(merged);
+        }
+        return results;
+    }
+
+    // A worker that pulls (strategy, board) tasks and plays them with a private bot thread
+    private class Lane implements Runnable {
+        private final int id;
+        private final AtomicInteger nextTask;
+        private final int totalTasks;
+        private final Result[] results;
+        private ExecutorService botThread;
+
+        Lane(int id, AtomicInteger nextTask, int totalTasks) {
+            this.id = id;
+            this.nextTask = nextTask;
+            this.totalTasks = totalTasks;
+            this.results = new Result[entries.size()];
+            for (int s = 0; s < entries.size(); s++) {
+                results[s] = new Result(entries.get(s).getName());
+            }
+        }
+
+        @Override
+        public void run() {
+            botThread = newBotThread();
+            try {
+                int task;
+                while ((task = nextTask.getAndIncrement()) < totalTasks) {
+                    // Board-major order: all strategies play board i before board i + 1
+                    int strategyIndex = task % entries.size();
+                    int gameIndex = task / entries.size();
+                    playGame(strategyIndex, gameIndex);
+                }
+            } finally {
+                botThread.shutdownNow();
+            }
+        }
+
+        // Play one game to the end (or until the strategy times out or stops making progress)
+        private void playGame(int strategyIndex, int gameIndex) {
+            Result result = results[strategyIndex];
+            Strategy strategy = entries.get(strategyIndex).factory.apply(strategySeed(gameIndex, strategyIndex));
+            MinesweeperGame game = new MinesweeperGame(rows, cols, mines, baseSeed + gameIndex);
+            GameView view = game.getView();
+
+            long gameStart = System.nanoTime();
+            int moveLimit = rows * cols * 4;  // Guard against bots repeating useless moves
+            int moves = 0;
+            try {
+                callBot(() -> { strategy.newGame(view); return null; });
+                while (!game.isGameOver() && moves < moveLimit) {
+                    long thinkStart = System.nanoTime();
+                    Move move = callBot(() -> strategy.nextMove(view));
+                    result.thinkTimes.record(System.nanoTime() - thinkStart);
+                    apply(game, move);
+                    moves++;
+                }
+            } catch (TimeoutException e) {
+                result.timeouts++;  // Forfeit: counted as a loss
+            } catch (ExecutionException e) {
+                result.errors++;  // Forfeit: counted as a loss
+            }
+
+            result.games++;
+            result.moves += moves;
+            if (game.isGameWon()) result.wins++;
+            result.gameNanos += System.nanoTime() - gameStart;
+        }
+
+        // Run a strategy call on the bot thread, giving up after the move limit
+        private <T> T callBot(Callable<T> call) throws TimeoutException, ExecutionException {
+            Future<T> future = botThread.submit(call);
+            try {
+                return future.get(moveLimitNanos, TimeUnit.NANOSECONDS);
+            } catch (TimeoutException e) {
+                // Abandon the stuck thread and continue with a fresh one
+                future.cancel(true);
+                botThread.shutdownNow();
+                botThread = newBotThread();
+                throw e;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Tournament interrupted", e);
+            }
+        }
+
+        private ExecutorService newBotThread() {
+            return Executors.newSingleThreadExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "bot-lane-" + id);
+                thread.setDaemon(true);  // A bot stuck in a loop must not keep the JVM alive
+                return thread;
+            });
+        }
+    }
+
+    // Seed for one strategy on one board: distinct per (game, strategy) pair and independent of scheduling
+    private long strategySeed(int gameIndex, int strategyIndex) {
+        return (baseSeed + gameIndex) * entries.size() + strategyIndex;
+    }
+
+    // Apply a strategy's move to the game
+    private static void apply(MinesweeperGame game, Move move) {
+        if (move == null) return;
+        switch (move.getType()) {
+            case REVEAL -> game.revealCell(move.getRow(), move.getCol());
+            case FLAG -> game.toggleFlag(move.getRow(), move.getCol());
+            case CHORD -> game.chord(move.getRow(), move.getCol());
+            default -> { }  // Bots may not undo or redo
+        }
+    }
+
+    public long getWallNanos() { return wallNanos; }
+
+    // Print a results table
+    public void printResults(List<Result> results) {
+        System.out.printf("%-14s %8s %8s %10s %10s %10s %10s %9s %7s %10s%n",
+                "strategy", "games", "win %", "moves/gm", "p50 us", "p90 us", "p99 us", "timeouts", "errors", "games/s");
+        for (Result r : results) {
+            LatencyHistogram t = r.getThinkTimes();
+            System.out.printf("%-14s %8d %8.1f %10.1f %10.1f %10.1f %10.1f %9d %7d %10.0f%n",
+                    r.getName(), r.getGames(), r.getWinRate() * 100, r.getMovesPerGame(),
+                    t.percentile(50) / 1e3, t.percentile(90) / 1e3, t.percentile(99) / 1e3,
+                    r.getTimeouts(), r.getErrors(), r.getGamesPerSecond());
+        }
+        int totalGames = results.stream().mapToInt(Result::getGames).sum();
+        System.out.printf("%d games in %.2f s on %d threads (%.0f games/s overall)%n",
+                totalGames, wallNanos / 1e9, threads, totalGames / (wallNanos / 1e9));
+    }
+
+    // Entry point: hint solver vs random on Expert boards by default
+    public static void main(String[] args) throws InterruptedException {
+        int games = args.length > 0 ? Integer.parseInt(args[0]) : 2000;
+        int rows = args.length > 3 ? Integer.parseInt(args[1]) : 16;
+        int cols = args.length > 3 ? Integer.parseInt(args[2]) : 30;
+        int mines = args.length > 3 ? Integer.parseInt(args[3]) : 99;
+        long moveLimitMs = args.length > 4 ? Long.parseLong(args[4]) : 100;
+
+        List<Entry> entries = new ArrayList<>();
+        entries.add(new Entry("hint-solver", seed -> new HintStrategy(Math.max(1, moveLimitMs / 2))));
+        entries.add(new Entry("random", RandomStrategy::new));
+
+        Tournament tournament = new Tournament(entries, rows, cols, mines, games, 42L, moveLimitMs,
+                Runtime.getRuntime().availableProcessors());
+        tournament.printResults(tournament.run());
+    }
+}
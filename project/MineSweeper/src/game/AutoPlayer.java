@@ -0,0 +1,198 @@
+package game;
+
+import java.util.BitSet;
+
+// Plays every move that is certain from what the player can see, as fast as the game accepts them
+// Single-cell rules on revealed numbers: a number with all its flags placed has only safe covered
+// neighbors left, which are revealed (a chord, trusting the flags like a player's chord does); a number
+// whose covered neighbors are exactly its missing mines gets them all flagged. The first move opens the
+// center. Only numbers next to cells that changed since they were last checked (reported through
+// CellChangeListener) are looked at again, so a step costs about as much as the moves it makes.
+// Moves go through revealCell / toggleFlag like a player's, history and listeners included.
+// Not thread-safe: use it from the thread that drives the game (the EDT in the GUI).
+public class AutoPlayer implements CellChangeListener {
+    private static final int CHECK_INTERVAL = 32;  // Cells checked between clock reads
+
+    private final MinesweeperGame game;  // Game to play (moves)
+    private final GameView view;         // What the player sees (the only thing the rules read)
+    private final int rows;
+    private final int cols;
+    private final NeighborTable table;   // Null on boards without one (neighbors computed from the topology)
+    private final Topology topology;
+    private final long[] around;         // Neighbor buffer for topology lookups
+    private final int[] neighbors;       // Neighbors of the cell being checked
+    private final int[] covered;         // Its covered, unflagged neighbors
+
+    // Numbers to check (ring buffer of flat indices, each queued at most once)
+    private int[] queue = new int[256];
+    private int queueHead;
+    private int queueSize;
+    private final BitSet queued = new BitSet();
+    private long rescanCursor;           // Next cell of a full rescan (the board changed as a whole)
+    private boolean openingBlocked;      // The first click could not be made (the center is flagged)
+
+    // Statistics over every play() call
+    private long moves;
+    private long reveals;
+    private long flags;
+    private long busyNanos;
+
+    // Constructor - attaches to a game
+    public AutoPlayer(MinesweeperGame game) {
+        this.game = game;
+        this.view = game.getView();
+        this.rows = game.getRows();
+        this.cols = game.getCols();
+        this.table = view.getNeighborTable();
+        this.topology = game.getTopology();
+        this.around = new long[topology.getMaxDegree()];
+        this.neighbors = new int[topology.getMaxDegree()];
+        this.covered = new int[topology.getMaxDegree()];
+        game.addCellChangeListener(this);
+    }
+
+    // Stop listening to the game
+    public void detach() {
+        game.removeCellChangeListener(this);
+    }
+
+    @Override
+    public void onCellChanged(int row, int col) {
+        int index = row * cols + col;
+        enqueue(index);  // A revealed number, or a flag or reveal that changes its neighbors' counts
+        int count = collectNeighbors(index, neighbors);
+        for (int k = 0; k < count; k++) {
+            enqueue(neighbors[k]);
+        }
+    }
+
+    @Override
+    public void onBoardChanged() {
+        rescanCursor = 0;  // Mines placed, reset or replay jump: look at every cell again
+    }
+
+    private void enqueue(int index) {
+        if (queued.get(index)) return;
+        queued.set(index);
+        if (queueSize == queue.length) {
+            int[] grown = new int[queue.length * 2];
+            for (int i = 0; i < queueSize; i++) {
+                grown[i] = queue[(queueHead + i) % queue.length];
+            }
+            queue = grown;
+            queueHead = 0;
+        }
+        queue[(queueHead + queueSize) % queue.length] = index;
+        queueSize++;
+    }
+
+    // Make certain moves until maxMoves are made (a chord may go a few over), the time budget runs out,
+    // the game ends or nothing certain is left; returns the number of moves made
+    public int play(int maxMoves, long budgetNanos) {
+        long start = System.nanoTime();
+        long deadline = start + budgetNanos;
+        long before = moves;
+        int steps = 0;
+        if (view.isFirstMove() && !view.isGameOver()) {
+            openingBlocked = !reveal(rows / 2 * cols + cols / 2);  // Mines are placed around the first click: always safe
+        }
+        while (!view.isGameOver() && moves - before < maxMoves) {
+            if (++steps % CHECK_INTERVAL == 0 && System.nanoTime() > deadline) break;
+            if (queueSize > 0) {
+                int index = queue[queueHead];
+                queueHead = (queueHead + 1) % queue.length;
+                queueSize--;
+                queued.clear(index);
+                check(index);
+            } else if (rescanCursor < (long) rows * cols) {
+                enqueue((int) rescanCursor++);
+            } else {
+                break;  // Nothing certain left
+            }
+        }
+        busyNanos += System.nanoTime() - start;
+        return (int) (moves - before);
+    }
+
+    // Whether play() has nothing left to do (game over, or no certain move on the board)
+    public boolean isFinished() {
+        return view.isGameOver() || ((!view.isFirstMove() || openingBlocked) && queueSize == 0
+                && rescanCursor >= (long) rows * cols);
+    }
+
+    // Apply the single-cell rules around one cell if it is a revealed number
+    private void check(int index) {
+        int row = index / cols;
+        int col = index % cols;
+        int number = view.getAdjacentMines(row, col);
+        if (number <= 0) return;  // Covered, revealed mine or an empty cell (the game opened around it)
+
+        int count = collectNeighbors(index, neighbors);
+        int flagged = 0;
+        int coveredCount = 0;
+        for (int k = 0; k < count; k++) {
+            int neighbor = neighbors[k];
+            if (view.isFlagged(neighbor / cols, neighbor % cols)) {
+                flagged++;
+            } else if (!view.isRevealed(neighbor / cols, neighbor % cols)) {
+                covered[coveredCount++] = neighbor;
+            }
+        }
+        if (coveredCount == 0) return;
+
+        if (flagged == number) {
+            for (int k = 0; k < coveredCount && !view.isGameOver(); k++) {
+                reveal(covered[k]);  // Skipped by the game if an earlier reveal already opened it
+            }
+        } else if (flagged + coveredCount == number) {
+            for (int k = 0; k < coveredCount && !view.isGameOver(); k++) {
+                if (game.toggleFlag(covered[k] / cols, covered[k] % cols)) {
+                    moves++;
+                    flags++;
+                }
+            }
+        }
+    }
+
+    private boolean reveal(int index) {
+        int row = index / cols;
+        int col = index % cols;
+        if (view.isRevealed(row, col) || !game.revealCell(row, col)) return false;
+        moves++;
+        reveals++;
+        return true;
+    }
+
+    // Flat indices of a cell's neighbors; returns how many
+    private int collectNeighbors(int index, int[] out) {
+        if (table != null) {
+            int count = table.end(index) - table.start(index);
+            for (int k = 0; k < count; k++) {
+                out[k] = table.neighbor(table.start(index) + k);
+            }
+            return count;
+        }
+        int count = topology.collectNeighbors(rows, cols, index, around);
+        for (int k = 0; k < count; k++) {
+            out[k] = (int) around[k];
+        }
+        return count;
+    }
+
+    // Getter methods
+    public long getMoves() { return moves; }
+    public long getReveals() { return reveals; }
+    public long getFlags() { return flags; }
+    public long getBusyNanos() { return busyNanos; }
+
+    // Moves per second of time spent inside play()
+    public double getMovesPerSecond() {
+        return busyNanos == 0 ? 0 : moves * 1e9 / busyNanos;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%,d moves (%,d reveals, %,d flags) in %.2f s, %,.0f moves/s", moves, reveals, flags,
+                busyNanos / 1e9, getMovesPerSecond());
+    }
+}
@@ -3,151 +3,271 @@ package game;
 import java.util.*;
 
 public class Board {
-    // 2D array to store all cells in the game board
-    private Cell[][] grid;
+    // Packed cells of the board (see Cell.pack) in row-major order: cell (row, col) is at row * cols + col
+    private final CellStorage cells;
     private final int rows;          // Number of rows in the board
     private final int cols;          // Number of columns in the board
     private final int totalMines;    // Total number of mines to place
+    private final Topology topology; // Which cells count as neighbors
+    private final NeighborTable neighbors;  // Precomputed neighbors (null when computed on the fly)
+    private OpeningIndex openingIndex;  // Precomputed openings (null until mines are placed, or without a table)
 
-    // Constructor to initialize the board with given dimensions and mine count
+    // Cells that keep the game from being won, updated by every write so win checks need no scan
+    private long coveredSafeCells;   // Non-mine cells not revealed yet
+    private long unflaggedMines;     // Mines without a flag
+    private long wrongFlags;         // Flags on non-mine cells
+
+    // Constructor to initialize a classic board with given dimensions and mine count
     public Board(int rows, int cols, int mines) {
-        this.rows = rows;
-        this.cols = cols;
-        this.totalMines = mines;
-        initializeGrid();  // Set up the grid with empty cells
+        this(rows, cols, mines, Topology.CLASSIC);
     }
 
-    // Initialize the grid with Cell objects at each position
-    private void initializeGrid() {
-        grid = new Cell[rows][cols];
-        for (int i = 0; i < rows; i++) {
-            for (int j = 0; j < cols; j++) {
-                grid[i][j] = new Cell(i, j);  // Create a new cell at position (i,j)
-            }
+    // Constructor to initialize a board with a specific neighbor topology
+    public Board(int rows, int cols, int mines, Topology topology) {
+        this(rows, cols, mines, new NeighborTable(rows, cols, topology));
+    }
+
+    // Constructor to initialize a board around an already built (shared) neighbor table
+    public Board(int rows, int cols, int mines, NeighborTable neighbors) {
+        this(rows, cols, mines, neighbors.getTopology(), neighbors, new HeapCellStorage((long) rows * cols));
+        if (neighbors.getCellCount() != rows * cols) {
+            throw new IllegalArgumentException("Neighbor table does not match board size");
         }
     }
 
+    // Constructor to initialize a board in a given storage, e.g. off-heap for boards beyond the heap
+    // Neighbors are computed from the topology on the fly (a table would cost 36 bytes per cell),
+    // and there is no opening index, so reveals flood-fill directly over the storage.
+    public Board(int rows, int cols, int mines, Topology topology, CellStorage storage) {
+        this(rows, cols, mines, topology, null, storage);
+    }
+
+    private Board(int rows, int cols, int mines, Topology topology, NeighborTable neighbors, CellStorage storage) {
+        if (storage.size() != (long) rows * cols) {
+            throw new IllegalArgumentException("Storage does not match board size");
+        }
+        this.rows = rows;
+        this.cols = cols;
+        this.totalMines = mines;
+        this.topology = topology;
+        this.neighbors = neighbors;
+        this.cells = storage;  // Fresh storage is all zeros: every cell covered, no mines
+        this.coveredSafeCells = storage.size();
+    }
+
     // Place mines randomly on the board, avoiding a safe area around the first click
     public void placeMines(int safeRow, int safeCol, Random random) {
         // Get all positions around the safe cell plus the safe cell itself
-        List<int[]> safeZones = getAdjacentPositions(safeRow, safeCol);
-        safeZones.add(new int[]{safeRow, safeCol});
+        long[] safeZones = getSafeZone((long) safeRow * cols + safeCol);
+        if (totalMines > (long) rows * cols - safeZones.length) {
+            throw new IllegalArgumentException("Too many mines for board size");  // Would never find a free cell
+        }
 
         int minesPlaced = 0;
         // Keep placing mines until we reach the total number of mines
         while (minesPlaced < totalMines) {
             int row = random.nextInt(rows);
             int col = random.nextInt(cols);
+            long index = (long) row * cols + col;
 
             // Only place mine if it's not in a safe zone and not already a mine
-            if (!isSafeZone(row, col, safeZones) && !grid[row][col].isMine()) {
-                grid[row][col].setMine(true);
+            if (!isSafeZone(index, safeZones) && !isMine(index)) {
+                setBit(index, Cell.MINE_BIT, true);
                 minesPlaced++;
             }
         }
         calculateAdjacentMines();  // Update adjacent mine counts for all cells
+        buildOpeningIndex();
+    }
+
+    // Place mines for a seed, avoiding a safe area around the first click
+    // Tiles of the board are filled in parallel (see BoardTiles), so this is the way to seed huge boards;
+    // the layout depends only on the seed and board size, not on how many threads fill it
+    public void placeMines(int safeRow, int safeCol, long seed) {
+        BoardTiles.placeMines(this, getSafeZone((long) safeRow * cols + safeCol), seed);
+        calculateAdjacentMines();  // Update adjacent mine counts for all cells
+        buildOpeningIndex();
+    }
+
+    // Place the mines of a pre-generated layout around the first click
+    // Only valid when the click has a full-size safe zone (see hasFullSafeZone)
+    public void placeMines(int safeRow, int safeCol, MineLayout layout) {
+        if (layout.getNeighborTable() != neighbors || !hasFullSafeZone(safeRow, safeCol)) {
+            throw new IllegalArgumentException("Layout does not fit this board or click");
+        }
+        long[] safeZone = getSafeZone((long) safeRow * cols + safeCol);
+        Arrays.sort(safeZone);
+
+        // Map each rank to the cell it names by stepping over the safe cells before it
+        int skipped = 0;
+        for (int rank : layout.getRanks()) {
+            while (skipped < safeZone.length && safeZone[skipped] <= rank + skipped) {
+                skipped++;
+            }
+            setBit(rank + skipped, Cell.MINE_BIT, true);
+        }
+        calculateAdjacentMines();  // Update adjacent mine counts for all cells
+        buildOpeningIndex();
+    }
+
+    // Place mines on exactly the given cells (an imported layout, see BoardCode)
+    public void placeMines(long[] mineCells) {
+        if (mineCells.length != totalMines) {
+            throw new IllegalArgumentException("Layout has " + mineCells.length + " mines, board expects " + totalMines);
+        }
+        for (long index : mineCells) {
+            setBit(index, Cell.MINE_BIT, true);
+        }
+        calculateAdjacentMines();  // Update adjacent mine counts for all cells
+        buildOpeningIndex();
+    }
+
+    // Cells holding a mine, ascending (row * cols + col)
+    public long[] getMineCells() {
+        long[] mineCells = new long[totalMines];
+        int count = 0;
+        long size = cells.size();
+        for (long index = 0; index < size && count < mineCells.length; index++) {
+            if ((cells.get(index) & Cell.MINE_BIT) != 0) {
+                mineCells[count++] = index;
+            }
+        }
+        return count == mineCells.length ? mineCells : Arrays.copyOf(mineCells, count);
+    }
+
+    // Whether a click's safe zone has the full size a pre-generated layout assumes
+    // (false near the edges of non-wrapping topologies, where cells have fewer neighbors)
+    public boolean hasFullSafeZone(int row, int col) {
+        if (neighbors == null) return false;  // Layouts are only drawn for boards with a table
+        int index = row * cols + col;
+        return neighbors.end(index) - neighbors.start(index) + 1 == MineLayout.getSafeZoneSize(neighbors);
+    }
+
+    // The safe cell plus all of its neighbors
+    private long[] getSafeZone(long index) {
+        long[] around = new long[topology.getMaxDegree()];
+        int count = collectNeighbors(index, around);
+        long[] safeZone = new long[count + 1];
+        safeZone[0] = index;
+        System.arraycopy(around, 0, safeZone, 1, count);
+        return safeZone;
     }
 
     // Check if a position is in the list of safe zones
-    private boolean isSafeZone(int row, int col, List<int[]> safeZones) {
-        for (int[] safeZone : safeZones) {
-            if (safeZone[0] == row && safeZone[1] == col) {
+    private boolean isSafeZone(long index, long[] safeZones) {
+        for (long safeZone : safeZones) {
+            if (safeZone == index) {
                 return true;
             }
         }
         return false;
     }
 
-    // Calculate and set the number of adjacent mines for each non-mine cell
+    // Set the adjacent mine count of every non-mine cell, tile by tile in parallel (see BoardTiles)
+    // Mines are written straight to the storage while they are placed, so the win counters are redone here
     private void calculateAdjacentMines() {
-        for (int i = 0; i < rows; i++) {
-            for (int j = 0; j < cols; j++) {
-                if (!grid[i][j].isMine()) {
-                    int count = countAdjacentMines(i, j);
-                    grid[i][j].setAdjacentMines(count);
-                }
+        BoardTiles.countAdjacentMines(this);
+        coveredSafeCells = 0;
+        unflaggedMines = 0;
+        wrongFlags = 0;
+        long size = cells.size();
+        for (long index = 0; index < size; index++) {
+            byte packed = cells.get(index);
+            coveredSafeCells += coveredSafe(packed);
+            unflaggedMines += unflaggedMine(packed);
+            wrongFlags += wrongFlag(packed);
+        }
+    }
+
+    // Build the opening index (needs the neighbor table, so boards without one skip it)
+    private void buildOpeningIndex() {
+        if (neighbors != null) {
+            openingIndex = new OpeningIndex(cells, neighbors);  // Openings are fixed from now on
+        }
+    }
+
+    // Take the mines off the board again (undoing the first click): clears every mine and adjacent count,
+    // keeps flags and revealed cells. The next placeMines starts from a clean board.
+    void clearMines() {
+        long size = cells.size();
+        for (long index = 0; index < size; index++) {
+            byte packed = cells.get(index);
+            byte cleared = (byte) (packed & (Cell.REVEALED_BIT | Cell.FLAGGED_BIT));
+            if (cleared != packed) {
+                track(packed, cleared);
+                cells.set(index, cleared);
             }
         }
+        openingIndex = null;
     }
 
-    // Count how many mines are adjacent to a given cell (8-directional check)
-    private int countAdjacentMines(int row, int col) {
+    // Write the neighbors of a cell to out (sized for the topology's max degree); returns how many
+    int collectNeighbors(long index, long[] out) {
+        if (neighbors == null) {
+            return topology.collectNeighbors(rows, cols, index, out);
+        }
         int count = 0;
-        // Check all 8 neighboring positions
-        for (int i = -1; i <= 1; i++) {
-            for (int j = -1; j <= 1; j++) {
-                if (i == 0 && j == 0) continue;  // Skip the cell itself
-                int newRow = row + i;
-                int newCol = col + j;
-                // If neighbor is valid and has a mine, increment count
-                if (isValidPosition(newRow, newCol) && grid[newRow][newCol].isMine()) {
-                    count++;
-                }
-            }
+        for (int p = neighbors.start((int) index); p < neighbors.end((int) index); p++) {
+            out[count++] = neighbors.neighbor(p);
         }
         return count;
     }
 
-    // Get all cells that should be revealed when a cell is clicked (BFS algorithm)
-    public List<int[]> getCellsToReveal(int row, int col, GameState state) {
-        List<int[]> cellsToReveal = new ArrayList<>();
-        Queue<int[]> queue = new LinkedList<>();
-        boolean[][] visited = new boolean[rows][cols];
-
-        // Start BFS from the clicked cell if it's valid and not already revealed/flagged
-        if (isValidPosition(row, col) && !grid[row][col].isRevealed() && !grid[row][col].isFlagged()) {
-            queue.add(new int[]{row, col});
-            visited[row][col] = true;
-        }
-
-        // Process all cells in the queue
-        while (!queue.isEmpty()) {
-            int[] current = queue.poll();
-            int r = current[0];
-            int c = current[1];
-
-            // Save cell state for undo functionality
-            state.addChangedCell(grid[r][c]);
-            cellsToReveal.add(new int[]{r, c});
-
-            // If cell has 0 adjacent mines, add all its unrevealed neighbors to queue
-            if (grid[r][c].getAdjacentMines() == 0) {
-                for (int i = -1; i <= 1; i++) {
-                    for (int j = -1; j <= 1; j++) {
-                        if (i == 0 && j == 0) continue;
-                        int newRow = r + i;
-                        int newCol = c + j;
-
-                        // Add neighbor if valid, not visited, not revealed, and not flagged
-                        if (isValidPosition(newRow, newCol) &&
-                                !visited[newRow][newCol] &&
-                                !grid[newRow][newCol].isRevealed() &&
-                                !grid[newRow][newCol].isFlagged()) {
-
-                            queue.add(new int[]{newRow, newCol});
-                            visited[newRow][newCol] = true;
-                        }
-                    }
+    // Reveal a clicked cell and, when it has no adjacent mines, the area around it; returns how many cells
+    // were revealed. Each one is added to state (as it was before) for undo, in the order it was revealed.
+    // Zero cells use the precomputed opening; other cells (and boards without an index) flood-fill. The fill
+    // walks the cells it has added to state as its queue and skips revealed cells, so it needs no memory
+    // of its own beyond the undo record.
+    public int reveal(int row, int col, GameState state) {
+        if (!isValidPosition(row, col)) return 0;
+        long start = (long) row * cols + col;
+        if (isRevealed(start) || isFlagged(start)) return 0;
+        if (openingIndex != null && openingIndex.getOpening((int) start) >= 0) {
+            return revealOpening(openingIndex.getOpening((int) start), state);
+        }
+
+        int first = state.getChangedCount();
+        long[] around = new long[topology.getMaxDegree()];
+        revealCell(start, state);
+        for (int i = first; i < state.getChangedCount(); i++) {
+            // If cell has 0 adjacent mines, reveal all its covered, unflagged neighbors too
+            if (Cell.adjacentMines(state.getBefore(i)) != 0) continue;
+            int count = collectNeighbors((long) state.getChangedRow(i) * cols + state.getChangedCol(i), around);
+            for (int k = 0; k < count; k++) {
+                if ((cells.get(around[k]) & (Cell.REVEALED_BIT | Cell.FLAGGED_BIT)) == 0) {
+                    revealCell(around[k], state);
                 }
             }
         }
-
-        return cellsToReveal;
+        return state.getChangedCount() - first;
     }
 
-    // Get all adjacent positions (8 directions) around a given cell
-    private List<int[]> getAdjacentPositions(int row, int col) {
-        List<int[]> positions = new ArrayList<>();
-        for (int i = -1; i <= 1; i++) {
-            for (int j = -1; j <= 1; j++) {
-                if (i == 0 && j == 0) continue;  // Skip the cell itself
-                int newRow = row + i;
-                int newCol = col + j;
-                if (isValidPosition(newRow, newCol)) {
-                    positions.add(new int[]{newRow, newCol});
-                }
+    // Reveal the covered, unflagged cells of a precomputed opening
+    private int revealOpening(int opening, GameState state) {
+        int revealed = 0;
+        for (int i = openingIndex.getRegionStart(opening); i < openingIndex.getRegionEnd(opening); i++) {
+            int index = openingIndex.getRegionCell(i);
+            if ((cells.get(index) & (Cell.REVEALED_BIT | Cell.FLAGGED_BIT)) == 0) {
+                revealCell(index, state);
+                revealed++;
             }
         }
+        return revealed;
+    }
+
+    private void revealCell(long index, GameState state) {
+        state.addChangedCell((int) (index / cols), (int) (index % cols), cells.get(index));  // Save cell state for undo
+        setBit(index, Cell.REVEALED_BIT, true);
+    }
+
+    // Get all adjacent positions around a given cell (according to the board's topology)
+    public List<int[]> getAdjacentPositions(int row, int col) {
+        long[] around = new long[topology.getMaxDegree()];
+        int count = collectNeighbors((long) row * cols + col, around);
+        List<int[]> positions = new ArrayList<>(count);
+        for (int k = 0; k < count; k++) {
+            positions.add(new int[]{(int) (around[k] / cols), (int) (around[k] % cols)});
+        }
         return positions;
     }
 
@@ -156,15 +276,76 @@ public class Board {
         return row >= 0 && row < rows && col >= 0 && col < cols;
     }
 
-    // Getters for board properties
+    // Copy of a cell's current state; change cells through the board (setRevealed, setFlagged)
     public Cell getCell(int row, int col) {
         if (!isValidPosition(row, col)) {
             throw new IllegalArgumentException("Invalid cell coordinates");
         }
-        return grid[row][col];
+        Cell cell = new Cell(row, col);
+        cell.unpack(getPacked(row, col));
+        return cell;
+    }
+
+    // Packed state of a cell (see Cell.pack); no bounds check beyond the storage's own
+    public byte getPacked(int row, int col) {
+        return cells.get((long) row * cols + col);
+    }
+
+    // Overwrite a cell from its packed form (used to restore history and replays)
+    void setPacked(int row, int col, byte packed) {
+        long index = (long) row * cols + col;
+        track(cells.get(index), packed);
+        cells.set(index, packed);
+    }
+
+    // Single-flag accessors that read and write the storage without creating Cell copies
+    public boolean isMine(int row, int col) { return isMine((long) row * cols + col); }
+    public boolean isRevealed(int row, int col) { return isRevealed((long) row * cols + col); }
+    public boolean isFlagged(int row, int col) { return isFlagged((long) row * cols + col); }
+    public int getAdjacentMines(int row, int col) { return Cell.adjacentMines(getPacked(row, col)); }
+    public void setRevealed(int row, int col, boolean revealed) { setBit((long) row * cols + col, Cell.REVEALED_BIT, revealed); }
+    public void setFlagged(int row, int col, boolean flagged) { setBit((long) row * cols + col, Cell.FLAGGED_BIT, flagged); }
+
+    private boolean isMine(long index) { return (cells.get(index) & Cell.MINE_BIT) != 0; }
+    private boolean isRevealed(long index) { return (cells.get(index) & Cell.REVEALED_BIT) != 0; }
+    private boolean isFlagged(long index) { return (cells.get(index) & Cell.FLAGGED_BIT) != 0; }
+
+    private void setBit(long index, int bit, boolean on) {
+        byte packed = cells.get(index);
+        byte changed = (byte) (on ? packed | bit : packed & ~bit);
+        track(packed, changed);
+        cells.set(index, changed);
     }
 
+    // Update the win counters for one cell going from one packed state to another
+    private void track(byte before, byte after) {
+        coveredSafeCells += coveredSafe(after) - coveredSafe(before);
+        unflaggedMines += unflaggedMine(after) - unflaggedMine(before);
+        wrongFlags += wrongFlag(after) - wrongFlag(before);
+    }
+
+    private static int coveredSafe(byte packed) {
+        return (packed & (Cell.MINE_BIT | Cell.REVEALED_BIT)) == 0 ? 1 : 0;
+    }
+
+    private static int unflaggedMine(byte packed) {
+        return (packed & (Cell.MINE_BIT | Cell.FLAGGED_BIT)) == Cell.MINE_BIT ? 1 : 0;
+    }
+
+    private static int wrongFlag(byte packed) {
+        return (packed & (Cell.MINE_BIT | Cell.FLAGGED_BIT)) == Cell.FLAGGED_BIT ? 1 : 0;
+    }
+
+    // Win conditions, from the counters: every safe cell revealed, or every mine (and only mines) flagged
+    public boolean allSafeCellsRevealed() { return coveredSafeCells == 0; }
+    public boolean allMinesFlaggedCorrectly() { return unflaggedMines == 0 && wrongFlags == 0; }
+
     public int getRows() { return rows; }
     public int getCols() { return cols; }
+    public long getCellCount() { return cells.size(); }
     public int getTotalMines() { return totalMines; }
-}
\ No newline at end of file
+    public OpeningIndex getOpeningIndex() { return openingIndex; }
+    public NeighborTable getNeighborTable() { return neighbors; }
+    public Topology getTopology() { return topology; }
+    public CellStorage getStorage() { return cells; }
+}
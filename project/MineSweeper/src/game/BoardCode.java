@@ -0,0 +1,321 @@
+package game;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.zip.CRC32;
+import utils.GameConstants;
+import utils.InputValidator;
+
+// Short text code for a board's size, topology and exact mine layout, for sharing boards and challenges
+// The mines are stored either as Rice-coded gaps between consecutive mine cells (run lengths packed into
+// bits, near-optimal for random layouts at any density) or as a plain one-bit-per-cell bitmap, whichever
+// is smaller, followed by a 16-bit checksum, all in URL-safe base64 without padding.
+//
+// Layout: byte VERSION, varint rows, varint cols, byte topology, varint mines, byte method,
+//   RICE:   byte k, then per mine (gap >> k) one bits, a zero bit and the low k bits of the gap (LSB first)
+//   BITMAP: one bit per cell in row-major order (LSB first)
+// then 2 bytes of CRC-32 over everything before.
+public final class BoardCode {
+    private static final int VERSION = 1;
+    private static final int RICE = 0;
+    private static final int BITMAP = 1;
+    private static final Topology[] TOPOLOGIES = Topology.values();
+
+    private final int rows;
+    private final int cols;
+    private final Topology topology;
+    private final long[] mineCells;  // Ascending (row * cols + col)
+
+    private BoardCode(int rows, int cols, Topology topology, long[] mineCells) {
+        this.rows = rows;
+        this.cols = cols;
+        this.topology = topology;
+        this.mineCells = mineCells;
+    }
+
+    // Code for a board whose mines have been placed
+    public static String encode(Board board) {
+        return encode(board.getRows(), board.getCols(), board.getTopology(), board.getMineCells());
+    }
+
+    // Code for a layout given as ascending mine cells
+    public static String encode(int rows, int cols, Topology topology, long[] mineCells) {
+        long cells = (long) rows * cols;
+        int k = bestRiceParameter(mineCells, cells);
+        long riceBits = riceBits(mineCells, k);
+        boolean bitmap = cells <= riceBits;
+
+        long bodyBytes = ((bitmap ? cells : riceBits) + 7) / 8;
+        if (bodyBytes > Integer.MAX_VALUE - 64) {
+            throw new IllegalArgumentException("Board is too large for a board code");
+        }
+        ByteBuffer out = ByteBuffer.allocate((int) bodyBytes + 32);
+        out.put((byte) VERSION);
+        writeVarint(out, rows);
+        writeVarint(out, cols);
+        out.put((byte) topology.ordinal());
+        writeVarint(out, mineCells.length);
+        out.put((byte) (bitmap ? BITMAP : RICE));
+
+        if (bitmap) {
+            int start = out.position();
+            for (long cell : mineCells) {
+                int at = start + (int) (cell >>> 3);
+                out.put(at, (byte) (out.get(at) | 1 << (cell & 7)));
+            }
+            out.position(start + (int) bodyBytes);
+        } else {
+            out.put((byte) k);
+            BitWriter bits = new BitWriter(out);
+            long previous = -1;
+            for (long cell : mineCells) {
+                long gap = cell - previous - 1;
+                previous = cell;
+                bits.writeOnes(gap >>> k);
+                bits.writeBits((gap & ((1L << k) - 1)) << 1, k + 1);  // Terminating zero, then the low k bits
+            }
+            bits.flush();
+        }
+
+        CRC32 crc = new CRC32();
+        crc.update(out.array(), 0, out.position());
+        out.putShort((short) crc.getValue());
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(Arrays.copyOf(out.array(), out.position()));
+    }
+
+    // Parse a code; throws IllegalArgumentException if it is malformed or damaged, or if its board is beyond
+    // what New Game allows (sides up to the large-board limit, at most getMaxMines mines), so a code can never
+    // make the game allocate more than a board the player could have asked for
+    public static BoardCode decode(String code) {
+        byte[] data;
+        try {
+            data = Base64.getUrlDecoder().decode(code.trim());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid board code: not base64url");
+        }
+        if (data.length < 3) throw new IllegalArgumentException("Invalid board code: too short");
+        CRC32 crc = new CRC32();
+        crc.update(data, 0, data.length - 2);
+        ByteBuffer in = ByteBuffer.wrap(data);
+        if (in.getShort(data.length - 2) != (short) crc.getValue()) {
+            throw new IllegalArgumentException("Invalid board code: checksum mismatch");
+        }
+        in.limit(data.length - 2);
+
+        try {
+            if (in.get() != VERSION) throw new IllegalArgumentException("Invalid board code: unknown version");
+            int rows = readVarint(in);
+            int cols = readVarint(in);
+            int topology = in.get();
+            int mines = readVarint(in);
+            int method = in.get();
+            long cells = (long) rows * cols;
+            if (rows <= 0 || cols <= 0 || topology < 0 || topology >= TOPOLOGIES.length || mines < 0 || mines > cells) {
+                throw new IllegalArgumentException("Invalid board code: bad board size");
+            }
+            if (rows > GameConstants.LARGE_MAX_SIDE || cols > GameConstants.LARGE_MAX_SIDE) {
+                throw new IllegalArgumentException("Invalid board code: boards have at most "
+                        + GameConstants.LARGE_MAX_SIDE + " rows and columns");
+            }
+            if (mines > InputValidator.getMaxMines(rows, cols)) {
+                throw new IllegalArgumentException("Invalid board code: at most " + InputValidator.getMaxMines(rows, cols)
+                        + " mines fit a " + rows + "x" + cols + " board");
+            }
+
+            // The payload must hold every mine before room for them is allocated
+            long[] mineCells;
+            if (method == BITMAP) {
+                if ((long) in.remaining() * 8 < cells) throw new IllegalArgumentException("Invalid board code: truncated");
+                int start = in.position();
+                long set = 0;
+                for (int i = 0; i < in.remaining(); i++) {
+                    set += Integer.bitCount(in.get(start + i) & 0xFF);
+                }
+                if (set != mines) throw new IllegalArgumentException("Invalid board code: bad mine layout");
+                mineCells = new long[mines];
+                int count = 0;
+                for (int i = 0; i < in.remaining(); i++) {
+                    int b = in.get(start + i) & 0xFF;
+                    while (b != 0) {
+                        long cell = (long) i * 8 + Integer.numberOfTrailingZeros(b);
+                        if (cell >= cells || count == mines) throw new IllegalArgumentException("Invalid board code: bad mine layout");
+                        mineCells[count++] = cell;
+                        b &= b - 1;
+                    }
+                }
+                if (count != mines) throw new IllegalArgumentException("Invalid board code: bad mine layout");
+            } else if (method == RICE) {
+                int k = in.get();
+                if (k < 0 || k > 62) throw new IllegalArgumentException("Invalid board code: bad mine layout");
+                if ((long) mines * (k + 1) > (long) in.remaining() * 8) {
+                    throw new IllegalArgumentException("Invalid board code: truncated");  // Each mine takes k + 1 bits or more
+                }
+                mineCells = new long[mines];
+                BitReader bits = new BitReader(in);
+                long previous = -1;
+                for (int i = 0; i < mines; i++) {
+                    long ones = bits.readOnes();
+                    long gap = ones << k | bits.readBits(k);
+                    if (ones > cells >>> k || gap < 0 || gap >= cells - previous - 1) {  // Before adding: no wrap-around
+                        throw new IllegalArgumentException("Invalid board code: bad mine layout");
+                    }
+                    previous += gap + 1;
+                    mineCells[i] = previous;
+                }
+            } else {
+                throw new IllegalArgumentException("Invalid board code: unknown method");
+            }
+            return new BoardCode(rows, cols, TOPOLOGIES[topology], mineCells);
+        } catch (BufferUnderflowException | IndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("Invalid board code: truncated");
+        }
+    }
+
+    // Create a game on this exact layout (no random placement; the first click is not guaranteed safe)
+    public MinesweeperGame createGame() {
+        return new MinesweeperGame(this);
+    }
+
+    // Create a game on this exact layout with its cells in the given storage (e.g. off-heap, for huge boards)
+    public MinesweeperGame createGame(CellStorage storage) {
+        return new MinesweeperGame(this, storage);
+    }
+
+    // Rice parameter near log2 of the mean gap, picking whichever neighbor gives the fewest bits
+    private static int bestRiceParameter(long[] mineCells, long cells) {
+        long meanGap = (cells - mineCells.length) / (mineCells.length + 1);
+        int guess = 63 - Long.numberOfLeadingZeros(Math.max(1, meanGap));
+        int best = guess;
+        for (int k = Math.max(0, guess - 1); k <= Math.min(62, guess + 1); k++) {
+            if (riceBits(mineCells, k) < riceBits(mineCells, best)) best = k;
+        }
+        return best;
+    }
+
+    private static long riceBits(long[] mineCells, int k) {
+        long bits = (long) mineCells.length * (k + 1);
+        long previous = -1;
+        for (long cell : mineCells) {
+            bits += (cell - previous - 1) >>> k;
+            previous = cell;
+        }
+        return bits;
+    }
+
+    private static void writeVarint(ByteBuffer out, int value) {
+        while ((value & ~0x7F) != 0) {
+            out.put((byte) (value & 0x7F | 0x80));
+            value >>>= 7;
+        }
+        out.put((byte) value);
+    }
+
+    private static int readVarint(ByteBuffer in) {
+        int value = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            byte b = in.get();
+            value |= (b & 0x7F) << shift;
+            if (b >= 0) return value;
+        }
+        throw new IllegalArgumentException("Invalid board code: bad number");
+    }
+
+    // Packs bits LSB first into a buffer
+    private static final class BitWriter {
+        private final ByteBuffer out;
+        private long buffer;
+        private int count;
+
+        BitWriter(ByteBuffer out) {
+            this.out = out;
+        }
+
+        void writeOnes(long n) {
+            while (n >= 32) {
+                writeBits(0xFFFFFFFFL, 32);
+                n -= 32;
+            }
+            writeBits((1L << n) - 1, (int) n);
+        }
+
+        // Low `width` bits of value (width <= 63)
+        void writeBits(long value, int width) {
+            for (int written = 0; written < width; ) {
+                int take = Math.min(width - written, 56 - count);
+                buffer |= ((value >>> written) & ((1L << take) - 1)) << count;
+                count += take;
+                written += take;
+                while (count >= 8) {
+                    out.put((byte) buffer);
+                    buffer >>>= 8;
+                    count -= 8;
+                }
+            }
+        }
+
+        void flush() {
+            if (count > 0) out.put((byte) buffer);
+            buffer = 0;
+            count = 0;
+        }
+    }
+
+    // Reads bits LSB first from a buffer
+    private static final class BitReader {
+        private final ByteBuffer in;
+        private long buffer;
+        private int count;
+
+        BitReader(ByteBuffer in) {
+            this.in = in;
+        }
+
+        private void fill() {
+            while (count <= 48 && in.hasRemaining()) {
+                buffer |= (in.get() & 0xFFL) << count;
+                count += 8;
+            }
+            if (count == 0) throw new BufferUnderflowException();
+        }
+
+        // Count one bits up to and including the next zero bit
+        long readOnes() {
+            long ones = 0;
+            while (true) {
+                if (count == 0) fill();
+                int run = Long.numberOfTrailingZeros(~buffer);
+                if (run < count) {
+                    buffer >>>= run + 1;
+                    count -= run + 1;
+                    return ones + run;
+                }
+                ones += count;
+                buffer = 0;
+                count = 0;
+            }
+        }
+
+        long readBits(int width) {
+            long value = 0;
+            for (int read = 0; read < width; ) {
+                if (count == 0) fill();
+                int take = Math.min(width - read, count);
+                value |= (buffer & ((1L << take) - 1)) << read;
+                buffer >>>= take;
+                count -= take;
+                read += take;
+            }
+            return value;
+        }
+    }
+
+    // Getter methods
+    public int getRows() { return rows; }
+    public int getCols() { return cols; }
+    public Topology getTopology() { return topology; }
+    public int getMines() { return mineCells.length; }
+    public long[] getMineCells() { return mineCells.clone(); }
+    long[] mineCells() { return mineCells; }  // No copy, for building the board
+}
@@ -0,0 +1,239 @@
+package game;
+
+import java.util.ArrayDeque;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Random;
+import java.util.Set;
+
+// Bounded pool of pre-generated mine layouts, refilled by a background daemon thread
+// Pinned configurations (the standard difficulties) are always kept full, plus the last-used one.
+// Neighbor tables are built once per configuration and shared by every layout and board made from it,
+// so taking a game from the pool skips both the table build and drawing the mines.
+// Thread-safe: take() is called from the EDT while the worker thread refills.
+public class BoardPool {
+    public static final int DEFAULT_CAPACITY = 3;  // Layouts kept ready per configuration
+
+    // Size, mine count and topology of a board
+    private static final class Config {
+        final int rows;
+        final int cols;
+        final int mines;
+        final Topology topology;
+
+        Config(int rows, int cols, int mines, Topology topology) {
+            this.rows = rows;
+            this.cols = cols;
+            this.mines = mines;
+            this.topology = topology;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof Config c && rows == c.rows && cols == c.cols
+                    && mines == c.mines && topology == c.topology;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(rows, cols, mines, topology);
+        }
+    }
+
+    // Ready layouts of one configuration, plus when each missing slot was emptied
+    private static final class Slot {
+        final ArrayDeque<MineLayout> ready = new ArrayDeque<>();
+        final ArrayDeque<Long> emptiedAt = new ArrayDeque<>();
+        NeighborTable neighbors;  // Built by the worker on first refill
+    }
+
+    private final int capacity;
+    private final Map<Config, Slot> slots = new LinkedHashMap<>();  // Pinned configs first, then last-used
+    private final Set<Config> pinned = new HashSet<>();
+    private final Random seeds = new Random();  // Only touched by the worker thread
+    private final Thread worker;
+    private Config lastUsed;
+    private boolean closed;
+
+    // Statistics
+    private long hits;
+    private long misses;
+    private long refills;
+    private long totalRefillNanos;
+    private long maxRefillNanos;
+
+    // Constructor - starts the background worker
+    public BoardPool(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Pool capacity must be positive");
+        }
+        this.capacity = capacity;
+        worker = new Thread(this::refillLoop, "board-pool");
+        worker.setDaemon(true);  // Never keeps the application alive
+        worker.setPriority(Thread.MIN_PRIORITY);
+        worker.start();
+    }
+
+    // Keep layouts of a configuration ready for as long as the pool lives
+    public synchronized void pin(int rows, int cols, int mines, Topology topology) {
+        Config config = new Config(rows, cols, mines, topology);
+        pinned.add(config);
+        track(config);
+    }
+
+    // Take a ready layout, or null on a miss (the caller then builds the game normally)
+    // The configuration becomes the last-used one, so the pool keeps it full from now on
+    public synchronized MineLayout take(int rows, int cols, int mines, Topology topology) {
+        Config config = new Config(rows, cols, mines, topology);
+        if (!config.equals(lastUsed)) {
+            if (lastUsed != null && !pinned.contains(lastUsed)) {
+                slots.remove(lastUsed);  // Only one unpinned configuration is kept
+            }
+            lastUsed = config;
+        }
+        Slot slot = track(config);
+
+        MineLayout layout = slot.ready.poll();
+        if (layout == null) {
+            misses++;
+            return null;
+        }
+        hits++;
+        slot.emptiedAt.add(System.nanoTime());
+        notifyAll();  // Wake the worker to refill the slot
+        return layout;
+    }
+
+    // Stop the worker and drop every pooled layout
+    public synchronized void close() {
+        closed = true;
+        slots.clear();
+        notifyAll();
+    }
+
+    // Start tracking a configuration with every slot empty
+    private Slot track(Config config) {
+        Slot slot = slots.get(config);
+        if (slot == null) {
+            slot = new Slot();
+            long now = System.nanoTime();
+            for (int i = 0; i < capacity; i++) {
+                slot.emptiedAt.add(now);
+            }
+            slots.put(config, slot);
+            notifyAll();
+        }
+        return slot;
+    }
+
+    // Worker: generate layouts for under-filled configurations, last-used first
+    private void refillLoop() {
+        while (true) {
+            Config config;
+            NeighborTable neighbors;
+            synchronized (this) {
+                while (true) {
+                    if (closed) return;
+                    config = findUnderfilled();
+                    if (config != null) break;
+                    try {
+                        wait();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                }
+                neighbors = slots.get(config).neighbors;
+            }
+
+            // The expensive part runs outside the lock so take() never waits for it
+            MineLayout layout;
+            try {
+                if (neighbors == null) {
+                    neighbors = new NeighborTable(config.rows, config.cols, config.topology);
+                }
+                layout = MineLayout.generate(config.rows, config.cols, config.mines, neighbors, seeds.nextLong());
+            } catch (IllegalArgumentException e) {
+                synchronized (this) {
+                    slots.remove(config);  // Cannot be pooled (too many mines): every take stays a miss
+                    pinned.remove(config);
+                }
+                continue;
+            }
+
+            synchronized (this) {
+                Slot slot = slots.get(config);
+                if (slot == null) continue;  // Configuration was dropped meanwhile
+                slot.neighbors = neighbors;
+                if (slot.ready.size() < capacity && !slot.emptiedAt.isEmpty()) {
+                    slot.ready.add(layout);
+                    long latency = System.nanoTime() - slot.emptiedAt.poll();
+                    refills++;
+                    totalRefillNanos += latency;
+                    maxRefillNanos = Math.max(maxRefillNanos, latency);
+                }
+            }
+        }
+    }
+
+    // The configuration to refill next (caller holds the lock)
+    private Config findUnderfilled() {
+        Slot last = lastUsed == null ? null : slots.get(lastUsed);
+        if (last != null && last.ready.size() < capacity) {
+            return lastUsed;
+        }
+        for (Map.Entry<Config, Slot> entry : slots.entrySet()) {
+            if (entry.getValue().ready.size() < capacity) {
+                return entry.getKey();
+            }
+        }
+        return null;
+    }
+
+    // Number of layouts ready right now (all configurations)
+    public synchronized int getReadyCount() {
+        int count = 0;
+        for (Slot slot : slots.values()) {
+            count += slot.ready.size();
+        }
+        return count;
+    }
+
+    // Approximate heap held by ready layouts and their neighbor tables
+    public synchronized long getMemoryBytes() {
+        long bytes = 0;
+        for (Slot slot : slots.values()) {
+            for (MineLayout layout : slot.ready) {
+                bytes += layout.getMemoryBytes();
+            }
+            if (slot.neighbors != null) {
+                bytes += slot.neighbors.getMemoryBytes();
+            }
+        }
+        return bytes;
+    }
+
+    // Statistics getters
+    public synchronized long getHits() { return hits; }
+    public synchronized long getMisses() { return misses; }
+
+    public synchronized double getHitRate() {
+        return hits + misses == 0 ? 0 : (double) hits / (hits + misses);
+    }
+
+    // Time from a layout being taken until its replacement was ready
+    public synchronized double getAverageRefillMillis() {
+        return refills == 0 ? 0 : totalRefillNanos / 1e6 / refills;
+    }
+
+    public synchronized double getMaxRefillMillis() {
+        return maxRefillNanos / 1e6;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return String.format("Board pool: %d hits, %d misses (%.0f%% hit rate), refill avg %.2f ms, max %.2f ms",
+                hits, misses, getHitRate() * 100, getAverageRefillMillis(), getMaxRefillMillis());
+    }
+}
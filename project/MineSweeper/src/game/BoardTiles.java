@@ -0,0 +1,184 @@
+package game;
+
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
+
+// Splits a board into tiles (bands of whole rows) that are filled with mines and counted in parallel
+// Placement: the number of mines in each tile is drawn from the multivariate hypergeometric split of
+// the total (one conditional draw per tile, in order), so every layout stays equally likely; each tile
+// then places its own mines with its own SplittableRandom stream. Tiles and streams depend only on the
+// board size and the seed, so a seed gives the same layout however many threads do the work.
+// Counting: each tile adds its mines to their neighbors, including the halo rows of the tiles next to
+// it, in waves that keep neighboring tiles apart; mines are only read once all are placed.
+// Parallel steps run in the current ForkJoinPool (the common pool unless called from inside another).
+final class BoardTiles {
+    static final int TILE_CELLS = 1 << 16;  // Target cells per tile
+    private static final int MIN_TILE_ROWS = 2;  // The furthest any topology's neighbors are, in rows
+    private static final double[] LOG_FACTORIALS = new double[256];
+    private static final double HALF_LOG_TWO_PI = 0.5 * Math.log(2 * Math.PI);
+
+    static {
+        for (int n = 1; n < LOG_FACTORIALS.length; n++) {
+            LOG_FACTORIALS[n] = LOG_FACTORIALS[n - 1] + Math.log(n);
+        }
+    }
+
+    private BoardTiles() { }
+
+    // Rows per tile for a board (the last tile may be shorter)
+    static int getTileRows(int rows, int cols) {
+        return Math.min(rows, Math.max(MIN_TILE_ROWS, TILE_CELLS / cols));
+    }
+
+    // Place the board's mines anywhere outside the safe zone, tile by tile
+    static void placeMines(Board board, long[] safeZone, long seed) {
+        int rows = board.getRows();
+        int cols = board.getCols();
+        int tileRows = getTileRows(rows, cols);
+        int tiles = (rows + tileRows - 1) / tileRows;
+
+        // Cells each tile may put mines on
+        long[] free = new long[tiles];
+        long remainingCells = 0;
+        for (int t = 0; t < tiles; t++) {
+            free[t] = (long) (Math.min(rows, (t + 1) * tileRows) - t * tileRows) * cols;
+        }
+        for (long safe : safeZone) {
+            free[(int) (safe / cols / tileRows)]--;
+        }
+        for (long cells : free) {
+            remainingCells += cells;
+        }
+        int remainingMines = board.getTotalMines();
+        if (remainingMines > remainingCells) {
+            throw new IllegalArgumentException("Too many mines for board size");
+        }
+
+        // Split the mines over the tiles, then give every tile its own stream (both in tile order)
+        SplittableRandom random = new SplittableRandom(seed);
+        int[] mines = new int[tiles];
+        for (int t = 0; t < tiles; t++) {
+            mines[t] = hypergeometric(random, remainingCells, remainingMines, free[t]);
+            remainingCells -= free[t];
+            remainingMines -= mines[t];
+        }
+        SplittableRandom[] streams = new SplittableRandom[tiles];
+        for (int t = 0; t < tiles; t++) {
+            streams[t] = random.split();
+        }
+
+        CellStorage cells = board.getStorage();
+        IntStream.range(0, tiles).parallel().forEach(t -> fillTile(cells, (long) t * tileRows * cols,
+                (long) Math.min(rows, (t + 1) * tileRows) * cols, safeZone, mines[t], free[t], streams[t]));
+    }
+
+    // Put exactly `mines` mines on the free cells of [start, end)
+    // Picks whichever of mines / free cells is the smaller set, so rejection sampling stays fast
+    private static void fillTile(CellStorage cells, long start, long end, long[] safeZone, int mines,
+                                 long free, SplittableRandom random) {
+        boolean pickFree = mines > free / 2;
+        long picks = pickFree ? free - mines : mines;
+        if (pickFree) {
+            for (long index = start; index < end; index++) {
+                if (!contains(safeZone, index)) cells.set(index, (byte) (cells.get(index) | Cell.MINE_BIT));  // Keep flags
+            }
+        }
+        for (long count = 0; count < picks; ) {
+            long index = random.nextLong(start, end);
+            byte packed = cells.get(index);
+            if (((packed & Cell.MINE_BIT) != 0) == pickFree && !contains(safeZone, index)) {
+                cells.set(index, (byte) (packed ^ Cell.MINE_BIT));
+                count++;
+            }
+        }
+    }
+
+    // Set the adjacent mine count of every non-mine cell (counts start at zero)
+    // Tiles run in waves of every third tile: a tile's mines only reach the tiles next to it, so tiles in
+    // the same wave never write the same cell. On wrapping boards the last tile also touches the first one
+    // and runs in a wave of its own unless the tile count is a multiple of three.
+    static void countAdjacentMines(Board board) {
+        int rows = board.getRows();
+        int tileRows = getTileRows(rows, board.getCols());
+        int tiles = (rows + tileRows - 1) / tileRows;
+        boolean lastAlone = board.getTopology().wraps() && tiles % 3 != 0;
+        for (int wave = 0; wave < (lastAlone ? 4 : 3); wave++) {
+            int current = wave;
+            IntStream.range(0, tiles)
+                    .filter(t -> (lastAlone && t == tiles - 1 ? 3 : t % 3) == current)
+                    .parallel()
+                    .forEach(t -> countTile(board, t * tileRows, Math.min(rows, (t + 1) * tileRows)));
+        }
+    }
+
+    // Walk a tile's mines and add one to each of their neighbors (neighborhoods are symmetric),
+    // which touches far fewer cells than counting around every cell
+    private static void countTile(Board board, int firstRow, int endRow) {
+        CellStorage cells = board.getStorage();
+        long[] around = new long[board.getTopology().getMaxDegree()];
+        long end = (long) endRow * board.getCols();
+        for (long index = (long) firstRow * board.getCols(); index < end; index++) {
+            if ((cells.get(index) & Cell.MINE_BIT) == 0) continue;
+            int count = board.collectNeighbors(index, around);
+            for (int k = 0; k < count; k++) {
+                byte packed = cells.get(around[k]);
+                if ((packed & Cell.MINE_BIT) == 0) {
+                    cells.set(around[k], (byte) (packed + (1 << Cell.COUNT_SHIFT)));
+                }
+            }
+        }
+    }
+
+    // Successes among `draws` cells taken without replacement from `population` cells holding `successes`
+    // Inverts the distribution starting at its mode and walking outwards, so a draw takes a few standard
+    // deviations of steps (a few hundred for a full tile) whatever the board size
+    static int hypergeometric(SplittableRandom random, long population, int successes, long draws) {
+        long failures = population - successes;
+        int low = (int) Math.max(0, draws - failures);
+        int high = (int) Math.min(draws, successes);
+        if (low == high) return low;
+
+        int mode = (int) Math.max(low, Math.min(high, (draws + 1) * (successes + 1) / (population + 2)));
+        double p = Math.exp(logChoose(successes, mode) + logChoose(failures, draws - mode) - logChoose(population, draws));
+        double u = random.nextDouble() - p;
+        if (u < 0) return mode;
+
+        int up = mode;
+        int down = mode;
+        double pUp = p;
+        double pDown = p;
+        while (up < high || down > low) {
+            if (up < high) {
+                pUp *= (double) (successes - up) * (draws - up) / ((double) (up + 1) * (failures - draws + up + 1));
+                up++;
+                u -= pUp;
+                if (u < 0) return up;
+            }
+            if (down > low) {
+                pDown *= (double) down * (failures - draws + down) / ((double) (successes - down + 1) * (draws - down + 1));
+                down--;
+                u -= pDown;
+                if (u < 0) return down;
+            }
+        }
+        return mode;  // Only reached through rounding; the missing probability is negligible
+    }
+
+    private static double logChoose(long n, long k) {
+        return logFactorial(n) - logFactorial(k) - logFactorial(n - k);
+    }
+
+    // ln(n!): a table for small n, Stirling's series (error below 1e-15 relative) above
+    private static double logFactorial(long n) {
+        if (n < LOG_FACTORIALS.length) return LOG_FACTORIALS[(int) n];
+        double x = n;
+        return (x + 0.5) * Math.log(x) - x + HALF_LOG_TWO_PI + 1 / (12 * x) - 1 / (360 * x * x * x);
+    }
+
+    private static boolean contains(long[] values, long value) {
+        for (long v : values) {
+            if (v == value) return true;
+        }
+        return false;
+    }
+}
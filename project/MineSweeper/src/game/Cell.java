@@ -1,6 +1,12 @@
 package game;
 
 public class Cell {
+    // Bits of the packed form (see pack): boards store every cell as one such byte
+    public static final int MINE_BIT = 1;
+    public static final int REVEALED_BIT = 2;
+    public static final int FLAGGED_BIT = 4;
+    public static final int COUNT_SHIFT = 4;
+
     // Cell position on the board
     private final int row;
     private final int col;
@@ -45,4 +51,27 @@ public class Cell {
     public void setRevealed(boolean revealed) { isRevealed = revealed; }
     public void setFlagged(boolean flagged) { isFlagged = flagged; }
     public void setAdjacentMines(int adjacentMines) { this.adjacentMines = adjacentMines; }
+
+    // Pack the cell state into a single byte (used for replay keyframes and deltas)
+    // Bit 0 = mine, bit 1 = revealed, bit 2 = flagged, bits 4-7 = adjacent mine count
+    public byte pack() {
+        int packed = adjacentMines << COUNT_SHIFT;
+        if (isMine) packed |= MINE_BIT;
+        if (isRevealed) packed |= REVEALED_BIT;
+        if (isFlagged) packed |= FLAGGED_BIT;
+        return (byte) packed;
+    }
+
+    // Restore the cell state from a byte produced by pack()
+    public void unpack(byte packed) {
+        this.isMine = (packed & MINE_BIT) != 0;
+        this.isRevealed = (packed & REVEALED_BIT) != 0;
+        this.isFlagged = (packed & FLAGGED_BIT) != 0;
+        this.adjacentMines = adjacentMines(packed);
+    }
+
+    // Adjacent mine count stored in a packed cell
+    public static int adjacentMines(byte packed) {
+        return (packed >> COUNT_SHIFT) & 0x0F;
+    }
 }
\ No newline at end of file
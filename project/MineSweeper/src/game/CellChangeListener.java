@@ -0,0 +1,8 @@
+package game;
+
+// Listener notified whenever the visible state of the board changes
+// Lets views and recorders track only the cells that changed instead of rescanning the board
+public interface CellChangeListener {
+    void onCellChanged(int row, int col);  // Called after a single cell changes state
+    void onBoardChanged();                 // Called when many cells change at once (mines placed, reset)
+}
@@ -0,0 +1,20 @@
+package game;
+
+// Where a board keeps its cells: one packed byte per cell (see Cell.pack), at flat index row * cols + col
+// Indices are longs so off-heap backends can hold more cells than a Java array allows.
+public interface CellStorage extends AutoCloseable {
+    // Number of cells
+    long size();
+
+    // Read and write the packed byte of a cell
+    byte get(long index);
+    void set(long index, byte packed);
+
+    // Approximate memory used on and off the Java heap
+    long getHeapBytes();
+    long getOffHeapBytes();
+
+    // Release the storage; the board must not be used afterwards
+    @Override
+    void close();
+}
@@ -0,0 +1,64 @@
+package game;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+// Reads a corpus file written by GameRecordWriter block by block
+// Thread-safe: several threads can call nextBlock at once and each gets a different block, so a
+// file is scanned in parallel with one reusable buffer per thread (memory does not grow with the file).
+public class GameCorpusReader implements Closeable {
+    private final Path file;
+    private final FileChannel channel;
+    private final long size;
+    private long position;  // Start of the next unclaimed block
+
+    // Constructor - opens a corpus file and checks its header
+    public GameCorpusReader(Path file) throws IOException {
+        this.file = file;
+        this.channel = FileChannel.open(file, StandardOpenOption.READ);
+        this.size = channel.size();
+        ByteBuffer header = readFully(ByteBuffer.allocate(8), 0);
+        if (header.getInt() != GameRecordWriter.MAGIC || header.getInt() != GameRecordWriter.VERSION) {
+            channel.close();
+            throw new IOException("Not a game corpus file: " + file);
+        }
+        this.position = 8;
+    }
+
+    // Read the next block of games into a buffer (reused if it is big enough); null at the end of the file
+    // Read games from the returned buffer with GameRecord.readFrom until it has nothing remaining.
+    public ByteBuffer nextBlock(ByteBuffer reuse) throws IOException {
+        long start;
+        int length;
+        synchronized (this) {
+            if (position >= size) return null;
+            length = readFully(ByteBuffer.allocate(4), position).getInt();
+            start = position + 4;
+            position = start + length;
+        }
+        ByteBuffer block = reuse != null && reuse.capacity() >= length ? reuse.clear().limit(length)
+                : ByteBuffer.allocate(Math.max(length, 64 * 1024)).limit(length);
+        return readFully(block, start);
+    }
+
+    private ByteBuffer readFully(ByteBuffer buffer, long offset) throws IOException {
+        long at = offset;
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, at);
+            if (read < 0) throw new IOException("Game corpus file is truncated: " + file);
+            at += read;
+        }
+        return buffer.flip();
+    }
+
+    public long getSize() { return size; }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
@@ -0,0 +1,122 @@
+package game;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+// One finished game in a recorded corpus, with what each move did (see GameRecordWriter for the file layout)
+// Records are read in place from a buffer into a reused instance, so scanning a corpus allocates
+// nothing per game and needs no replay: cascade sizes and mine hits were stored when the game was recorded.
+//
+// Game encoding (varints are unsigned LEB128):
+//   varint rows, varint cols, varint mines, byte topology, long seed, byte outcome, varint move count, then per move
+//   byte type (Move.Type ordinal) followed by
+//     REVEAL, CHORD: varint row, varint col, varint (cells revealed << 1 | hit mine) [, varint hit row, varint hit col]
+//     FLAG:          varint row, varint col
+//     UNDO:          nothing
+//     REDO:          varint branch
+public class GameRecord {
+    public static final int UNFINISHED = 0;
+    public static final int WON = 1;
+    public static final int LOST = 2;
+
+    private static final Move.Type[] TYPES = Move.Type.values();
+    private static final Topology[] TOPOLOGIES = Topology.values();
+
+    private int rows;
+    private int cols;
+    private int mines;
+    private Topology topology;
+    private long seed;
+    private int outcome;
+    private int moveCount;
+
+    // Per move (arrays grow to the longest game seen and are reused)
+    private Move.Type[] types = new Move.Type[16];
+    private int[] moveRows = new int[16];  // Target row, or branch for REDO
+    private int[] moveCols = new int[16];
+    private int[] revealed = new int[16];  // Cells revealed by a REVEAL or CHORD
+    private int[] hitRows = new int[16];   // Mine hit by the move (-1 if none)
+    private int[] hitCols = new int[16];
+
+    // Read the next game from the buffer into this record
+    public void readFrom(ByteBuffer in) {
+        rows = readVarint(in);
+        cols = readVarint(in);
+        mines = readVarint(in);
+        topology = TOPOLOGIES[in.get()];
+        seed = in.getLong();
+        outcome = in.get();
+        moveCount = readVarint(in);
+        if (types.length < moveCount) grow(moveCount);
+        for (int i = 0; i < moveCount; i++) {
+            Move.Type type = TYPES[in.get()];
+            types[i] = type;
+            hitRows[i] = -1;
+            hitCols[i] = -1;
+            revealed[i] = 0;
+            moveCols[i] = -1;
+            switch (type) {
+                case REVEAL, CHORD -> {
+                    moveRows[i] = readVarint(in);
+                    moveCols[i] = readVarint(in);
+                    int result = readVarint(in);
+                    revealed[i] = result >>> 1;
+                    if ((result & 1) != 0) {
+                        hitRows[i] = readVarint(in);
+                        hitCols[i] = readVarint(in);
+                    }
+                }
+                case FLAG -> {
+                    moveRows[i] = readVarint(in);
+                    moveCols[i] = readVarint(in);
+                }
+                case UNDO -> moveRows[i] = -1;
+                case REDO -> moveRows[i] = readVarint(in);
+            }
+        }
+    }
+
+    private void grow(int capacity) {
+        types = Arrays.copyOf(types, capacity);
+        moveRows = Arrays.copyOf(moveRows, capacity);
+        moveCols = Arrays.copyOf(moveCols, capacity);
+        revealed = Arrays.copyOf(revealed, capacity);
+        hitRows = Arrays.copyOf(hitRows, capacity);
+        hitCols = Arrays.copyOf(hitCols, capacity);
+    }
+
+    static void writeVarint(ByteBuffer out, int value) {
+        while ((value & ~0x7F) != 0) {
+            out.put((byte) (value & 0x7F | 0x80));
+            value >>>= 7;
+        }
+        out.put((byte) value);
+    }
+
+    static int readVarint(ByteBuffer in) {
+        int value = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = in.get();
+            value |= (b & 0x7F) << shift;
+            shift += 7;
+        } while (b < 0);
+        return value;
+    }
+
+    // Getter methods
+    public int getRows() { return rows; }
+    public int getCols() { return cols; }
+    public int getMines() { return mines; }
+    public Topology getTopology() { return topology; }
+    public long getSeed() { return seed; }
+    public int getOutcome() { return outcome; }
+    public int getMoveCount() { return moveCount; }
+    public Move.Type getMoveType(int move) { return types[move]; }
+    public int getMoveRow(int move) { return moveRows[move]; }
+    public int getMoveCol(int move) { return moveCols[move]; }
+    public int getRevealedCount(int move) { return revealed[move]; }
+    public int getHitRow(int move) { return hitRows[move]; }
+    public int getHitCol(int move) { return hitCols[move]; }
+}
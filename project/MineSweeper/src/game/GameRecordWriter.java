@@ -0,0 +1,113 @@
+package game;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+// Appends finished games to a corpus file for offline analytics (see GameRecord and GameCorpusReader)
+// Each game is replayed once while writing, to store how many cells every reveal opened and which
+// mine it hit, so readers never need to simulate a game.
+//
+// File layout (big-endian): int MAGIC, int VERSION, then blocks of int length + that many bytes of games.
+// Blocks are independent, so several threads can read one file in parallel.
+// Thread-safe: games may be written from several threads.
+public class GameRecordWriter implements Closeable {
+    public static final int MAGIC = 0x4D534752;  // "MSGR"
+    public static final int VERSION = 1;
+    private static final int BLOCK_BYTES = 64 * 1024;
+
+    private final FileChannel channel;
+    private ByteBuffer block = ByteBuffer.allocate(BLOCK_BYTES);
+    private long games;
+
+    // Constructor - creates (or replaces) a corpus file
+    public GameRecordWriter(Path file) throws IOException {
+        channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+        ByteBuffer header = ByteBuffer.allocate(8).putInt(MAGIC).putInt(VERSION).flip();
+        while (header.hasRemaining()) channel.write(header);
+        block.position(4);  // Room for the block length
+    }
+
+    // Record a game: replays it to collect what each move did, then appends it
+    public void write(Replay replay) throws IOException {
+        ByteBuffer game = encode(replay);
+        synchronized (this) {
+            if (block.remaining() < game.remaining()) {
+                flushBlock();
+                if (block.remaining() < game.remaining()) {
+                    block = ByteBuffer.allocate(4 + game.remaining()).position(4);  // One oversized game
+                }
+            }
+            block.put(game);
+            games++;
+        }
+    }
+
+    // Encode one game (see GameRecord for the layout)
+    static ByteBuffer encode(Replay replay) {
+        MinesweeperGame game = replay.createGame();
+        int[] changes = new int[1];
+        game.addCellChangeListener(new CellChangeListener() {
+            @Override public void onCellChanged(int row, int col) { changes[0]++; }
+            @Override public void onBoardChanged() { }
+        });
+
+        ByteBuffer out = ByteBuffer.allocate(32 + 26 * replay.getMoveCount());
+        GameRecord.writeVarint(out, replay.getRows());
+        GameRecord.writeVarint(out, replay.getCols());
+        GameRecord.writeVarint(out, replay.getMines());
+        out.put((byte) replay.getTopology().ordinal());
+        out.putLong(replay.getSeed());
+        int outcomePosition = out.position();
+        out.put((byte) 0);
+        GameRecord.writeVarint(out, replay.getMoveCount());
+        for (Move move : replay.getMoves()) {
+            boolean wasOver = game.isGameOver();
+            changes[0] = 0;
+            Replay.apply(game, move);
+            out.put((byte) move.getType().ordinal());
+            switch (move.getType()) {
+                case REVEAL, CHORD -> {
+                    GameRecord.writeVarint(out, move.getRow());
+                    GameRecord.writeVarint(out, move.getCol());
+                    boolean hit = !wasOver && game.isGameOver() && !game.isGameWon();
+                    GameRecord.writeVarint(out, (hit ? changes[0] - 1 : changes[0]) << 1 | (hit ? 1 : 0));
+                    if (hit) {
+                        GameRecord.writeVarint(out, game.getHitMineRow());
+                        GameRecord.writeVarint(out, game.getHitMineCol());
+                    }
+                }
+                case FLAG -> {
+                    GameRecord.writeVarint(out, move.getRow());
+                    GameRecord.writeVarint(out, move.getCol());
+                }
+                case UNDO -> { }
+                case REDO -> GameRecord.writeVarint(out, move.getBranch());
+            }
+        }
+        out.put(outcomePosition, (byte) (game.isGameWon() ? GameRecord.WON
+                : game.isGameOver() ? GameRecord.LOST : GameRecord.UNFINISHED));
+        return out.flip();
+    }
+
+    // Write the current block (length first) and start a new one
+    private void flushBlock() throws IOException {
+        if (block.position() == 4) return;
+        block.putInt(0, block.position() - 4).flip();
+        while (block.hasRemaining()) channel.write(block);
+        if (block.capacity() != BLOCK_BYTES) block = ByteBuffer.allocate(BLOCK_BYTES);
+        block.clear().position(4);
+    }
+
+    public synchronized long getGameCount() { return games; }
+
+    @Override
+    public synchronized void close() throws IOException {
+        flushBlock();
+        channel.close();
+    }
+}
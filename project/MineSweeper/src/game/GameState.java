@@ -1,22 +1,44 @@
 package game;
 
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 public class GameState {
-    // List of cells that changed in this game state (for undo functionality)
-    private final List<Cell> changedCells;
+    private static final int MAX_CHANGED = Integer.MAX_VALUE - 8;  // Largest array the JVM allows
 
-    // Game status flags
+    // Cells that changed in this game state, stored packed (see Cell.pack) to keep history small
+    // Only changed cells are kept, so unchanged board data is shared with the rest of the history
+    private int[] cellRows;        // Row of each changed cell
+    private int[] cellCols;        // Column of each changed cell
+    private byte[] before;         // Packed state of each cell before the move
+    private byte[] after;          // Packed state of each cell after the move (for redo)
+    private int changedCount;      // Number of changed cells
+    private int firstClickRow = -1;  // Click that placed the mines (-1 unless this is the first move):
+    private int firstClickCol = -1;  // redo places them again from it, so no copy of the board is kept
+
+    // Game status flags (before the move)
     private boolean gameOver;      // Whether the game has ended
     private boolean gameWon;       // Whether the player won the game
     private int flagsPlaced;       // Number of flags currently placed on the board
     private boolean firstMove;     // Whether this is the first move (before mines are placed)
     private String description;    // Description of what caused this game state change
 
+    // Game status flags (after the move, for redo)
+    private boolean afterGameOver;
+    private boolean afterGameWon;
+    private int afterFlagsPlaced;
+    private boolean afterFirstMove;
+
     // Constructor to initialize a new game state
     public GameState() {
-        this.changedCells = new ArrayList<>();
+        this.cellRows = new int[4];
+        this.cellCols = new int[4];
+        this.before = new byte[4];
+        this.after = null;          // Filled in once the move is complete
+        this.changedCount = 0;
         this.gameOver = false;      // Game starts as not over
         this.gameWon = false;       // Game starts as not won
         this.flagsPlaced = 0;       // No flags placed initially
@@ -24,14 +46,116 @@ public class GameState {
         this.description = "";      // Empty description initially
     }
 
-    // Add a cell to the changed cells list (makes a copy of the cell)
+    // Add a cell to the changed cells list (stores a packed copy of its current state)
     // This is used to track which cells were modified in this game state
     public void addChangedCell(Cell cell) {
-        changedCells.add(new Cell(cell));  // Store a copy, not the original
+        addChangedCell(cell.getRow(), cell.getCol(), cell.pack());
+    }
+
+    // Add a changed cell from its position and packed state
+    public void addChangedCell(int row, int col, byte packed) {
+        if (changedCount == before.length) {
+            if (changedCount == MAX_CHANGED) {
+                throw new IllegalStateException("Too many changed cells for one move");
+            }
+            int capacity = (int) Math.min(MAX_CHANGED, 2L * changedCount);
+            cellRows = Arrays.copyOf(cellRows, capacity);
+            cellCols = Arrays.copyOf(cellCols, capacity);
+            before = Arrays.copyOf(before, capacity);
+        }
+        cellRows[changedCount] = row;
+        cellCols[changedCount] = col;
+        before[changedCount] = packed;
+        changedCount++;
+    }
+
+    // Record the state of every changed cell and the game status after the move
+    void captureAfter(Board board, int flagsPlaced, boolean gameOver, boolean gameWon, boolean firstMove) {
+        after = new byte[changedCount];
+        for (int i = 0; i < changedCount; i++) {
+            after[i] = board.getPacked(cellRows[i], cellCols[i]);
+        }
+        this.afterFlagsPlaced = flagsPlaced;
+        this.afterGameOver = gameOver;
+        this.afterGameWon = gameWon;
+        this.afterFirstMove = firstMove;
+    }
+
+    // Unpacked copies of the changed cells as they were before the move
+    public List<Cell> getChangedCells() {
+        List<Cell> cells = new ArrayList<>(changedCount);
+        for (int i = 0; i < changedCount; i++) {
+            Cell cell = new Cell(cellRows[i], cellCols[i]);
+            cell.unpack(before[i]);
+            cells.add(cell);
+        }
+        return cells;
+    }
+
+    // Indexed access to the changed cells (packed)
+    public int getChangedCount() { return changedCount; }
+    public int getChangedRow(int i) { return cellRows[i]; }
+    public int getChangedCol(int i) { return cellCols[i]; }
+    public byte getBefore(int i) { return before[i]; }
+    public byte getAfter(int i) { return after[i]; }
+
+    // Approximate heap used by this state
+    public long getMemoryBytes() {
+        return 64L + 9L * before.length + (after != null ? after.length : 0) + 2L * description.length();
+    }
+
+    // Size of this state once written with writeTo
+    long getSerializedSize() {
+        return 25 + 10L * changedCount + description.getBytes(StandardCharsets.UTF_8).length;
+    }
+
+    // Write this completed state (after captureAfter) for spilling to disk (see HistoryTree)
+    void writeTo(ByteBuffer out) {
+        byte[] text = description.getBytes(StandardCharsets.UTF_8);
+        out.putInt(changedCount);
+        for (int i = 0; i < changedCount; i++) {
+            out.putInt(cellRows[i]).putInt(cellCols[i]).put(before[i]).put(after[i]);
+        }
+        out.put((byte) ((gameOver ? 1 : 0) | (gameWon ? 2 : 0) | (firstMove ? 4 : 0)
+                | (afterGameOver ? 8 : 0) | (afterGameWon ? 16 : 0) | (afterFirstMove ? 32 : 0)));
+        out.putInt(flagsPlaced).putInt(afterFlagsPlaced);
+        out.putInt(firstClickRow).putInt(firstClickCol);
+        out.putInt(text.length).put(text);
+    }
+
+    // Read a state written by writeTo
+    static GameState readFrom(ByteBuffer in) {
+        GameState state = new GameState();
+        int count = in.getInt();
+        state.cellRows = new int[count];
+        state.cellCols = new int[count];
+        state.before = new byte[count];
+        state.after = new byte[count];
+        for (int i = 0; i < count; i++) {
+            state.cellRows[i] = in.getInt();
+            state.cellCols[i] = in.getInt();
+            state.before[i] = in.get();
+            state.after[i] = in.get();
+        }
+        state.changedCount = count;
+        int status = in.get();
+        state.gameOver = (status & 1) != 0;
+        state.gameWon = (status & 2) != 0;
+        state.firstMove = (status & 4) != 0;
+        state.afterGameOver = (status & 8) != 0;
+        state.afterGameWon = (status & 16) != 0;
+        state.afterFirstMove = (status & 32) != 0;
+        state.flagsPlaced = in.getInt();
+        state.afterFlagsPlaced = in.getInt();
+        state.firstClickRow = in.getInt();
+        state.firstClickCol = in.getInt();
+        byte[] text = new byte[in.getInt()];
+        in.get(text);
+        state.description = new String(text, StandardCharsets.UTF_8);
+        return state;
     }
 
     // Getter and setter methods for game state properties
-    public List<Cell> getChangedCells() { return changedCells; }
     public boolean isGameOver() { return gameOver; }
     public void setGameOver(boolean gameOver) { this.gameOver = gameOver; }
     public boolean isGameWon() { return gameWon; }
@@ -42,4 +166,14 @@ public class GameState {
     public void setFirstMove(boolean firstMove) { this.firstMove = firstMove; }
     public String getDescription() { return description; }
     public void setDescription(String description) { this.description = description; }
-}
\ No newline at end of file
+    public boolean isAfterGameOver() { return afterGameOver; }
+    public boolean isAfterGameWon() { return afterGameWon; }
+    public int getAfterFlagsPlaced() { return afterFlagsPlaced; }
+    public boolean isAfterFirstMove() { return afterFirstMove; }
+    public int getFirstClickRow() { return firstClickRow; }
+    public int getFirstClickCol() { return firstClickCol; }
+    public void setFirstClick(int row, int col) {
+        this.firstClickRow = row;
+        this.firstClickCol = col;
+    }
+}
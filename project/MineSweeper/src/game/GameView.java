@@ -0,0 +1,22 @@
+package game;
+
+// Read-only view of a game showing only what a player can see
+// Mines are hidden until revealed, so bots and analyzers cannot cheat
+public interface GameView {
+    int getRows();
+    int getCols();
+    int getTotalMines();
+    int getFlagsPlaced();
+    boolean isGameOver();
+    boolean isGameWon();
+    boolean isFirstMove();               // True until the first reveal places the mines
+    boolean isRevealed(int row, int col);
+    boolean isFlagged(int row, int col);
+    boolean isRevealedMine(int row, int col);  // True only for a revealed (clicked) mine
+    int getAdjacentMines(int row, int col);    // Number shown on a revealed cell, -1 if covered
+    NeighborTable getNeighborTable();          // Which cells are neighbors (depends on the topology)
+
+    // Observe cell changes (see CellChangeListener)
+    void addCellChangeListener(CellChangeListener listener);
+    void removeCellChangeListener(CellChangeListener listener);
+}
@@ -0,0 +1,24 @@
+package game;
+
+// Default cell storage: a plain byte array on the Java heap (up to about 2 billion cells)
+public class HeapCellStorage implements CellStorage {
+    private final byte[] cells;
+
+    public HeapCellStorage(long size) {
+        if (size < 0 || size > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("Too many cells for heap storage: " + size);
+        }
+        cells = new byte[(int) size];
+    }
+
+    @Override public long size() { return cells.length; }
+    @Override public byte get(long index) { return cells[(int) index]; }
+    @Override public void set(long index, byte packed) { cells[(int) index] = packed; }
+    @Override public long getHeapBytes() { return 16L + cells.length; }
+    @Override public long getOffHeapBytes() { return 0; }
+
+    @Override
+    public void close() {
+        // Nothing to release: the array goes away with the board
+    }
+}
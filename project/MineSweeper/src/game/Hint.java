@@ -0,0 +1,32 @@
+package game;
+
+// Result of a hint request: a cell to play next and how sure the engine is about it
+public class Hint {
+    private final int row;              // Suggested cell row
+    private final int col;              // Suggested cell column
+    private final boolean safe;         // True if the cell is provably safe
+    private final double risk;          // Estimated chance the cell is a mine (0 when safe)
+    private final boolean approximate;  // True if the time budget ran out before analysis finished
+
+    // Constructor to create a hint for a cell
+    public Hint(int row, int col, boolean safe, double risk, boolean approximate) {
+        this.row = row;
+        this.col = col;
+        this.safe = safe;
+        this.risk = risk;
+        this.approximate = approximate;
+    }
+
+    // Getter methods
+    public int getRow() { return row; }
+    public int getCol() { return col; }
+    public boolean isSafe() { return safe; }
+    public double getRisk() { return risk; }
+    public boolean isApproximate() { return approximate; }
+
+    @Override
+    public String toString() {
+        return safe ? "(" + row + ", " + col + ") is safe"
+                : "(" + row + ", " + col + ") has about " + Math.round(risk * 100) + "% risk";
+    }
+}
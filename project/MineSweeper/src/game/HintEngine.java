@@ -0,0 +1,396 @@
+package game;
+
+import java.util.Arrays;
+
+// Finds a provably safe cell to suggest, or the lowest-risk cell when none exists
+// Deductions are kept between requests and only the cells changed since the last hint
+// (reported through CellChangeListener) are re-analyzed, so most hints cost very little.
+// Every request is bounded by a time budget; when it runs out the last approximate answer is reused.
+// Starting over (new mines, undo of a reveal) is part of that work too: the per-cell state is cleared
+// a slice at a time under the same deadline, and only reallocated when the board size changes.
+// Not thread-safe: use it from the thread that drives the game (the EDT in the GUI).
+public class HintEngine implements CellChangeListener {
+    private static final byte UNKNOWN = 0;  // Nothing deduced about the cell yet
+    private static final byte SAFE = 1;     // Cell is revealed or provably safe
+    private static final byte MINE = 2;     // Cell is provably a mine
+    private static final int KNOWLEDGE = 3;  // Bits of a cell's state holding one of the above
+    private static final int SEEN = 4;       // Cell known to be revealed
+    private static final int QUEUED = 8;     // Cell waiting in the work queue
+    private static final int CHECK_INTERVAL = 32;  // Work steps between clock checks
+    private static final int CLEAR_SLICE = 1 << 16;  // Cells cleared between clock checks
+
+    private final GameView game;         // Player-visible view of the game being analyzed
+    private long budgetNanos;            // Time budget per hint request
+
+    // Analysis state (indexed by row * cols + col)
+    private int rows;
+    private int cols;
+    private NeighborTable table;     // Neighbors of each cell for the game's topology
+    private byte[] cells;            // What has been deduced about each cell, plus the SEEN and QUEUED flags
+    private int clearCursor;         // Cells below this have been cleared since the last reset
+    private int[] queue = new int[16];  // Ring buffer of revealed cells to (re)analyze (grows as needed)
+    private int queueHead;
+    private int queueSize;
+    private int[] safeCells;         // Stack of deduced safe cells not yet revealed
+    private int safeCount;
+    private int knownMines;          // Number of cells deduced as mines
+    private int unknownCells;        // Number of cells with nothing deduced yet
+    private int rescanCursor;        // Next cell to visit during a full rescan
+    private boolean needsReset;      // The whole board changed since the last request
+    private Hint lastApproximate;    // Cached lowest-risk answer for when the budget runs out
+
+    // Constructor - attaches to a game with a time budget in milliseconds
+    public HintEngine(GameView game, long budgetMillis) {
+        this.game = game;
+        setBudgetMillis(budgetMillis);
+        game.addCellChangeListener(this);
+        reset();
+    }
+
+    // Change the time budget per hint request
+    public void setBudgetMillis(long budgetMillis) {
+        if (budgetMillis <= 0) {
+            throw new IllegalArgumentException("Hint budget must be positive");
+        }
+        this.budgetNanos = budgetMillis * 1_000_000L;
+    }
+
+    // Stop listening to the game
+    public void detach() {
+        game.removeCellChangeListener(this);
+    }
+
+    // Drop all deductions and schedule clearing the cell state (see analyze) and a full rescan of the board
+    private void reset() {
+        rows = game.getRows();
+        cols = game.getCols();
+        table = game.getNeighborTable();
+        int size = rows * cols;
+        if (cells == null || cells.length != size) {
+            cells = new byte[size];  // Already clear
+            clearCursor = size;
+        } else {
+            clearCursor = 0;
+        }
+        queueHead = 0;
+        queueSize = 0;
+        safeCells = new int[16];
+        safeCount = 0;
+        knownMines = 0;
+        unknownCells = size;
+        rescanCursor = 0;
+        needsReset = false;
+        lastApproximate = null;
+    }
+
+    @Override
+    public void onCellChanged(int row, int col) {
+        int index = row * cols + col;
+        if (needsReset || index >= rescanCursor) return;  // A pending full rescan will pick it up
+
+        boolean revealed = game.isRevealed(row, col);
+        if (revealed && !isSeen(index)) {
+            markRevealed(index);
+        } else if (!revealed && isSeen(index)) {
+            needsReset = true;  // Undo covered a cell again: earlier deductions may rely on it
+        }
+    }
+
+    @Override
+    public void onBoardChanged() {
+        needsReset = true;  // Mines placed or game reset
+    }
+
+    // Record a newly revealed cell and queue it and its numbered neighbors for analysis
+    private void markRevealed(int index) {
+        cells[index] |= SEEN;
+        if (knowledge(index) == UNKNOWN) unknownCells--;
+        if (game.isRevealedMine(index / cols, index % cols)) {
+            if (knowledge(index) != MINE) knownMines++;
+            setKnowledge(index, MINE);
+            return;
+        }
+        setKnowledge(index, SAFE);
+        enqueue(index);
+        enqueueNeighbors(index);
+    }
+
+    // Find a hint within the time budget
+    public Hint findHint() {
+        long deadline = System.nanoTime() + budgetNanos;
+        if (needsReset || rows != game.getRows() || cols != game.getCols() || table != game.getNeighborTable()) {
+            reset();
+        }
+
+        // Before the first move every cell is safe (mines are placed around the first click)
+        if (game.isFirstMove()) {
+            return firstMoveHint();
+        }
+
+        boolean finished = analyze(deadline);
+
+        Hint safe = nextSafeCell();
+        if (safe != null) {
+            return safe;
+        }
+
+        if (finished) {
+            Hint best = findLowestRisk(deadline);
+            if (best != null) {
+                lastApproximate = best;
+                return best;
+            }
+        }
+
+        // Out of time: fall back to the cached approximate answer if it is still playable
+        if (lastApproximate != null && isPlayable(lastApproximate.getRow() * cols + lastApproximate.getCol())) {
+            return new Hint(lastApproximate.getRow(), lastApproximate.getCol(), false,
+                    lastApproximate.getRisk(), true);
+        }
+        return anyPlayableCell();
+    }
+
+    // Run the incremental analysis until the work is done or the deadline passes
+    private boolean analyze(long deadline) {
+        int steps = 0;
+
+        // Clear what the cells held before the last reset
+        while (clearCursor < cells.length) {
+            int end = Math.min(cells.length, clearCursor + CLEAR_SLICE);
+            Arrays.fill(cells, clearCursor, end, (byte) 0);
+            clearCursor = end;
+            if (System.nanoTime() > deadline) return false;
+        }
+
+        // Full rescan after a reset: pick up every revealed cell
+        while (rescanCursor < cells.length) {
+            int index = rescanCursor++;
+            if (game.isRevealed(index / cols, index % cols) && !isSeen(index)) {
+                markRevealed(index);
+            }
+            if (++steps % CHECK_INTERVAL == 0 && System.nanoTime() > deadline) return false;
+        }
+
+        // Work queue: re-analyze only the cells whose neighborhood changed
+        while (queueSize > 0) {
+            int index = queue[queueHead];
+            queueHead = (queueHead + 1) % queue.length;
+            queueSize--;
+            cells[index] &= ~QUEUED;
+            analyzeCell(index);
+            if (++steps % CHECK_INTERVAL == 0 && System.nanoTime() > deadline) return queueSize == 0;
+        }
+        return true;
+    }
+
+    // Apply the single-cell rule and the subset rule around one revealed number
+    private void analyzeCell(int index) {
+        int number = game.getAdjacentMines(index / cols, index % cols);
+        int[] unknown = new int[8];
+        int unknownCount = collectUnknown(index, unknown);
+        if (unknownCount == 0) return;
+        int remaining = number - countKnownMines(index);
+
+        if (remaining == 0) {
+            for (int i = 0; i < unknownCount; i++) markSafe(unknown[i]);
+            return;
+        }
+        if (remaining == unknownCount) {
+            for (int i = 0; i < unknownCount; i++) markMine(unknown[i]);
+            return;
+        }
+
+        // Subset rule: any number whose unknown cells include ours must also touch our first unknown cell
+        int[] other = new int[8];
+        int first = unknown[0];
+        for (int p = table.start(first); p < table.end(first); p++) {
+            int neighbor = table.neighbor(p);
+            if (neighbor == index || !isSeen(neighbor) || knowledge(neighbor) == MINE) continue;
+
+            int otherCount = collectUnknown(neighbor, other);
+            if (otherCount <= unknownCount || !containsAll(other, otherCount, unknown, unknownCount)) continue;
+
+            // Our unknown cells are a subset of the neighbor's: the difference holds the extra mines
+            int otherRemaining = game.getAdjacentMines(neighbor / cols, neighbor % cols) - countKnownMines(neighbor);
+            int extraMines = otherRemaining - remaining;
+            int extraCells = otherCount - unknownCount;
+            if (extraMines == 0 || extraMines == extraCells) {
+                for (int k = 0; k < otherCount; k++) {
+                    if (!contains(unknown, unknownCount, other[k])) {
+                        if (extraMines == 0) markSafe(other[k]);
+                        else markMine(other[k]);
+                    }
+                }
+            }
+        }
+    }
+
+    // Collect covered neighbors with nothing deduced yet; returns how many were found
+    private int collectUnknown(int index, int[] out) {
+        int count = 0;
+        for (int p = table.start(index); p < table.end(index); p++) {
+            if (knowledge(table.neighbor(p)) == UNKNOWN) {
+                out[count++] = table.neighbor(p);
+            }
+        }
+        return count;
+    }
+
+    // Count neighbors deduced as mines
+    private int countKnownMines(int index) {
+        int count = 0;
+        for (int p = table.start(index); p < table.end(index); p++) {
+            if (knowledge(table.neighbor(p)) == MINE) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    // Check whether every value of the small array appears in the large array
+    private boolean containsAll(int[] large, int largeCount, int[] small, int smallCount) {
+        for (int i = 0; i < smallCount; i++) {
+            if (!contains(large, largeCount, small[i])) return false;
+        }
+        return true;
+    }
+
+    private boolean contains(int[] values, int count, int value) {
+        for (int i = 0; i < count; i++) {
+            if (values[i] == value) return true;
+        }
+        return false;
+    }
+
+    // Record a deduced safe cell and re-analyze its numbered neighbors
+    private void markSafe(int index) {
+        if (knowledge(index) != UNKNOWN) return;
+        setKnowledge(index, SAFE);
+        unknownCells--;
+        if (safeCount == safeCells.length) {
+            safeCells = Arrays.copyOf(safeCells, safeCount * 2);
+        }
+        safeCells[safeCount++] = index;
+        enqueueNeighbors(index);
+    }
+
+    // Record a deduced mine and re-analyze its numbered neighbors
+    private void markMine(int index) {
+        if (knowledge(index) != UNKNOWN) return;
+        setKnowledge(index, MINE);
+        knownMines++;
+        unknownCells--;
+        enqueueNeighbors(index);
+    }
+
+    // Add a cell to the work queue if it is not already waiting
+    private void enqueue(int index) {
+        if ((cells[index] & QUEUED) != 0) return;
+        cells[index] |= QUEUED;
+        if (queueSize == queue.length) {
+            int[] grown = new int[queue.length * 2];  // At most one entry per cell, so this stops at the board size
+            for (int i = 0; i < queueSize; i++) {
+                grown[i] = queue[(queueHead + i) % queue.length];
+            }
+            queue = grown;
+            queueHead = 0;
+        }
+        queue[(queueHead + queueSize) % queue.length] = index;
+        queueSize++;
+    }
+
+    // Queue every revealed neighbor of a cell
+    private void enqueueNeighbors(int index) {
+        for (int p = table.start(index); p < table.end(index); p++) {
+            if (isSeen(table.neighbor(p))) {
+                enqueue(table.neighbor(p));
+            }
+        }
+    }
+
+    // Pop deduced safe cells until one is still covered and unflagged
+    private Hint nextSafeCell() {
+        while (safeCount > 0) {
+            int index = safeCells[safeCount - 1];
+            if (isPlayable(index)) {
+                return new Hint(index / cols, index % cols, true, 0, false);
+            }
+            safeCount--;  // Already revealed or flagged by the player
+        }
+        return null;
+    }
+
+    // Estimate mine risk for every playable cell and return the lowest
+    // Frontier cells use the worst local ratio of remaining mines to unknown neighbors,
+    // other cells use the global density of undeduced mines
+    private Hint findLowestRisk(long deadline) {
+        if (unknownCells == 0) return null;
+        double globalRisk = (double) (game.getTotalMines() - knownMines) / unknownCells;
+
+        int[] unknown = new int[8];
+        int bestIndex = -1;
+        double bestRisk = 2;
+        for (int index = 0; index < cells.length; index++) {
+            if ((index + 1) % CHECK_INTERVAL == 0 && System.nanoTime() > deadline) break;  // Keep the best so far
+            if (knowledge(index) != UNKNOWN || !isPlayable(index)) continue;
+
+            double risk = -1;
+            for (int p = table.start(index); p < table.end(index); p++) {
+                int neighbor = table.neighbor(p);
+                if (!isSeen(neighbor) || knowledge(neighbor) == MINE) continue;
+                int unknownCount = collectUnknown(neighbor, unknown);
+                int remaining = game.getAdjacentMines(neighbor / cols, neighbor % cols) - countKnownMines(neighbor);
+                risk = Math.max(risk, (double) remaining / unknownCount);
+            }
+            if (risk < 0) risk = globalRisk;
+
+            if (risk < bestRisk) {
+                bestRisk = risk;
+                bestIndex = index;
+            }
+        }
+        return bestIndex < 0 ? null : new Hint(bestIndex / cols, bestIndex % cols, false, bestRisk, false);
+    }
+
+    // Last resort when out of time with nothing cached: the first playable cell
+    private Hint anyPlayableCell() {
+        for (int index = 0; index < cells.length; index++) {
+            if (knowledge(index) != MINE && isPlayable(index)) {
+                return new Hint(index / cols, index % cols, false,
+                        (double) game.getTotalMines() / cells.length, true);
+            }
+        }
+        return null;
+    }
+
+    // Per-cell state accessors
+    private int knowledge(int index) { return cells[index] & KNOWLEDGE; }
+    private boolean isSeen(int index) { return (cells[index] & SEEN) != 0; }
+    private void setKnowledge(int index, byte value) { cells[index] = (byte) (cells[index] & ~KNOWLEDGE | value); }
+
+    // The center, or the unflagged cell nearest to it (rings around the center, top row first)
+    private Hint firstMoveHint() {
+        int centerRow = rows / 2;
+        int centerCol = cols / 2;
+        int maxRadius = Math.max(Math.max(centerRow, rows - 1 - centerRow), Math.max(centerCol, cols - 1 - centerCol));
+        for (int radius = 0; radius <= maxRadius; radius++) {
+            for (int row = Math.max(0, centerRow - radius); row <= Math.min(rows - 1, centerRow + radius); row++) {
+                boolean edge = row == centerRow - radius || row == centerRow + radius;
+                int step = edge || radius == 0 ? 1 : 2 * radius;  // Inside rows only have the two side cells
+                for (int col = centerCol - radius; col <= centerCol + radius; col += step) {
+                    if (col >= 0 && col < cols && isPlayable(row * cols + col)) {
+                        return new Hint(row, col, true, 0, false);
+                    }
+                }
+            }
+        }
+        return null;  // Every cell is flagged
+    }
+
+    // A cell can be suggested if it is covered and not flagged
+    private boolean isPlayable(int index) {
+        int row = index / cols;
+        int col = index % cols;
+        return !game.isRevealed(row, col) && !game.isFlagged(row, col);
+    }
+}
@@ -0,0 +1,61 @@
+package game;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+// Append-only temp file holding history entries spilled out of the heap (see HistoryTree)
+// Batches are appended with one write each and read back by position; the file is deleted on close.
+final class HistorySpillFile implements Closeable {
+    private final Path path;
+    private final FileChannel channel;
+    private long size;  // Bytes written so far (the next batch starts here)
+
+    private HistorySpillFile(Path path, FileChannel channel) {
+        this.path = path;
+        this.channel = channel;
+    }
+
+    static HistorySpillFile create() throws IOException {
+        Path path = Files.createTempFile("minesweeper-history", ".bin");
+        path.toFile().deleteOnExit();  // In case the game is never closed
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE,
+                StandardOpenOption.DELETE_ON_CLOSE);
+        return new HistorySpillFile(path, channel);
+    }
+
+    // Write a whole batch at the end of the file; returns where it starts
+    long append(ByteBuffer batch) throws IOException {
+        long start = size;
+        long position = start;
+        while (batch.hasRemaining()) {
+            position += channel.write(batch, position);
+        }
+        size = position;
+        return start;
+    }
+
+    // Read length bytes starting at offset
+    ByteBuffer read(long offset, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        long position = offset;
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, position);
+            if (read < 0) throw new IOException("History spill file is truncated: " + path);
+            position += read;
+        }
+        return buffer.flip();
+    }
+
+    long getSize() { return size; }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+        Files.deleteIfExists(path);
+    }
+}
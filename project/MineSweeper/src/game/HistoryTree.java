@@ -0,0 +1,286 @@
+package game;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.ref.Cleaner;
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+// Undo/redo history kept as a tree instead of a stack
+// Each node stores only the cells its move changed (a GameState with before and after values),
+// so unchanged board data is shared with the parent and memory grows with the size of the changes.
+// Making a new move after undoing starts a new branch; the old branch stays reachable.
+// Only the most recently used moves keep their GameState in the heap: older ones are written in batches
+// to a temp file and read back when an undo, redo or jump reaches them. Repeated undos read the spilled
+// ancestors ahead in one go, since holding Ctrl+Z walks straight up the tree.
+public class HistoryTree {
+    public static final int DEFAULT_RESIDENT_LIMIT = Integer.getInteger("minesweeper.historyInMemory", 4096);
+    private static final int SPILL_BATCH = 256;          // Moves written to disk per write
+    private static final int MAX_SPILL_BYTES = Integer.MAX_VALUE - 8;  // Largest write buffer (one byte array)
+    private static final int READ_AHEAD = 64;            // Ancestors loaded along with a spilled move during repeated undos
+    private static final int READ_AHEAD_BYTES = 1 << 20; // Largest single read-ahead
+    private static final Cleaner CLEANER = Cleaner.create();  // Deletes the spill file of trees that were never closed
+
+    // A position in the history: the game as it was after this node's move
+    public static class Node {
+        private final HistoryTree tree;
+        private final Node parent;          // Previous position (null for the root)
+        private GameState change;           // Move leading here from the parent (null for the root or while spilled)
+        private long spillOffset = -1;      // Where the move is stored in the spill file (-1 = never written)
+        private int spillLength;
+        private final int depth;            // Number of moves from the root
+        private ArrayList<Node> children;   // Moves made from this position, oldest first (null until the first)
+        private Node redoChild;             // Child that redo follows (the most recently visited one)
+
+        private Node(HistoryTree tree, Node parent, GameState change) {
+            this.tree = tree;
+            this.parent = parent;
+            this.change = change;
+            this.depth = parent == null ? 0 : parent.depth + 1;
+        }
+
+        // Getter methods (the change is read back from disk if it was spilled)
+        public Node getParent() { return parent; }
+        public GameState getChange() { return parent == null ? null : tree.load(this); }
+        public int getDepth() { return depth; }
+        public List<Node> getChildren() { return children == null ? List.of() : Collections.unmodifiableList(children); }
+        public String getDescription() { return parent == null ? "Start" : getChange().getDescription(); }
+    }
+
+    private final Node root;   // Start of the game
+    private Node current;      // Position the game is currently at
+    private int size;          // Number of moves stored in the tree
+
+    // Spilling
+    private final int residentLimit;                           // Moves kept in the heap
+    private final ArrayDeque<Node> resident = new ArrayDeque<>();  // Moves in the heap, least recently loaded first
+    private HistorySpillFile spillFile;                         // Created on the first spill
+    private Cleaner.Cleanable spillCleanup;
+    private boolean spillFailed;                                // Disk unavailable: keep everything in the heap
+    private int undoStreak;                                     // Consecutive undos (read ahead from the second one)
+
+    // Statistics
+    private int spilledCount;
+    private long pageIns;
+    private long readAheadLoads;
+
+    // Constructor to create an empty history
+    public HistoryTree() {
+        this(DEFAULT_RESIDENT_LIMIT);
+    }
+
+    // Constructor to create an empty history keeping at most residentLimit moves in the heap
+    public HistoryTree(int residentLimit) {
+        if (residentLimit <= 0) {
+            throw new IllegalArgumentException("Resident limit must be positive");
+        }
+        this.root = new Node(this, null, null);
+        this.current = root;
+        this.size = 0;
+        this.residentLimit = residentLimit;
+    }
+
+    // Record a new move from the current position (starts a new branch if the current node has children)
+    // The move must be complete (see GameState.captureAfter): it may be written to disk from here on
+    public synchronized void add(GameState change) {
+        Node node = new Node(this, current, change);
+        if (current.children == null) {
+            current.children = new ArrayList<>(1);
+        }
+        current.children.add(node);
+        current.redoChild = node;
+        current = node;
+        size++;
+        undoStreak = 0;
+        resident.addLast(node);
+        spillIfNeeded();
+    }
+
+    // Step back to the parent; returns the move to revert or null at the root
+    public synchronized GameState undo() {
+        if (current == root) return null;
+        undoStreak++;
+        GameState change = load(current);
+        current.parent.redoChild = current;  // Redo returns here
+        current = current.parent;
+        return change;
+    }
+
+    // Step forward along a branch; returns the move to re-apply or null if there is none
+    public synchronized GameState redo(int branch) {
+        if (current.children == null || branch < 0 || branch >= current.children.size()) return null;
+        undoStreak = 0;
+        current = current.children.get(branch);
+        current.parent.redoChild = current;
+        return load(current);
+    }
+
+    // Branch that a plain redo follows (-1 if there is nothing to redo)
+    public int getRedoBranch() {
+        return current.redoChild == null ? -1 : current.children.indexOf(current.redoChild);
+    }
+
+    // A node's move, read back from the spill file if needed
+    private synchronized GameState load(Node node) {
+        GameState change = node.change;
+        if (change != null) return change;
+
+        // During repeated undos, also load the spilled ancestors written just before this move
+        List<Node> batch = new ArrayList<>();
+        batch.add(node);
+        long start = node.spillOffset;
+        long end = node.spillOffset + node.spillLength;
+        if (undoStreak >= 2) {
+            for (Node ancestor = node.parent; ancestor.parent != null && batch.size() < READ_AHEAD; ancestor = ancestor.parent) {
+                if (ancestor.change != null) continue;
+                long from = Math.min(start, ancestor.spillOffset);
+                long to = Math.max(end, ancestor.spillOffset + ancestor.spillLength);
+                if (to - from > READ_AHEAD_BYTES) break;
+                start = from;
+                end = to;
+                batch.add(ancestor);
+            }
+        }
+
+        ByteBuffer data;
+        try {
+            data = spillFile.read(start, (int) (end - start));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read undo history back from disk", e);
+        }
+        for (Node loaded : batch) {
+            data.position((int) (loaded.spillOffset - start));
+            loaded.change = GameState.readFrom(data);
+            resident.addLast(loaded);
+        }
+        spilledCount -= batch.size();
+        pageIns++;
+        readAheadLoads += batch.size() - 1;
+        change = node.change;
+        spillIfNeeded();
+        return change;
+    }
+
+    // Move the least recently loaded moves out of the heap once there are too many, a batch at a time
+    private void spillIfNeeded() {
+        if (resident.size() <= residentLimit || spillFailed) return;
+        int count = Math.max(Math.min(SPILL_BATCH, residentLimit), resident.size() - residentLimit);
+        List<Node> batch = new ArrayList<>(count);
+        long bytes = 0;
+        for (Node node : resident) {
+            if (batch.size() == count) break;
+            long size = node.spillOffset < 0 ? node.change.getSerializedSize() : 0;  // Already on disk otherwise
+            if (bytes + size > MAX_SPILL_BYTES) break;  // Left for the next batch
+            batch.add(node);
+            bytes += size;
+        }
+        if (batch.isEmpty()) {
+            resident.removeFirst();  // A single move too big for the buffer: it stays in the heap
+            return;
+        }
+
+        try {
+            if (bytes > 0) {
+                if (spillFile == null) {
+                    HistorySpillFile file = HistorySpillFile.create();
+                    spillFile = file;
+                    spillCleanup = CLEANER.register(this, () -> closeQuietly(file));
+                }
+                ByteBuffer out = ByteBuffer.allocate((int) bytes);
+                for (Node node : batch) {
+                    if (node.spillOffset >= 0) continue;
+                    int position = out.position();
+                    node.change.writeTo(out);
+                    node.spillLength = out.position() - position;
+                }
+                long base = spillFile.append(out.flip());
+                long offset = base;
+                for (Node node : batch) {
+                    if (node.spillOffset >= 0) continue;
+                    node.spillOffset = offset;
+                    offset += node.spillLength;
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("Keeping undo history in memory, cannot spill to disk: " + e.getMessage());
+            spillFailed = true;
+            return;
+        }
+        for (Node node : batch) {
+            resident.removeFirst();
+            node.change = null;
+        }
+        spilledCount += batch.size();
+    }
+
+    private static void closeQuietly(HistorySpillFile file) {
+        try {
+            file.close();
+        } catch (IOException e) {
+            // Temp file, nothing else to do
+        }
+    }
+
+    // Delete the spill file (the history cannot be used afterwards if anything was spilled)
+    public synchronized void close() {
+        if (spillCleanup != null) {
+            spillCleanup.clean();
+        }
+    }
+
+    // Path from the current node to a target: nodes to undo (bottom-up) then nodes to redo (top-down)
+    // Cost is proportional to the path length, found by walking both nodes up to their common ancestor
+    public List<Node> pathTo(Node target, List<Node> undoNodes) {
+        List<Node> redoNodes = new ArrayList<>();
+        Node from = current;
+        Node to = target;
+        while (from.depth > to.depth) {
+            undoNodes.add(from);
+            from = from.parent;
+        }
+        while (to.depth > from.depth) {
+            redoNodes.add(to);
+            to = to.parent;
+        }
+        while (from != to) {
+            undoNodes.add(from);
+            redoNodes.add(to);
+            from = from.parent;
+            to = to.parent;
+        }
+        Collections.reverse(redoNodes);
+        return redoNodes;
+    }
+
+    // Descriptions of the moves from the root to the current node, oldest first
+    public List<String> getPathDescriptions() {
+        List<String> descriptions = new ArrayList<>(current.depth);
+        for (Node node = current; node != root; node = node.parent) {
+            descriptions.add(node.getDescription());
+        }
+        Collections.reverse(descriptions);
+        return descriptions;
+    }
+
+    // Whether a node's move is in the heap (false if it would be read from disk)
+    public synchronized boolean isResident(Node node) {
+        return node.parent == null || node.change != null;
+    }
+
+    // Spill statistics
+    public synchronized int getResidentCount() { return resident.size(); }
+    public synchronized int getSpilledCount() { return spilledCount; }
+    public synchronized long getSpillFileBytes() { return spillFile == null ? 0 : spillFile.getSize(); }
+    public synchronized long getPageIns() { return pageIns; }
+    public synchronized long getReadAheadLoads() { return readAheadLoads; }
+
+    // Getter methods
+    public Node getRoot() { return root; }
+    public Node getCurrent() { return current; }
+    public int getSize() { return size; }
+    public boolean canUndo() { return current != root; }
+    public boolean canRedo() { return current.redoChild != null; }
+}
@@ -0,0 +1,75 @@
+package game;
+
+import java.util.BitSet;
+import java.util.Random;
+
+// A mine layout drawn before the first click, stored as sorted ranks instead of board positions
+// Rank k stands for the k-th cell in row-major order once the first click's safe zone is skipped,
+// so one layout fits any click whose safe zone has the full size (every click away from the edges).
+// The layout depends only on the seed, so pooled and freshly built games with the same seed match.
+public final class MineLayout {
+    private final int rows;
+    private final int cols;
+    private final int mines;
+    private final long seed;
+    private final NeighborTable neighbors;  // Shared, read-only table for the board's topology
+    private final int[] ranks;              // Sorted mine ranks among the cells outside the safe zone
+
+    private MineLayout(int rows, int cols, int mines, long seed, NeighborTable neighbors, int[] ranks) {
+        this.rows = rows;
+        this.cols = cols;
+        this.mines = mines;
+        this.seed = seed;
+        this.neighbors = neighbors;
+        this.ranks = ranks;
+    }
+
+    // Draw a layout for a board; mines must fit outside a full-size safe zone
+    public static MineLayout generate(int rows, int cols, int mines, NeighborTable neighbors, long seed) {
+        int universe = rows * cols - getSafeZoneSize(neighbors);
+        if (mines <= 0 || mines > universe) {
+            throw new IllegalArgumentException("Too many mines for board size");
+        }
+
+        // Pick whichever of mines / free cells is the smaller set, so rejection sampling stays fast
+        Random random = new Random(seed);
+        boolean pickFree = mines > universe / 2;
+        int picks = pickFree ? universe - mines : mines;
+        BitSet picked = new BitSet(universe);
+        for (int count = 0; count < picks; ) {
+            int rank = random.nextInt(universe);
+            if (!picked.get(rank)) {
+                picked.set(rank);
+                count++;
+            }
+        }
+        if (pickFree) {
+            picked.flip(0, universe);
+        }
+
+        int[] ranks = new int[mines];
+        for (int rank = picked.nextSetBit(0), i = 0; rank >= 0; rank = picked.nextSetBit(rank + 1)) {
+            ranks[i++] = rank;
+        }
+        return new MineLayout(rows, cols, mines, seed, neighbors, ranks);
+    }
+
+    // Cells in a full-size safe zone: the clicked cell plus the most neighbors any cell has
+    static int getSafeZoneSize(NeighborTable neighbors) {
+        return neighbors.getMaxDegree() + 1;
+    }
+
+    // Getter methods
+    public int getRows() { return rows; }
+    public int getCols() { return cols; }
+    public int getMines() { return mines; }
+    public long getSeed() { return seed; }
+    public Topology getTopology() { return neighbors.getTopology(); }
+    NeighborTable getNeighborTable() { return neighbors; }
+    int[] getRanks() { return ranks; }
+
+    // Approximate heap used by the layout itself (the neighbor table is shared)
+    public long getMemoryBytes() {
+        return 48L + 4L * ranks.length;
+    }
+}
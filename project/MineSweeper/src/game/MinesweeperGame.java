@@ -1,8 +1,10 @@
 package game;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Random;
-import java.util.Stack;
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 public class MinesweeperGame {
     // Core game components
@@ -10,65 +12,171 @@ public class MinesweeperGame {
     private int flagsPlaced;       // Number of flags currently on the board
     private boolean gameOver;      // Whether the game has ended
     private boolean gameWon;       // Whether the player won
-    private Stack<GameState> undoStack;  // Stack for undo functionality (LIFO)
+    private HistoryTree history;   // Undo/redo history (branches when moving after an undo)
     private boolean firstMove;     // Track if it's the first move (mines not placed yet)
-
-    // Track last mine clicked for special undo case
+    private long seed;             // Seed for mine placement (lets replays rebuild the same board)
+    private MineLayout layout;     // Pre-generated mine layout for this seed (null to draw it on the first click)
+    private String importedCode;   // Code of an imported layout (null when the mines come from the seed)
+    private String boardCode;      // Code shared for this layout (cached once asked for, see getBoardCode)
+    private final List<Move> moveLog;  // Every successful action in order (for replays)
+    private final List<CellChangeListener> listeners;  // Observers of cell changes
+    private int hintsUsed;         // Number of hints requested this game
+    private String pendingHint;    // Hint shown since the last move (recorded in the next undo state)
+    private final GameView view = new ReadOnlyView();  // Player-visible view of this game
+
+    // Track the mine that ended the game (-1 while the game is not lost)
     private int lastMineRow = -1;
     private int lastMineCol = -1;
 
-    // Constructor to initialize a new game
+    // Constructor to initialize a new game with a random seed
     public MinesweeperGame(int rows, int cols, int mines) {
-        this.board = new Board(rows, cols, mines);
+        this(rows, cols, mines, new Random().nextLong());
+    }
+
+    // Constructor to initialize a new game with a fixed seed (same seed + same moves = same game)
+    public MinesweeperGame(int rows, int cols, int mines, long seed) {
+        this(rows, cols, mines, seed, Topology.CLASSIC);
+    }
+
+    // Constructor to initialize a new game with a fixed seed and a neighbor topology
+    public MinesweeperGame(int rows, int cols, int mines, long seed, Topology topology) {
+        this.board = new Board(rows, cols, mines, topology);
+        this.flagsPlaced = 0;
+        this.gameOver = false;
+        this.gameWon = false;
+        this.history = new HistoryTree();
+        this.firstMove = true;  // Mines will be placed on first click
+        this.seed = seed;
+        this.moveLog = new ArrayList<>();
+        this.listeners = new CopyOnWriteArrayList<>();
+    }
+
+    // Constructor to initialize a game whose cells live in the given storage (e.g. off-heap, for huge boards)
+    // Such boards have no neighbor table or opening index: far less heap, but reveals flood-fill and there are no hints
+    public MinesweeperGame(int rows, int cols, int mines, long seed, Topology topology, CellStorage storage) {
+        this.board = new Board(rows, cols, mines, topology, storage);
+        this.flagsPlaced = 0;
+        this.gameOver = false;
+        this.gameWon = false;
+        this.history = new HistoryTree();
+        this.firstMove = true;  // Mines will be placed on first click
+        this.seed = seed;
+        this.moveLog = new ArrayList<>();
+        this.listeners = new CopyOnWriteArrayList<>();
+    }
+
+    // Constructor to start a game from a pre-generated layout (see BoardPool)
+    // Plays exactly like a game built from the layout's size, seed and topology
+    public MinesweeperGame(MineLayout layout) {
+        this.board = new Board(layout.getRows(), layout.getCols(), layout.getMines(), layout.getNeighborTable());
         this.flagsPlaced = 0;
         this.gameOver = false;
         this.gameWon = false;
-        this.undoStack = new Stack<>();
+        this.history = new HistoryTree();
         this.firstMove = true;  // Mines will be placed on first click
+        this.seed = layout.getSeed();
+        this.layout = layout;
+        this.moveLog = new ArrayList<>();
+        this.listeners = new CopyOnWriteArrayList<>();
+    }
+
+    // Constructor to start a game on an imported layout (see BoardCode)
+    // Mines are placed up front, exactly as in the code, so the first click is not guaranteed to be safe
+    public MinesweeperGame(BoardCode code) {
+        this.board = new Board(code.getRows(), code.getCols(), code.getMines(), code.getTopology());
+        this.board.placeMines(code.mineCells());
+        this.flagsPlaced = 0;
+        this.gameOver = false;
+        this.gameWon = false;
+        this.history = new HistoryTree();
+        this.firstMove = false;  // Mines are already placed
+        this.importedCode = BoardCode.encode(board);
+        this.boardCode = importedCode;
+        this.moveLog = new ArrayList<>();
+        this.listeners = new CopyOnWriteArrayList<>();
+    }
+
+    // Constructor to start a game on an imported layout whose cells live in the given storage (see BoardCode)
+    public MinesweeperGame(BoardCode code, CellStorage storage) {
+        this.board = new Board(code.getRows(), code.getCols(), code.getMines(), code.getTopology(), storage);
+        this.board.placeMines(code.mineCells());
+        this.flagsPlaced = 0;
+        this.gameOver = false;
+        this.gameWon = false;
+        this.history = new HistoryTree();
+        this.firstMove = false;  // Mines are already placed
+        this.importedCode = BoardCode.encode(board);
+        this.boardCode = importedCode;
+        this.moveLog = new ArrayList<>();
+        this.listeners = new CopyOnWriteArrayList<>();
+    }
+
+    // Place the mines for the first click
+    // Clicks with a full safe zone use the seed's layout (pooled or drawn now, same result either way);
+    // clicks near an edge have a smaller safe zone and fall back to placing mines one by one;
+    // boards without a neighbor table (huge boards) are filled tile by tile in parallel
+    private void placeMines(int row, int col) {
+        if (board.getNeighborTable() == null) {
+            board.placeMines(row, col, seed);
+        } else if (board.hasFullSafeZone(row, col)) {
+            if (layout == null) {
+                layout = MineLayout.generate(board.getRows(), board.getCols(), board.getTotalMines(),
+                        board.getNeighborTable(), seed);
+            }
+            board.placeMines(row, col, layout);
+        } else {
+            board.placeMines(row, col, new Random(seed));
+        }
     }
 
     // Handle revealing a cell (left click)
     public synchronized boolean revealCell(int row, int col) {
         // Check if reveal is allowed
         if (gameOver || !board.isValidPosition(row, col) ||
-                board.getCell(row, col).isRevealed() ||
-                board.getCell(row, col).isFlagged()) {
+                board.isRevealed(row, col) ||
+                board.isFlagged(row, col)) {
             return false;
         }
 
         // If cell is not a mine (safe cell)
-        if (!board.getCell(row, col).isMine()) {
-            GameState state = createGameState("Reveal cell at (" + row + ", " + col + ")");
+        if (!board.isMine(row, col)) {
+            GameState state;
 
-            // If this is the first move, place mines after saving initial state
+            // If this is the first move, place mines (undo takes them off again, redo re-places them from the seed)
             if (firstMove) {
-                saveBoardState(state);     // Save entire board state
-                pushToUndoStack(state);    // Save to undo stack
+                state = createGameState("First move at (" + row + ", " + col + ") - mines placed");
+                state.setFirstClick(row, col);
 
-                // Place mines randomly, avoiding the clicked cell and its neighbors
-                board.placeMines(row, col, new Random());
+                // Place mines from the seed, avoiding the clicked cell and its neighbors
+                placeMines(row, col);
                 firstMove = false;         // Mines are now placed
-
-                state = createGameState("First move - mines placed");
+                fireBoardChanged();        // Every cell may have a new adjacent count
+            } else {
+                state = createGameState("Reveal cell at (" + row + ", " + col + ")");
             }
 
-            // Get all cells that should be revealed (BFS for empty cells)
-            List<int[]> cellsToReveal = board.getCellsToReveal(row, col, state);
-
-            // Reveal all cells in the list
-            for (int[] pos : cellsToReveal) {
-                board.getCell(pos[0], pos[1]).setRevealed(true);
+            // Reveal the cell and, for empty cells, the area around it (recorded in state)
+            int first = state.getChangedCount();
+            board.reveal(row, col, state);
+            for (int i = first; i < state.getChangedCount(); i++) {
+                fireCellChanged(state.getChangedRow(i), state.getChangedCol(i));
             }
 
-            pushToUndoStack(state);  // Save this game state for undo
             checkWinCondition();     // Check if the player has won
+            pushToUndoStack(state);  // Save this game state for undo/redo
+            moveLog.add(Move.reveal(row, col));
             return true;
         } else {
-            // Player clicked on a mine - game over
+            // Player clicked on a mine - game over (undoable like any other move)
+            GameState state = createGameState("Hit mine at (" + row + ", " + col + ")");
+            state.addChangedCell(row, col, board.getPacked(row, col));
             this.lastMineRow = row;
             this.lastMineCol = col;
-            board.getCell(row, col).setRevealed(true);
+            board.setRevealed(row, col, true);
             gameOver = true;
+            fireCellChanged(row, col);
+            pushToUndoStack(state);
+            moveLog.add(Move.reveal(row, col));
             return true;
         }
     }
@@ -77,64 +185,101 @@ public class MinesweeperGame {
     public synchronized boolean toggleFlag(int row, int col) {
         // Check if flag toggle is allowed
         if (gameOver || !board.isValidPosition(row, col) ||
-                board.getCell(row, col).isRevealed()) {
+                board.isRevealed(row, col)) {
             return false;
         }
 
         // Prevent placing more flags than total mines
-        if (!board.getCell(row, col).isFlagged() && flagsPlaced >= board.getTotalMines()) {
+        if (!board.isFlagged(row, col) && flagsPlaced >= board.getTotalMines()) {
             return false;
         }
 
         // Create game state for undo
         GameState state = createGameState("Toggle flag at (" + row + ", " + col + ")");
-        state.addChangedCell(board.getCell(row, col));
+        state.addChangedCell(row, col, board.getPacked(row, col));
 
         // Toggle flag state
-        if (board.getCell(row, col).isFlagged()) {
-            board.getCell(row, col).setFlagged(false);
+        if (board.isFlagged(row, col)) {
+            board.setFlagged(row, col, false);
             flagsPlaced--;
         } else {
-            board.getCell(row, col).setFlagged(true);
+            board.setFlagged(row, col, true);
             flagsPlaced++;
         }
+        fireCellChanged(row, col);
 
-        pushToUndoStack(state);  // Save for undo
         checkWinCondition();     // Check if flagging completed the game
+        pushToUndoStack(state);  // Save for undo/redo
+        moveLog.add(Move.flag(row, col));
         return true;
     }
 
-    // Undo the last move
-    public synchronized boolean undo() {
-        // Special case: undo clicking on a mine
-        if (gameOver && !gameWon && lastMineRow != -1) {
-            board.getCell(lastMineRow, lastMineCol).setRevealed(false);
-            gameOver = false;
-            lastMineRow = -1;
-            lastMineCol = -1;
-            return true;
+    // Chord: on a revealed number whose flags are all placed, reveal every other covered neighbor
+    // Each neighbor is revealed as a normal move, so a wrong flag can still end the game
+    public synchronized boolean chord(int row, int col) {
+        if (gameOver || !board.isValidPosition(row, col)) return false;
+        if (!board.isRevealed(row, col) || board.isMine(row, col) || board.getAdjacentMines(row, col) == 0) return false;
+
+        List<int[]> neighbors = new ArrayList<>();
+        int flags = 0;
+        for (int[] pos : board.getAdjacentPositions(row, col)) {
+            if (board.isFlagged(pos[0], pos[1])) {
+                flags++;
+            } else if (!board.isRevealed(pos[0], pos[1])) {
+                neighbors.add(pos);
+            }
         }
+        if (flags != board.getAdjacentMines(row, col) || neighbors.isEmpty()) return false;
 
-        // Regular undo: restore previous game state from stack
-        if (undoStack.isEmpty()) {
+        boolean revealed = false;
+        for (int[] pos : neighbors) {
+            revealed |= revealCell(pos[0], pos[1]);  // Already revealed by an earlier cascade is fine
+        }
+        return revealed;
+    }
+
+    // Undo the last move (including a mine hit)
+    public synchronized boolean undo() {
+        GameState state = history.undo();
+        if (state == null) {
             return false;
         }
 
-        GameState state = undoStack.pop();
         restoreGameState(state);
+        moveLog.add(Move.undo());
         return true;
     }
 
-    // Save the entire board state (used for first move undo)
-    private void saveBoardState(GameState state) {
-        for (int i = 0; i < board.getRows(); i++) {
-            for (int j = 0; j < board.getCols(); j++) {
-                state.addChangedCell(new Cell(board.getCell(i, j)));
-            }
+    // Redo the most recently undone move
+    public synchronized boolean redo() {
+        return redo(history.getRedoBranch());
+    }
+
+    // Redo along a specific branch of the history (0 = oldest branch)
+    public synchronized boolean redo(int branch) {
+        GameState state = history.redo(branch);
+        if (state == null) {
+            return false;
+        }
+
+        reapplyGameState(state);
+        moveLog.add(Move.redo(branch));
+        return true;
+    }
+
+    // Jump to any position in the history; cost is proportional to the path between the two nodes
+    public synchronized void jumpTo(HistoryTree.Node target) {
+        List<HistoryTree.Node> undoNodes = new ArrayList<>();
+        List<HistoryTree.Node> redoNodes = history.pathTo(target, undoNodes);
+        for (int i = 0; i < undoNodes.size(); i++) {
+            undo();
+        }
+        for (HistoryTree.Node node : redoNodes) {
+            redo(node.getParent().getChildren().indexOf(node));
         }
     }
 
-    // Restore game state from a saved state
+    // Restore game state from a saved state (undo)
     private void restoreGameState(GameState state) {
         // Restore game status flags
         this.gameOver = state.isGameOver();
@@ -142,49 +287,62 @@ public class MinesweeperGame {
         this.flagsPlaced = state.getFlagsPlaced();
         this.firstMove = state.isFirstMove();
 
-        // Restore each cell to its saved state
-        for (Cell savedCell : state.getChangedCells()) {
-            Cell currentCell = board.getCell(savedCell.getRow(), savedCell.getCol());
-            currentCell.setRevealed(savedCell.isRevealed());
-            currentCell.setFlagged(savedCell.isFlagged());
-            currentCell.setMine(savedCell.isMine());
-            currentCell.setAdjacentMines(savedCell.getAdjacentMines());
+        // Restore each cell to its saved state, newest first so the earliest saved copy wins
+        for (int i = state.getChangedCount() - 1; i >= 0; i--) {
+            board.setPacked(state.getChangedRow(i), state.getChangedCol(i), state.getBefore(i));
+            fireCellChanged(state.getChangedRow(i), state.getChangedCol(i));
         }
+        if (state.isFirstMove() && !state.isAfterFirstMove()) {
+            board.clearMines();  // Back to the board before the first click
+            boardCode = null;    // Another first click lays out other mines
+            fireBoardChanged();
+        }
+        updateLastMine(state);
     }
 
-    // Check if the player has won the game
-    private void checkWinCondition() {
-        boolean allNonMinesRevealed = true;
-        boolean allMinesCorrectlyFlagged = true;
-        boolean noIncorrectFlags = true;
-
-        // Check all cells on the board
-        for (int i = 0; i < board.getRows(); i++) {
-            for (int j = 0; j < board.getCols(); j++) {
-                Cell cell = board.getCell(i, j);
-
-                if (cell.isMine()) {
-                    // Mine must be flagged for win condition
-                    if (!cell.isFlagged()) {
-                        allMinesCorrectlyFlagged = false;
-                    }
-                } else {
-                    // Non-mine must be revealed for win condition
-                    if (!cell.isRevealed()) {
-                        allNonMinesRevealed = false;
-                    }
-                    // Check for incorrect flags on non-mines
-                    if (cell.isFlagged()) {
-                        noIncorrectFlags = false;
-                    }
-                }
+    // Re-apply a saved state (redo)
+    private void reapplyGameState(GameState state) {
+        boolean placesMines = state.isFirstMove() && !state.isAfterFirstMove();
+
+        this.gameOver = state.isAfterGameOver();
+        this.gameWon = state.isAfterGameWon();
+        this.flagsPlaced = state.getAfterFlagsPlaced();
+        this.firstMove = state.isAfterFirstMove();
+
+        if (placesMines) {
+            // The same seed and click give the same mines the move placed before
+            placeMines(state.getFirstClickRow(), state.getFirstClickCol());
+            fireBoardChanged();
+        }
+        for (int i = 0; i < state.getChangedCount(); i++) {
+            board.setPacked(state.getChangedRow(i), state.getChangedCol(i), state.getAfter(i));
+            fireCellChanged(state.getChangedRow(i), state.getChangedCol(i));
+        }
+        updateLastMine(state);
+    }
+
+    // Track which mine ended the game after moving through the history
+    private void updateLastMine(GameState state) {
+        lastMineRow = -1;
+        lastMineCol = -1;
+        if (!gameOver || gameWon) return;
+        for (int i = 0; i < state.getChangedCount(); i++) {
+            int row = state.getChangedRow(i);
+            int col = state.getChangedCol(i);
+            if (board.isMine(row, col) && board.isRevealed(row, col)) {
+                lastMineRow = row;
+                lastMineCol = col;
             }
         }
+    }
 
-        // Win if either:
-        // 1. All non-mines are revealed (standard Minesweeper win)
-        // 2. All mines are flagged AND no incorrect flags (flagging win)
-        gameWon = allNonMinesRevealed || (allMinesCorrectlyFlagged && noIncorrectFlags);
+    // Check if the player has won the game
+    // Win if either:
+    // 1. All non-mines are revealed (standard Minesweeper win)
+    // 2. All mines are flagged AND no incorrect flags (flagging win)
+    // The board keeps count of the cells in the way as they change, so this costs nothing per move
+    private void checkWinCondition() {
+        gameWon = board.allSafeCellsRevealed() || board.allMinesFlaggedCorrectly();
         gameOver = gameWon;  // Game ends when player wins
     }
 
@@ -195,13 +353,95 @@ public class MinesweeperGame {
         state.setGameWon(gameWon);
         state.setFlagsPlaced(flagsPlaced);
         state.setFirstMove(firstMove);
+        // Record hint usage in the undo history so it can be audited
+        if (pendingHint != null) {
+            description += " [after hint: " + pendingHint + "]";
+            pendingHint = null;
+        }
         state.setDescription(description);
         return state;
     }
 
-    // Save a game state to the undo stack
+    // Save a completed move to the history (records the after state for redo)
     private void pushToUndoStack(GameState state) {
-        undoStack.push(state);
+        state.captureAfter(board, flagsPlaced, gameOver, gameWon, firstMove);
+        history.add(state);
+    }
+
+    // Record that a hint was shown to the player
+    public synchronized void recordHint(Hint hint) {
+        hintsUsed++;
+        pendingHint = hint.toString();
+    }
+
+    // Descriptions of every undoable state, oldest first (for auditing)
+    public synchronized List<String> getHistoryDescriptions() {
+        return history.getPathDescriptions();
+    }
+
+    // Register a listener for cell changes
+    public void addCellChangeListener(CellChangeListener listener) {
+        listeners.add(listener);
+    }
+
+    // Remove a previously registered listener
+    public void removeCellChangeListener(CellChangeListener listener) {
+        listeners.remove(listener);
+    }
+
+    // Notify listeners that a single cell changed
+    private void fireCellChanged(int row, int col) {
+        for (CellChangeListener listener : listeners) {
+            listener.onCellChanged(row, col);
+        }
+    }
+
+    // Notify listeners that the whole board changed
+    private void fireBoardChanged() {
+        for (CellChangeListener listener : listeners) {
+            listener.onBoardChanged();
+        }
+    }
+
+    // Overwrite the whole board and status from packed cells (used by replay playback)
+    synchronized void loadPackedState(byte[] cells, int flagsPlaced, boolean gameOver, boolean gameWon) {
+        int cols = board.getCols();
+        for (int i = 0; i < cells.length; i++) {
+            board.setPacked(i / cols, i % cols, cells[i]);
+        }
+        setStatus(flagsPlaced, gameOver, gameWon);
+        fireBoardChanged();
+    }
+
+    // Overwrite a single cell from its packed form (used by replay playback)
+    synchronized void loadPackedCell(int row, int col, byte packed) {
+        board.setPacked(row, col, packed);
+        fireCellChanged(row, col);
+    }
+
+    // Drop the undo history and move log (replay playback simulates on the game it then shows)
+    synchronized void clearHistory() {
+        history.close();  // Deletes its spill file, if any
+        history = new HistoryTree();
+        moveLog.clear();
+    }
+
+    // Overwrite the game status flags (used by replay playback)
+    synchronized void setStatus(int flagsPlaced, boolean gameOver, boolean gameWon) {
+        this.flagsPlaced = flagsPlaced;
+        this.gameOver = gameOver;
+        this.gameWon = gameWon;
+        this.firstMove = false;
+    }
+
+    // Read-only view for bots and analyzers (hides unrevealed mines)
+    public GameView getView() {
+        return view;
+    }
+
+    // Build a replay of everything played so far
+    public synchronized Replay toReplay() {
+        return new Replay(board.getRows(), board.getCols(), board.getTotalMines(), seed, board.getTopology(), moveLog, importedCode);
     }
 
     // Getter methods for game information
@@ -209,25 +449,118 @@ public class MinesweeperGame {
     public boolean isGameWon() { return gameWon; }
     public int getRows() { return board.getRows(); }
     public int getCols() { return board.getCols(); }
-    public Cell getCell(int row, int col) { return board.getCell(row, col); }
+    public Cell getCell(int row, int col) { return board.getCell(row, col); }  // A copy: change cells through moves
+    public byte getPackedCell(int row, int col) { return board.getPacked(row, col); }  // See Cell.pack, no copy
     public int getFlagsPlaced() { return flagsPlaced; }
     public int getTotalMines() { return board.getTotalMines(); }
-    public int getUndoCount() { return undoStack.size(); }
+    public Topology getTopology() { return board.getTopology(); }
+    public int getUndoCount() { return history.getCurrent().getDepth(); }
+    public boolean canRedo() { return history.canRedo(); }
+    public HistoryTree getHistory() { return history; }
+    public int getHitMineRow() { return lastMineRow; }
+    public int getHitMineCol() { return lastMineCol; }
+    public long getSeed() { return seed; }
+    public boolean isFirstMove() { return firstMove; }
+    public int getHintsUsed() { return hintsUsed; }
+    public List<Move> getMoveLog() { return Collections.unmodifiableList(moveLog); }
+
+    // Shareable code of this board's mine layout (null until the first click places the mines)
+    public synchronized String getBoardCode() {
+        if (firstMove) return null;
+        if (boardCode == null) {
+            boardCode = BoardCode.encode(board);
+        }
+        return boardCode;
+    }
+
+    // Board quality metrics (-1 until mines are placed on the first click)
+    public int get3BV() {
+        OpeningIndex index = board.getOpeningIndex();
+        return index == null ? -1 : index.get3BV();
+    }
+
+    public int getOpeningCount() {
+        OpeningIndex index = board.getOpeningIndex();
+        return index == null ? -1 : index.getOpeningCount();
+    }
 
     // Reset game with new dimensions
     public void resetGame(int rows, int cols, int mines) {
-        this.board = new Board(rows, cols, mines);
+        resetGame(rows, cols, mines, new Random().nextLong());
+    }
+
+    // Reset game with new dimensions and a fixed seed (lets stress runs reproduce resets)
+    public void resetGame(int rows, int cols, int mines, long seed) {
+        if (board.getNeighborTable() == null) {
+            // Boards without a table stay off the heap (in direct memory)
+            board.getStorage().close();
+            this.board = new Board(rows, cols, mines, board.getTopology(), OffHeapCellStorage.allocate((long) rows * cols));
+        } else {
+            NeighborTable neighbors = rows == board.getRows() && cols == board.getCols()
+                    ? board.getNeighborTable() : new NeighborTable(rows, cols, board.getTopology());  // Reuse when the size is unchanged
+            this.board = new Board(rows, cols, mines, neighbors);
+        }
         this.flagsPlaced = 0;
         this.gameOver = false;
         this.gameWon = false;
-        this.undoStack.clear();
+        this.history.close();  // Deletes its spill file, if any
+        this.history = new HistoryTree();
         this.firstMove = true;
         this.lastMineRow = -1;
         this.lastMineCol = -1;
+        this.seed = seed;
+        this.layout = null;
+        this.importedCode = null;
+        this.boardCode = null;
+        this.moveLog.clear();
+        this.hintsUsed = 0;
+        this.pendingHint = null;
+        fireBoardChanged();
     }
 
     // Reset game with current dimensions
     public void resetGame() {
         resetGame(board.getRows(), board.getCols(), board.getTotalMines());
     }
-}
\ No newline at end of file
+
+    // Release what the game holds outside the heap: off-heap cells (they are only freed once their buffers are
+    // collected, so drop the game too) and the undo history's spill file. The game cannot be used afterwards.
+    public synchronized void close() {
+        board.getStorage().close();
+        history.close();
+    }
+
+    // GameView implementation that exposes only what the player can see
+    private class ReadOnlyView implements GameView {
+        @Override public int getRows() { return MinesweeperGame.this.getRows(); }
+        @Override public int getCols() { return MinesweeperGame.this.getCols(); }
+        @Override public int getTotalMines() { return MinesweeperGame.this.getTotalMines(); }
+        @Override public int getFlagsPlaced() { return flagsPlaced; }
+        @Override public boolean isGameOver() { return gameOver; }
+        @Override public boolean isGameWon() { return gameWon; }
+        @Override public boolean isFirstMove() { return firstMove; }
+        @Override public NeighborTable getNeighborTable() { return board.getNeighborTable(); }
+        @Override public boolean isRevealed(int row, int col) { return board.isRevealed(row, col); }
+        @Override public boolean isFlagged(int row, int col) { return board.isFlagged(row, col); }
+
+        @Override
+        public boolean isRevealedMine(int row, int col) {
+            return board.isRevealed(row, col) && board.isMine(row, col);
+        }
+
+        @Override
+        public int getAdjacentMines(int row, int col) {
+            return board.isRevealed(row, col) && !board.isMine(row, col) ? board.getAdjacentMines(row, col) : -1;
+        }
+
+        @Override
+        public void addCellChangeListener(CellChangeListener listener) {
+            MinesweeperGame.this.addCellChangeListener(listener);
+        }
+
+        @Override
+        public void removeCellChangeListener(CellChangeListener listener) {
+            MinesweeperGame.this.removeCellChangeListener(listener);
+        }
+    }
+}
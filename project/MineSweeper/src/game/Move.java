@@ -0,0 +1,40 @@
+package game;
+
+// A single player action recorded by MinesweeperGame (used to build replays)
+public class Move {
+    // Kinds of actions a player can take
+    public enum Type { REVEAL, FLAG, CHORD, UNDO, REDO }
+
+    private final Type type;  // What kind of action this is
+    private final int row;    // Target row (-1 for actions without a target cell, branch index for REDO)
+    private final int col;    // Target column (-1 for actions without a target cell)
+
+    // Constructor to create a move of the given type at a position
+    public Move(Type type, int row, int col) {
+        this.type = type;
+        this.row = row;
+        this.col = col;
+    }
+
+    // Factory methods for each kind of move
+    public static Move reveal(int row, int col) { return new Move(Type.REVEAL, row, col); }
+    public static Move flag(int row, int col) { return new Move(Type.FLAG, row, col); }
+    public static Move chord(int row, int col) { return new Move(Type.CHORD, row, col); }
+    public static Move undo() { return new Move(Type.UNDO, -1, -1); }
+    public static Move redo(int branch) { return new Move(Type.REDO, branch, -1); }
+
+    // Getter methods
+    public Type getType() { return type; }
+    public int getRow() { return row; }
+    public int getCol() { return col; }
+    public int getBranch() { return row; }  // History branch followed by a REDO move
+
+    @Override
+    public String toString() {
+        return switch (type) {
+            case UNDO -> "UNDO";
+            case REDO -> "REDO (branch " + row + ")";
+            default -> type + " (" + row + ", " + col + ")";
+        };
+    }
+}
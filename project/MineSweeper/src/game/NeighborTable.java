@@ -0,0 +1,50 @@
+package game;
+
+import java.util.Arrays;
+
+// Precomputed adjacency of every cell, stored in compressed sparse row (CSR) form
+// Neighbors of cell i (flat index row * cols + col) are neighbors[offsets[i] .. offsets[i + 1]).
+// Bounds and wraparound are resolved once here, so hot loops are plain array scans.
+public class NeighborTable {
+    private final Topology topology;  // Topology the table was built for
+    private final int[] offsets;      // Start of each cell's neighbor list (length = cells + 1)
+    private final int[] neighbors;    // Flat indices of all neighbors, back to back
+    private final int maxDegree;      // Largest number of neighbors of any cell
+
+    // Constructor - builds the table for a board size and topology
+    public NeighborTable(int rows, int cols, Topology topology) {
+        this.topology = topology;
+        int size = rows * cols;
+        offsets = new int[size + 1];
+        int[] buffer = new int[size * topology.getMaxDegree()];
+        long[] around = new long[topology.getMaxDegree()];
+        int count = 0;
+        int degree = 0;
+
+        for (int index = 0; index < size; index++) {
+            int found = topology.collectNeighbors(rows, cols, index, around);
+            for (int k = 0; k < found; k++) {
+                buffer[count++] = (int) around[k];
+            }
+            offsets[index + 1] = count;
+            degree = Math.max(degree, found);
+        }
+        neighbors = Arrays.copyOf(buffer, count);
+        maxDegree = degree;
+    }
+
+    // Range of a cell's neighbors in the neighbor array
+    public int start(int index) { return offsets[index]; }
+    public int end(int index) { return offsets[index + 1]; }
+    public int neighbor(int position) { return neighbors[position]; }
+
+    // Getter methods
+    public Topology getTopology() { return topology; }
+    public int getMaxDegree() { return maxDegree; }
+    public int getCellCount() { return offsets.length - 1; }
+
+    // Approximate heap used by the table
+    public long getMemoryBytes() {
+        return 32L + 4L * offsets.length + 4L * neighbors.length;
+    }
+}
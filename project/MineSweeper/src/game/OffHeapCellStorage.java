@@ -0,0 +1,83 @@
+package game;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+// Cell storage outside the Java heap, for boards too large for a byte array (or for a small -Xmx)
+// Cells live in 1 GB chunks of direct memory, or of a memory-mapped file so the OS can page them to disk.
+// Only the chunk references are on the heap, so a billion-cell board adds almost nothing to GC work.
+// Direct memory is capped by -XX:MaxDirectMemorySize (defaults to -Xmx); mapped files are not.
+public class OffHeapCellStorage implements CellStorage {
+    private static final int CHUNK_BITS = 30;  // 1 GB per chunk (a ByteBuffer is indexed by int)
+    private static final long CHUNK_MASK = (1L << CHUNK_BITS) - 1;
+
+    private final long size;
+    private final boolean mapped;
+    private ByteBuffer[] chunks;
+
+    private OffHeapCellStorage(long size, ByteBuffer[] chunks, boolean mapped) {
+        this.size = size;
+        this.chunks = chunks;
+        this.mapped = mapped;
+    }
+
+    // Allocate zeroed direct memory for the given number of cells
+    public static OffHeapCellStorage allocate(long size) {
+        ByteBuffer[] chunks = new ByteBuffer[chunkCount(size)];
+        for (int i = 0; i < chunks.length; i++) {
+            chunks[i] = ByteBuffer.allocateDirect(chunkSize(size, i));
+        }
+        return new OffHeapCellStorage(size, chunks, false);
+    }
+
+    // Map a file (created or emptied first) holding the given number of cells
+    public static OffHeapCellStorage map(Path file, long size) throws IOException {
+        ByteBuffer[] chunks = new ByteBuffer[chunkCount(size)];
+        // The mappings stay valid after the channel is closed
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            for (int i = 0; i < chunks.length; i++) {
+                chunks[i] = channel.map(FileChannel.MapMode.READ_WRITE, (long) i << CHUNK_BITS, chunkSize(size, i));
+            }
+        }
+        return new OffHeapCellStorage(size, chunks, true);
+    }
+
+    private static int chunkCount(long size) {
+        if (size < 0) {
+            throw new IllegalArgumentException("Cell count must not be negative");
+        }
+        return (int) ((size + CHUNK_MASK) >>> CHUNK_BITS);
+    }
+
+    private static int chunkSize(long size, int chunk) {
+        return (int) Math.min(1L << CHUNK_BITS, size - ((long) chunk << CHUNK_BITS));
+    }
+
+    @Override public long size() { return size; }
+
+    @Override
+    public byte get(long index) {
+        return chunks[(int) (index >>> CHUNK_BITS)].get((int) (index & CHUNK_MASK));
+    }
+
+    @Override
+    public void set(long index, byte packed) {
+        chunks[(int) (index >>> CHUNK_BITS)].put((int) (index & CHUNK_MASK), packed);
+    }
+
+    @Override public long getHeapBytes() { return 32L + 64L * chunkCount(size); }
+    @Override public long getOffHeapBytes() { return mapped ? 0 : size; }  // Mapped pages belong to the OS page cache
+
+    public boolean isMapped() { return mapped; }
+
+    // Drop the chunks; a mapped file's dirty pages are written back by the OS
+    // Java 17 has no explicit free: the memory (or mapping) is released once the buffers are collected
+    @Override
+    public void close() {
+        chunks = null;
+    }
+}
@@ -0,0 +1,150 @@
+package game;
+
+import java.util.Arrays;
+
+// Precomputed openings of a board: each connected region of zero cells plus the numbered cells bordering it
+// Built once with union-find right after mines are placed, since openings never change during a game.
+// Revealing a zero cell can then return its whole region instead of running a fresh BFS.
+public class OpeningIndex {
+    private final int[] openingOf;     // Opening id of each zero cell, -1 for other cells
+    private final int[] regionStart;   // Region of opening k is regionCells[regionStart[k] .. regionStart[k + 1])
+    private final int[] regionCells;   // Flat indices (row * cols + col) of every region, back to back
+    private final int openingCount;    // Number of openings on the board
+    private final int threeBV;         // Minimum clicks needed to clear the board (3BV)
+    private final long buildNanos;     // Time taken to build the index
+
+    // Constructor - builds the index from a board whose mines and adjacent counts are set
+    public OpeningIndex(CellStorage cells, NeighborTable neighbors) {
+        long start = System.nanoTime();
+        int size = (int) cells.size();
+
+        // Union every zero cell with its zero neighbors (each pair once, from the lower index)
+        int[] parent = new int[size];
+        for (int i = 0; i < size; i++) parent[i] = i;
+        for (int index = 0; index < size; index++) {
+            if (!isZero(cells.get(index))) continue;
+            for (int p = neighbors.start(index); p < neighbors.end(index); p++) {
+                int neighbor = neighbors.neighbor(p);
+                if (neighbor > index && isZero(cells.get(neighbor))) union(parent, index, neighbor);
+            }
+        }
+
+        // Number the openings; parent[] is reused to map each root to its opening id
+        openingOf = new int[size];
+        int count = 0;
+        for (int i = 0; i < size; i++) {
+            if (isZero(cells.get(i)) && find(parent, i) == i) {
+                openingOf[i] = count++;
+            } else {
+                openingOf[i] = -1;
+            }
+        }
+        for (int i = 0; i < size; i++) {
+            if (isZero(cells.get(i))) {
+                openingOf[i] = openingOf[find(parent, i)];
+            }
+        }
+        openingCount = count;
+
+        // Group the zero cells by opening (counting sort), so each region is built in one go
+        int[] zeroStart = new int[count + 1];
+        for (int i = 0; i < size; i++) {
+            if (openingOf[i] >= 0) zeroStart[openingOf[i] + 1]++;
+        }
+        for (int k = 0; k < count; k++) zeroStart[k + 1] += zeroStart[k];
+        int[] zeroCells = new int[zeroStart[count]];
+        int[] next = Arrays.copyOf(zeroStart, count);
+        for (int i = 0; i < size; i++) {
+            if (openingOf[i] >= 0) zeroCells[next[openingOf[i]]++] = i;
+        }
+
+        // Count region sizes (zero cells plus distinct border cells), then fill them in (CSR layout)
+        // Cells are stamped with the opening being built; as each region is built in one go, a cell reached
+        // again from a distant zero cell (torus wrap, knight moves) is still added only once
+        int[] lastOpening = parent;  // Reuse: last opening a cell was added to
+        Arrays.fill(lastOpening, -1);
+        regionStart = new int[count + 1];
+        for (int k = 0; k < count; k++) {
+            regionStart[k + 1] = regionStart[k] + addRegion(neighbors, k, zeroCells, zeroStart, lastOpening, null, 0);
+        }
+        regionCells = new int[regionStart[count]];
+        Arrays.fill(lastOpening, -1);
+        for (int k = 0; k < count; k++) {
+            addRegion(neighbors, k, zeroCells, zeroStart, lastOpening, regionCells, regionStart[k]);
+        }
+
+        // 3BV = one click per opening + one click per numbered cell not bordering any opening
+        int isolated = 0;
+        for (int i = 0; i < size; i++) {
+            if ((cells.get(i) & Cell.MINE_BIT) == 0 && lastOpening[i] < 0) isolated++;
+        }
+        threeBV = count + isolated;
+        buildNanos = System.nanoTime() - start;
+    }
+
+    // Add an opening's zero cells and their neighbors to its region, each cell once; returns how many were added
+    // (stored from position `at` of out, or only counted when out is null)
+    private static int addRegion(NeighborTable neighbors, int opening, int[] zeroCells, int[] zeroStart,
+                                 int[] lastOpening, int[] out, int at) {
+        int added = 0;
+        for (int z = zeroStart[opening]; z < zeroStart[opening + 1]; z++) {
+            int index = zeroCells[z];
+            added += addRegionCell(opening, index, lastOpening, out, at + added);
+            for (int p = neighbors.start(index); p < neighbors.end(index); p++) {
+                added += addRegionCell(opening, neighbors.neighbor(p), lastOpening, out, at + added);
+            }
+        }
+        return added;
+    }
+
+    private static int addRegionCell(int opening, int cell, int[] lastOpening, int[] out, int at) {
+        if (lastOpening[cell] == opening) return 0;  // Already part of this region
+        lastOpening[cell] = opening;
+        if (out != null) out[at] = cell;
+        return 1;
+    }
+
+    // A zero cell is a non-mine cell with no adjacent mines
+    private static boolean isZero(byte packed) {
+        return (packed & Cell.MINE_BIT) == 0 && Cell.adjacentMines(packed) == 0;
+    }
+
+    // Union-find with path halving
+    private static int find(int[] parent, int i) {
+        while (parent[i] != i) {
+            parent[i] = parent[parent[i]];
+            i = parent[i];
+        }
+        return i;
+    }
+
+    private static void union(int[] parent, int a, int b) {
+        int rootA = find(parent, a);
+        int rootB = find(parent, b);
+        if (rootA != rootB) {
+            // Keep the smaller index as root so ids follow row-major order
+            if (rootA < rootB) parent[rootB] = rootA;
+            else parent[rootA] = rootB;
+        }
+    }
+
+    // Opening id of a cell (flat index row * cols + col), or -1 if it is not a zero cell
+    public int getOpening(int index) {
+        return openingOf[index];
+    }
+
+    // Flat cell indices (row * cols + col) of an opening's region
+    public int getRegionStart(int opening) { return regionStart[opening]; }
+    public int getRegionEnd(int opening) { return regionStart[opening + 1]; }
+    public int getRegionCell(int position) { return regionCells[position]; }
+
+    // Board quality metrics and build statistics
+    public int getOpeningCount() { return openingCount; }
+    public int get3BV() { return threeBV; }
+    public long getBuildNanos() { return buildNanos; }
+
+    // Approximate heap used by the index arrays
+    public long getMemoryBytes() {
+        return 16L + 4L * openingOf.length + 16L + 4L * regionStart.length + 16L + 4L * regionCells.length;
+    }
+}
@@ -0,0 +1,67 @@
+package game;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+// A recorded game: board configuration, mine seed and the ordered list of player moves
+// Replaying the same moves on a game with the same seed reproduces the game exactly
+public class Replay {
+    private final int rows;         // Number of rows in the recorded game
+    private final int cols;         // Number of columns in the recorded game
+    private final int mines;        // Number of mines in the recorded game
+    private final long seed;        // Seed used for mine placement
+    private final Topology topology;  // Neighbor topology of the recorded board
+    private final List<Move> moves; // Moves in the order they were played
+    private final String boardCode; // Imported mine layout (null when the mines come from the seed)
+
+    // Constructor for a classic board
+    public Replay(int rows, int cols, int mines, long seed, List<Move> moves) {
+        this(rows, cols, mines, seed, Topology.CLASSIC, moves);
+    }
+
+    // Constructor for a game whose mines come from the seed
+    public Replay(int rows, int cols, int mines, long seed, Topology topology, List<Move> moves) {
+        this(rows, cols, mines, seed, topology, moves, null);
+    }
+
+    // Constructor - copies the move list so later moves don't leak into the replay
+    public Replay(int rows, int cols, int mines, long seed, Topology topology, List<Move> moves, String boardCode) {
+        this.rows = rows;
+        this.cols = cols;
+        this.mines = mines;
+        this.seed = seed;
+        this.topology = topology;
+        this.moves = Collections.unmodifiableList(new ArrayList<>(moves));
+        this.boardCode = boardCode;
+    }
+
+    // Create a fresh game with the same configuration and seed (or the same imported layout)
+    public MinesweeperGame createGame() {
+        if (boardCode != null) {
+            return BoardCode.decode(boardCode).createGame();
+        }
+        return new MinesweeperGame(rows, cols, mines, seed, topology);
+    }
+
+    // Apply a single recorded move to a game
+    public static boolean apply(MinesweeperGame game, Move move) {
+        return switch (move.getType()) {
+            case REVEAL -> game.revealCell(move.getRow(), move.getCol());
+            case FLAG -> game.toggleFlag(move.getRow(), move.getCol());
+            case CHORD -> game.chord(move.getRow(), move.getCol());
+            case UNDO -> game.undo();
+            case REDO -> game.redo(move.getBranch());
+        };
+    }
+
+    // Getter methods
+    public int getRows() { return rows; }
+    public int getCols() { return cols; }
+    public int getMines() { return mines; }
+    public long getSeed() { return seed; }
+    public Topology getTopology() { return topology; }
+    public List<Move> getMoves() { return moves; }
+    public String getBoardCode() { return boardCode; }
+    public int getMoveCount() { return moves.size(); }
+}
@@ -0,0 +1,264 @@
+package game;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+// Seekable playback of a Replay
+// The replay is simulated once up front; every move is stored as a delta (changed cells only)
+// and a packed keyframe of the whole board is stored once the deltas since the last keyframe
+// add up to the size of a keyframe (and at least a few moves apart). Keyframes therefore never
+// take much more memory than the deltas, however large the board. Seeking to move N loads the
+// nearest keyframe at or before N and applies the deltas after it, so the cost depends on the
+// distance from that keyframe, not on N.
+// Keyframes are byte arrays, so boards must fit a Java array (off-heap games cannot be replayed).
+public class ReplayPlayer {
+    public static final int DEFAULT_KEYFRAME_INTERVAL = 32;  // Minimum moves between keyframes
+    private static final int DELTA_OVERHEAD_BYTES = 48;      // Heap taken by a delta besides its cells
+
+    private final Replay replay;            // The recording being played
+    private final int keyframeInterval;     // Minimum moves between periodic keyframes
+    private final MinesweeperGame game;     // Game instance showing the current playback position
+    private final List<Keyframe> keyframes; // Keyframes sorted by position
+    private final List<Delta> deltas;       // deltas.get(i) turns position i into position i + 1
+    private int position;                   // Number of moves currently applied
+
+    // Full packed board plus status at a given position
+    private static class Keyframe {
+        final int position;
+        final byte[] cells;
+        final int flagsPlaced;
+        final boolean gameOver;
+        final boolean gameWon;
+
+        Keyframe(int position, byte[] cells, int flagsPlaced, boolean gameOver, boolean gameWon) {
+            this.position = position;
+            this.cells = cells;
+            this.flagsPlaced = flagsPlaced;
+            this.gameOver = gameOver;
+            this.gameWon = gameWon;
+        }
+    }
+
+    // Changed cells (as flat indices) with their packed state after one move
+    private static class Delta {
+        final int[] indices;
+        final byte[] values;
+        final int flagsPlaced;
+        final boolean gameOver;
+        final boolean gameWon;
+
+        Delta(int[] indices, byte[] values, int flagsPlaced, boolean gameOver, boolean gameWon) {
+            this.indices = indices;
+            this.values = values;
+            this.flagsPlaced = flagsPlaced;
+            this.gameOver = gameOver;
+            this.gameWon = gameWon;
+        }
+
+        // Approximate heap used by this delta
+        long getBytes() {
+            return DELTA_OVERHEAD_BYTES + 5L * indices.length;
+        }
+    }
+
+    // Collects the cells changed by a single move during the up-front simulation
+    // A cell may be reported more than once per move; duplicates are dropped when the delta is packed,
+    // so nothing here is sized by the board
+    private static class ChangeCollector implements CellChangeListener {
+        private final int cols;
+        private int[] changed = new int[16];
+        private int count;
+        private boolean boardChanged;     // Set when a move changed the whole board
+
+        ChangeCollector(int cols) {
+            this.cols = cols;
+        }
+
+        @Override
+        public void onCellChanged(int row, int col) {
+            if (count == changed.length) {
+                changed = Arrays.copyOf(changed, count * 2);
+            }
+            changed[count++] = row * cols + col;  // Fits an int: the board size was checked up front
+        }
+
+        @Override
+        public void onBoardChanged() {
+            boardChanged = true;
+        }
+
+        // Sort the collected cells and drop duplicates; returns how many distinct cells changed
+        int distinct() {
+            Arrays.sort(changed, 0, count);
+            int unique = 0;
+            for (int i = 0; i < count; i++) {
+                if (unique == 0 || changed[i] != changed[unique - 1]) {
+                    changed[unique++] = changed[i];
+                }
+            }
+            count = unique;
+            return unique;
+        }
+
+        // Clear collected changes before the next move
+        void reset() {
+            count = 0;
+            boardChanged = false;
+        }
+    }
+
+    // Constructor using the default keyframe interval
+    public ReplayPlayer(Replay replay) {
+        this(replay, DEFAULT_KEYFRAME_INTERVAL);
+    }
+
+    // Constructor - simulates the replay once and builds keyframes and deltas
+    public ReplayPlayer(Replay replay, int keyframeInterval) {
+        if (keyframeInterval <= 0) {
+            throw new IllegalArgumentException("Keyframe interval must be positive");
+        }
+        if ((long) replay.getRows() * replay.getCols() > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("Board too large to replay: " + replay.getRows() + "x" + replay.getCols());
+        }
+        this.replay = replay;
+        this.keyframeInterval = keyframeInterval;
+        this.keyframes = new ArrayList<>();
+        this.deltas = new ArrayList<>(replay.getMoveCount());
+        this.game = replay.createGame();
+        buildFrames();
+        game.clearHistory();  // The simulation's undo states are not needed for playback
+        this.position = 0;
+        loadKeyframe(keyframes.get(0));
+    }
+
+    // Run the recorded moves once on the playback game and store a delta per move plus keyframes
+    private void buildFrames() {
+        ChangeCollector collector = new ChangeCollector(replay.getCols());
+        game.addCellChangeListener(collector);
+
+        keyframes.add(captureKeyframe(game, 0));
+        int sinceKeyframe = 0;
+        long deltaBytes = 0;  // Delta memory since the last keyframe
+        long keyframeBytes = (long) replay.getRows() * replay.getCols();
+        List<Move> moves = replay.getMoves();
+        for (int i = 0; i < moves.size(); i++) {
+            collector.reset();
+            Replay.apply(game, moves.get(i));
+            Delta delta = captureDelta(game, collector);
+            deltas.add(delta);
+            sinceKeyframe++;
+            deltaBytes += delta.getBytes();
+
+            // Keyframe once the deltas since the last one weigh as much as a keyframe,
+            // and whenever the whole board changed (first move places mines)
+            if ((sinceKeyframe >= keyframeInterval && deltaBytes >= keyframeBytes) || collector.boardChanged) {
+                keyframes.add(captureKeyframe(game, i + 1));
+                sinceKeyframe = 0;
+                deltaBytes = 0;
+            }
+        }
+        game.removeCellChangeListener(collector);
+    }
+
+    // Pack the whole board of a game into a keyframe
+    private Keyframe captureKeyframe(MinesweeperGame source, int position) {
+        int rows = source.getRows();
+        int cols = source.getCols();
+        byte[] cells = new byte[(int) ((long) rows * cols)];
+        int index = 0;
+        for (int i = 0; i < rows; i++) {
+            for (int j = 0; j < cols; j++) {
+                cells[index++] = source.getPackedCell(i, j);
+            }
+        }
+        return new Keyframe(position, cells, source.getFlagsPlaced(), source.isGameOver(), source.isGameWon());
+    }
+
+    // Pack the cells changed by the last move into a delta
+    private Delta captureDelta(MinesweeperGame source, ChangeCollector collector) {
+        int cols = source.getCols();
+        int count = collector.distinct();
+        int[] indices = new int[count];
+        byte[] values = new byte[count];
+        for (int i = 0; i < count; i++) {
+            int index = collector.changed[i];
+            indices[i] = index;
+            values[i] = source.getPackedCell(index / cols, index % cols);
+        }
+        return new Delta(indices, values, source.getFlagsPlaced(), source.isGameOver(), source.isGameWon());
+    }
+
+    // Jump to the state after the given number of moves
+    public void seek(int target) {
+        if (target < 0 || target > deltas.size()) {
+            throw new IllegalArgumentException("Invalid replay position: " + target);
+        }
+
+        Keyframe keyframe = findKeyframe(target);
+        // Play forward from the current position if it is at least as close as the keyframe
+        if (target < position || keyframe.position > position) {
+            loadKeyframe(keyframe);
+        }
+        while (position < target) {
+            applyDelta(deltas.get(position));
+            position++;
+        }
+    }
+
+    // Find the last keyframe at or before a position (binary search)
+    private Keyframe findKeyframe(int target) {
+        int low = 0;
+        int high = keyframes.size() - 1;
+        while (low < high) {
+            int mid = (low + high + 1) >>> 1;
+            if (keyframes.get(mid).position <= target) {
+                low = mid;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return keyframes.get(low);
+    }
+
+    // Load a keyframe into the playback game
+    private void loadKeyframe(Keyframe keyframe) {
+        game.loadPackedState(keyframe.cells, keyframe.flagsPlaced, keyframe.gameOver, keyframe.gameWon);
+        position = keyframe.position;
+    }
+
+    // Apply a single delta to the playback game
+    private void applyDelta(Delta delta) {
+        int cols = game.getCols();
+        for (int i = 0; i < delta.indices.length; i++) {
+            int index = delta.indices[i];
+            game.loadPackedCell(index / cols, index % cols, delta.values[i]);
+        }
+        game.setStatus(delta.flagsPlaced, delta.gameOver, delta.gameWon);
+    }
+
+    // Step controls
+    public boolean stepForward() {
+        if (position >= deltas.size()) return false;
+        seek(position + 1);
+        return true;
+    }
+
+    public boolean stepBack() {
+        if (position <= 0) return false;
+        seek(position - 1);
+        return true;
+    }
+
+    // Getter methods
+    public MinesweeperGame getGame() { return game; }
+    public Replay getReplay() { return replay; }
+    public int getPosition() { return position; }
+    public int getLength() { return deltas.size(); }
+    public int getKeyframeCount() { return keyframes.size(); }
+
+    // The move that leads to the current position (null at the start)
+    public Move getLastMove() {
+        return position == 0 ? null : replay.getMoves().get(position - 1);
+    }
+}
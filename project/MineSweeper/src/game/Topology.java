@@ -0,0 +1,77 @@
+package game;
+
+// Which cells count as neighbors of a cell
+public enum Topology {
+    CLASSIC("Classic (8 neighbors)"),
+    TORUS("Torus (edges wrap around)"),
+    HEX("Hexagonal (6 neighbors)"),
+    KNIGHT("Knight moves (8 neighbors)");
+
+    // Row/column offsets for the rectangular topologies
+    private static final int[][] KING_OFFSETS = {
+            {-1, -1}, {-1, 0}, {-1, 1}, {0, -1}, {0, 1}, {1, -1}, {1, 0}, {1, 1}};
+    private static final int[][] KNIGHT_OFFSETS = {
+            {-2, -1}, {-2, 1}, {-1, -2}, {-1, 2}, {1, -2}, {1, 2}, {2, -1}, {2, 1}};
+    // Hex grid in "odd-r" layout: odd rows are shifted half a cell to the right
+    private static final int[][] HEX_EVEN_ROW_OFFSETS = {{-1, -1}, {-1, 0}, {0, -1}, {0, 1}, {1, -1}, {1, 0}};
+    private static final int[][] HEX_ODD_ROW_OFFSETS = {{-1, 0}, {-1, 1}, {0, -1}, {0, 1}, {1, 0}, {1, 1}};
+
+    private final String displayName;  // Name shown in the New Game dialog
+
+    Topology(String displayName) {
+        this.displayName = displayName;
+    }
+
+    // Offsets to try from a cell in the given row
+    int[][] getOffsets(int row) {
+        return switch (this) {
+            case CLASSIC, TORUS -> KING_OFFSETS;
+            case HEX -> (row & 1) == 0 ? HEX_EVEN_ROW_OFFSETS : HEX_ODD_ROW_OFFSETS;
+            case KNIGHT -> KNIGHT_OFFSETS;
+        };
+    }
+
+    // Write the flat indices of a cell's neighbors on a rows x cols board to out; returns how many
+    // Positions past an edge are skipped (or wrapped), and so are the duplicates tiny wrapped boards produce
+    int collectNeighbors(int rows, int cols, long index, long[] out) {
+        int row = (int) (index / cols);
+        int col = (int) (index % cols);
+        int count = 0;
+        for (int[] offset : getOffsets(row)) {
+            int r = row + offset[0];
+            int c = col + offset[1];
+            if (wraps()) {
+                r = Math.floorMod(r, rows);
+                c = Math.floorMod(c, cols);
+                long neighbor = (long) r * cols + c;
+                if (neighbor == index || contains(out, count, neighbor)) continue;
+                out[count++] = neighbor;
+            } else if (r >= 0 && r < rows && c >= 0 && c < cols) {
+                out[count++] = (long) r * cols + c;  // Distinct offsets never collide without wrapping
+            }
+        }
+        return count;
+    }
+
+    private static boolean contains(long[] values, int count, long value) {
+        for (int i = 0; i < count; i++) {
+            if (values[i] == value) return true;
+        }
+        return false;
+    }
+
+    // Most neighbors any cell can have
+    int getMaxDegree() {
+        return getOffsets(0).length;
+    }
+
+    // Whether positions past an edge wrap around to the opposite edge
+    boolean wraps() {
+        return this == TORUS;
+    }
+
+    @Override
+    public String toString() {
+        return displayName;
+    }
+}
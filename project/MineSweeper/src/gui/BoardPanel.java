@@ -0,0 +1,472 @@
+package gui;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.awt.event.MouseWheelEvent;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferByte;
+import java.awt.image.Raster;
+import java.awt.image.WritableRaster;
+import java.util.Arrays;
+import game.Cell;
+import game.CellChangeListener;
+import game.MinesweeperGame;
+import game.Topology;
+import utils.GameConstants;
+
+// The game grid, painted cell by cell from a sprite atlas instead of one JButton per cell
+// refresh() recomputes the faces of the cells the game reported as changed and repaints only those
+// whose face is different; painting blits faces for the cells inside the clip and allocates nothing.
+// Boards larger than the view zoom with the mouse wheel and pan by dragging. Zoomed in, cells are drawn
+// from an atlas rendered for the current cell size; zoomed out below GLYPH_MIN_PITCH pixels per cell,
+// the visible part of a minimap image (one pixel per cell, colored by face) is scaled onto the view.
+// The minimap wraps the faces array itself, so it is always up to date and costs no extra memory.
+// The atlas is rendered on first paint, so building the panel never waits for icons still decoding.
+// Hex boards are drawn with odd rows shifted half a cell to the right (odd-r layout; glyphs only).
+public class BoardPanel extends JComponent implements CellChangeListener {
+    private static final long serialVersionUID = 1L;
+    private static final int GAP = 1;     // Pixels between cells
+    private static final int MARGIN = 5;  // Empty border around the grid
+    private static final BasicStroke HINT_STROKE = new BasicStroke(3);
+
+    // Zoom and pan
+    private static final int DEFAULT_PITCH = GameConstants.CELL_SIZE + GAP;
+    private static final int GLYPH_MIN_PITCH = 10;  // Smallest cell pitch drawn with glyphs (pixels)
+    private static final int MAX_PITCH = 2 * DEFAULT_PITCH;
+    private static final double ZOOM_STEP = 1.25;   // Zoom factor per mouse wheel notch
+    private static final int DRAG_THRESHOLD = 4;    // Pixels the mouse must move before a press becomes a pan
+
+    // Mouse actions on a cell
+    public interface CellListener {
+        void onLeftClick(int row, int col);
+        void onRightClick(int row, int col);
+    }
+
+    private final MinesweeperGame game;
+    private final ImageLoader images;
+    private final CellListener listener;
+    private final int rows;
+    private final int cols;
+    private final boolean hexLayout;  // Shift odd rows by half a cell
+    private final byte[] faces;       // Face currently shown by each cell (row * cols + col)
+    private final BufferedImage minimap;  // faces as an image, one pixel per cell
+    private final Rectangle clip = new Rectangle();  // Reused by paintComponent
+
+    // View: cell pitch in pixels (whole pixels while drawing glyphs) and the board position
+    // (in cells) at the top-left corner of the grid area
+    private double pitch;
+    private double viewX;
+    private double viewY;
+    private boolean glyphs;     // Whether cells are drawn with glyphs (false while showing the minimap)
+    private SpriteAtlas atlas;  // Glyphs for the current pitch (null until painted, or while showing the minimap)
+
+    // Cells reported changed since the last refresh (duplicates are harmless; all cells once it overflows)
+    private final Object dirtyLock = new Object();
+    private int[] dirty = new int[64];
+    private int[] draining = new int[64];  // The list refresh() is working through (swapped with dirty)
+    private int dirtyCount;
+    private boolean allDirty = true;
+
+    // Loss overlay (all mines shown) and hint highlight, both cleared by refresh()
+    private boolean showingLoss;
+    private int hitRow = -1;
+    private int hitCol = -1;
+    private int hintRow = -1;
+    private int hintCol = -1;
+    private boolean hintSafe;
+
+    // Cell under the last left press (a click counts when released on the same cell, unless it panned)
+    private int pressedRow = -1;
+    private int pressedCol = -1;
+    private Point dragStart;     // Where the current press started (null when no button is down)
+    private double dragViewX;    // View position when it started
+    private double dragViewY;
+    private boolean dragging;
+
+    // Constructor - builds the grid for a game
+    public BoardPanel(MinesweeperGame game, ImageLoader images, CellListener listener) {
+        this.game = game;
+        this.images = images;
+        this.listener = listener;
+        this.rows = game.getRows();
+        this.cols = game.getCols();
+        this.hexLayout = game.getTopology() == Topology.HEX;
+        this.faces = new byte[rows * cols];
+        WritableRaster raster = Raster.createInterleavedRaster(new DataBufferByte(faces, faces.length),
+                cols, rows, cols, 1, new int[]{0}, null);
+        this.minimap = new BufferedImage(SpriteAtlas.createMinimapColors(), raster, false, null);
+        setPitch(DEFAULT_PITCH);
+        setOpaque(true);
+        setBackground(UIManager.getColor("Panel.background"));
+        setPreferredSize(new Dimension(
+                Math.min(GameConstants.MAX_VIEW_WIDTH, 2 * MARGIN + cols * DEFAULT_PITCH - GAP + (hexLayout ? DEFAULT_PITCH / 2 : 0)),
+                Math.min(GameConstants.MAX_VIEW_HEIGHT, 2 * MARGIN + rows * DEFAULT_PITCH - GAP)));
+        game.addCellChangeListener(this);
+        refresh();
+
+        MouseAdapter mouse = new MouseAdapter() {
+            @Override
+            public void mousePressed(MouseEvent e) {
+                dragStart = e.getPoint();
+                dragViewX = viewX;
+                dragViewY = viewY;
+                dragging = false;
+                int row = rowAt(e.getY());
+                int col = row < 0 ? -1 : colAt(row, e.getX());
+                if (col < 0 || showingLoss) return;  // Board is frozen while the loss is shown
+                if (SwingUtilities.isRightMouseButton(e)) {
+                    listener.onRightClick(row, col);
+                } else if (SwingUtilities.isLeftMouseButton(e)) {
+                    pressedRow = row;
+                    pressedCol = col;
+                }
+            }
+
+            @Override
+            public void mouseDragged(MouseEvent e) {
+                if (dragStart == null || SwingUtilities.isRightMouseButton(e)) return;
+                int dx = e.getX() - dragStart.x;
+                int dy = e.getY() - dragStart.y;
+                if (!dragging && Math.abs(dx) + Math.abs(dy) < DRAG_THRESHOLD) return;
+                dragging = true;
+                pressedRow = -1;  // A pan is not a click
+                setView(dragViewX - dx / pitch, dragViewY - dy / pitch);
+            }
+
+            @Override
+            public void mouseReleased(MouseEvent e) {
+                boolean panned = dragging;
+                dragStart = null;
+                dragging = false;
+                if (!SwingUtilities.isLeftMouseButton(e) || panned) return;
+                if (!glyphs) {
+                    zoom(e.getX(), e.getY(), DEFAULT_PITCH / pitch);  // Too small to play: zoom in
+                    return;
+                }
+                if (pressedRow < 0) return;
+                int row = rowAt(e.getY());
+                int col = row < 0 ? -1 : colAt(row, e.getX());
+                boolean sameCell = row == pressedRow && col == pressedCol;
+                pressedRow = -1;
+                pressedCol = -1;
+                if (sameCell && !showingLoss) {
+                    listener.onLeftClick(row, col);
+                }
+            }
+
+            @Override
+            public void mouseWheelMoved(MouseWheelEvent e) {
+                zoom(e.getX(), e.getY(), Math.pow(ZOOM_STEP, -e.getPreciseWheelRotation()));  // Wheel up zooms in
+            }
+        };
+        addMouseListener(mouse);
+        addMouseMotionListener(mouse);
+        addMouseWheelListener(mouse);
+    }
+
+    // Stop following the game (before the panel is thrown away)
+    public void detach() {
+        game.removeCellChangeListener(this);
+    }
+
+    @Override
+    public void onCellChanged(int row, int col) {
+        synchronized (dirtyLock) {
+            if (allDirty) return;
+            if (dirtyCount == dirty.length) {
+                if (dirty.length >= faces.length / 8) {
+                    allDirty = true;  // Rescanning is cheaper than a list this long
+                    return;
+                }
+                dirty = Arrays.copyOf(dirty, dirty.length * 2);
+            }
+            dirty[dirtyCount++] = row * cols + col;
+        }
+    }
+
+    @Override
+    public void onBoardChanged() {
+        synchronized (dirtyLock) {
+            allDirty = true;
+        }
+    }
+
+    // Bring every changed cell up to date with the game and repaint only those whose face changed
+    public void refresh() {
+        clearHint();
+        boolean wasShowingLoss = showingLoss;
+        showingLoss = false;
+        int[] changed;
+        int count;
+        boolean all;
+        synchronized (dirtyLock) {  // Swap lists: faces are read outside the lock, events keep arriving
+            all = allDirty || wasShowingLoss;  // The loss overlay may have changed any cell
+            changed = dirty;
+            count = dirtyCount;
+            dirty = draining;
+            draining = changed;
+            allDirty = false;
+            dirtyCount = 0;
+        }
+        if (all) {
+            updateAll();
+            return;
+        }
+        int minRow = rows;
+        int maxRow = -1;
+        int minCol = cols;
+        int maxCol = -1;
+        for (int i = 0; i < count; i++) {
+            int row = changed[i] / cols;
+            int col = changed[i] % cols;
+            if (updateFace(row, col)) {
+                minRow = Math.min(minRow, row);
+                maxRow = Math.max(maxRow, row);
+                minCol = Math.min(minCol, col);
+                maxCol = Math.max(maxCol, col);
+            }
+        }
+        repaintCells(minRow, minCol, maxRow, maxCol);
+    }
+
+    // Show every mine and wrong flag after a loss, marking the mine that was hit
+    public void showLoss(int hitRow, int hitCol) {
+        this.showingLoss = true;
+        this.hitRow = hitRow;
+        this.hitCol = hitCol;
+        updateAll();
+    }
+
+    // Recompute every face, repainting the area that changed
+    private void updateAll() {
+        int minRow = rows;
+        int maxRow = -1;
+        int minCol = cols;
+        int maxCol = -1;
+        for (int row = 0; row < rows; row++) {
+            for (int col = 0; col < cols; col++) {
+                if (updateFace(row, col)) {
+                    minRow = Math.min(minRow, row);
+                    maxRow = row;
+                    minCol = Math.min(minCol, col);
+                    maxCol = Math.max(maxCol, col);
+                }
+            }
+        }
+        repaintCells(minRow, minCol, maxRow, maxCol);
+    }
+
+    // Outline a hinted cell until the next refresh (green = safe, orange = lowest risk)
+    public void highlight(int row, int col, boolean safe) {
+        clearHint();
+        hintRow = row;
+        hintCol = col;
+        hintSafe = safe;
+        repaintCells(row, col, row, col);
+    }
+
+    private void clearHint() {
+        if (hintRow >= 0) {
+            int row = hintRow;
+            hintRow = -1;
+            repaintCells(row, hintCol, row, hintCol);
+        }
+    }
+
+    // Face a cell should show, from its packed state
+    private int faceOf(int row, int col) {
+        byte cell = game.getPackedCell(row, col);
+        boolean mine = (cell & Cell.MINE_BIT) != 0;
+        boolean flagged = (cell & Cell.FLAGGED_BIT) != 0;
+
+        if (showingLoss) {
+            if (row == hitRow && col == hitCol) return SpriteAtlas.HIT_MINE;
+            if (mine && !flagged && (cell & Cell.REVEALED_BIT) == 0) return SpriteAtlas.LOST_MINE;
+            if (!mine && flagged) return SpriteAtlas.WRONG_FLAG;
+        }
+        if ((cell & Cell.REVEALED_BIT) != 0) {
+            return mine ? SpriteAtlas.MINE : SpriteAtlas.numberFace(Cell.adjacentMines(cell));
+        }
+        return flagged ? SpriteAtlas.FLAG : SpriteAtlas.COVERED;
+    }
+
+    // Store a cell's current face; true if it changed
+    private boolean updateFace(int row, int col) {
+        int index = row * cols + col;
+        byte face = (byte) faceOf(row, col);
+        if (faces[index] == face) return false;
+        faces[index] = face;
+        return true;
+    }
+
+    // Zoom by a factor keeping the board point under (x, y) in place
+    // Glyph pitches are rounded to whole pixels (each size has its own atlas, rendered once)
+    public void zoom(int x, int y, double factor) {
+        double fit = Math.min((viewWidth() - 2.0 * MARGIN) / (cols + (hexLayout ? 0.5 : 0)),
+                (viewHeight() - 2.0 * MARGIN) / rows);  // Pitch showing the whole board
+        double minPitch = Math.min(DEFAULT_PITCH, fit >= GLYPH_MIN_PITCH ? Math.ceil(fit) : fit);
+        double target = Math.max(minPitch, Math.min(MAX_PITCH, pitch * factor));
+        if (target >= GLYPH_MIN_PITCH) {
+            target = Math.round(target);
+            if (target == pitch && factor != 1) target += factor > 1 ? 1 : -1;  // Small steps still move
+            target = Math.max(minPitch, Math.min(MAX_PITCH, target));
+        }
+        if (target == pitch) return;
+        double boardX = viewX + (x - MARGIN) / pitch;
+        double boardY = viewY + (y - MARGIN) / pitch;
+        setPitch(target);
+        setView(boardX - (x - MARGIN) / target, boardY - (y - MARGIN) / target);
+        repaint();
+    }
+
+    // Move the view by a number of pixels
+    public void pan(int dx, int dy) {
+        setView(viewX + dx / pitch, viewY + dy / pitch);
+    }
+
+    public double getPitch() { return pitch; }
+
+    private void setPitch(double newPitch) {
+        pitch = newPitch;
+        glyphs = newPitch >= GLYPH_MIN_PITCH;
+        atlas = null;  // Fetched (or rendered) by the next paint
+    }
+
+    // Move the view, keeping the board inside it where it is larger than the view
+    private void setView(double x, double y) {
+        double maxX = cols + (hexLayout ? 0.5 : 0) - (viewWidth() - 2.0 * MARGIN) / pitch;
+        double maxY = rows - (viewHeight() - 2.0 * MARGIN) / pitch;
+        x = Math.max(0, Math.min(maxX, x));
+        y = Math.max(0, Math.min(maxY, y));
+        if (x != viewX || y != viewY) {
+            viewX = x;
+            viewY = y;
+            repaint();
+        }
+    }
+
+    private int viewWidth() {
+        return getWidth() > 0 ? getWidth() : getPreferredSize().width;
+    }
+
+    private int viewHeight() {
+        return getHeight() > 0 ? getHeight() : getPreferredSize().height;
+    }
+
+    @Override
+    protected void paintComponent(Graphics g) {
+        g.getClipBounds(clip);
+        g.setColor(getBackground());
+        g.fillRect(clip.x, clip.y, clip.width, clip.height);
+        if (glyphs) {
+            paintGlyphs(g);
+        } else {
+            paintMinimap(g);
+        }
+
+        if (hintRow >= 0) {
+            Graphics2D g2 = (Graphics2D) g;
+            g2.setStroke(HINT_STROKE);
+            g2.setColor(hintSafe ? GameConstants.SAFE_HINT_COLOR : GameConstants.RISKY_HINT_COLOR);
+            int size = Math.max(6, (int) pitch - GAP - 3);
+            int inset = ((int) pitch - GAP - size) / 2;
+            g2.drawRect(cellX(hintRow, hintCol) + inset, cellY(hintRow) + inset, size, size);
+        }
+    }
+
+    // Only the rows and columns that intersect the clip, one atlas blit each
+    private void paintGlyphs(Graphics g) {
+        if (atlas == null) {
+            atlas = SpriteAtlas.forSize((int) pitch - GAP, images);
+        }
+        int step = (int) pitch;
+        int originX = originX();
+        int originY = originY();
+        int shift = hexLayout ? step / 2 : 0;
+        int firstRow = Math.max(0, Math.floorDiv(clip.y - originY, step));
+        int lastRow = Math.min(rows - 1, Math.floorDiv(clip.y + clip.height - originY, step));
+        int firstCol = Math.max(0, Math.floorDiv(clip.x - originX - shift, step));
+        int lastCol = Math.min(cols - 1, Math.floorDiv(clip.x + clip.width - originX, step));
+        for (int row = firstRow; row <= lastRow; row++) {
+            int y = originY + row * step;
+            for (int col = firstCol; col <= lastCol; col++) {
+                atlas.draw(g, faces[row * cols + col], cellX(row, col), y);
+            }
+        }
+    }
+
+    // Scale the visible cells of the minimap onto the clip (nearest neighbor: every pixel shows one cell)
+    private void paintMinimap(Graphics g) {
+        int firstRow = Math.max(0, (int) Math.floor(viewY + (clip.y - MARGIN) / pitch));
+        int endRow = Math.min(rows, (int) Math.ceil(viewY + (clip.y + clip.height - MARGIN) / pitch));
+        int firstCol = Math.max(0, (int) Math.floor(viewX + (clip.x - MARGIN) / pitch));
+        int endCol = Math.min(cols, (int) Math.ceil(viewX + (clip.x + clip.width - MARGIN) / pitch));
+        if (firstRow >= endRow || firstCol >= endCol) return;
+        ((Graphics2D) g).setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_NEAREST_NEIGHBOR);
+        g.drawImage(minimap, screenX(firstCol), screenY(firstRow), screenX(endCol), screenY(endRow),
+                firstCol, firstRow, endCol, endRow, null);
+    }
+
+    // Ask Swing to repaint the rectangle covering a block of cells (merged with other dirty areas before painting)
+    private void repaintCells(int minRow, int minCol, int maxRow, int maxCol) {
+        if (maxRow < minRow) return;
+        int extra = glyphs && hexLayout ? (int) pitch / 2 : 0;
+        int x = screenX(minCol);
+        int y = screenY(minRow);
+        int right = Math.min(viewWidth(), screenX(maxCol + 1) + extra + 1);
+        int bottom = Math.min(viewHeight(), screenY(maxRow + 1) + 1);
+        x = Math.max(0, x - (glyphs ? 0 : 4));  // Room for a hint outline around a tiny cell
+        y = Math.max(0, y - (glyphs ? 0 : 4));
+        if (right > x && bottom > y) {
+            repaint(x, y, right - x + 4, bottom - y + 4);
+        }
+    }
+
+    // Pixel position of a cell's top-left corner
+    private int cellX(int row, int col) {
+        if (!glyphs) return screenX(col);
+        return originX() + col * (int) pitch + (hexLayout && (row & 1) == 1 ? (int) pitch / 2 : 0);
+    }
+
+    private int cellY(int row) {
+        return screenY(row);
+    }
+
+    // Pixel position of a column's or row's left or top edge (without the hex shift)
+    private int screenX(int col) {
+        return glyphs ? originX() + col * (int) pitch : (int) Math.floor(MARGIN + (col - viewX) * pitch);
+    }
+
+    private int screenY(int row) {
+        return glyphs ? originY() + row * (int) pitch : (int) Math.floor(MARGIN + (row - viewY) * pitch);
+    }
+
+    // Where cell (0, 0) is drawn while drawing glyphs (the view snapped to whole pixels)
+    private int originX() {
+        return MARGIN - (int) Math.round(viewX * pitch);
+    }
+
+    private int originY() {
+        return MARGIN - (int) Math.round(viewY * pitch);
+    }
+
+    // Cell under a pixel position (-1 outside the grid or in a gap; clicks need glyphs on screen)
+    private int rowAt(int y) {
+        if (!glyphs) return -1;
+        int step = (int) pitch;
+        int offset = y - originY();
+        if (offset < 0 || offset % step >= step - GAP) return -1;
+        int row = offset / step;
+        return row < rows ? row : -1;
+    }
+
+    private int colAt(int row, int x) {
+        int step = (int) pitch;
+        int offset = x - originX() - (hexLayout && (row & 1) == 1 ? step / 2 : 0);
+        if (offset < 0 || offset % step >= step - GAP) return -1;
+        int col = offset / step;
+        return col < cols ? col : -1;
+    }
+}
@@ -5,34 +5,40 @@ import java.awt.*;
 import java.awt.image.BufferedImage;
 import java.io.File;
 import java.net.URL;
+import java.util.concurrent.CompletableFuture;
+import utils.GameConstants;
 
 public class ImageLoader {
     // Paths to look for images (in order of priority)
-    private static final String USER_ABSOLUTE_PATH = "E:/study/sem 1 nam 3/dsa/project/project/MineSweeper/images/";
     private static final String IMAGE_FOLDER = "images/";
 
+    // Icons shared by every ImageLoader: each file is decoded and scaled once, on a background thread
+    private static CompletableFuture<ImageIcon> flagFuture;
+    private static CompletableFuture<ImageIcon> bombFuture;
+
     // Image icons for game elements
     private ImageIcon flagIcon;     // Icon for flagged cells
     private ImageIcon mineIcon;     // Icon for mines
     private ImageIcon hitMineIcon;  // Icon for the mine that was clicked (game over)
 
-    // Constructor - loads all icons when ImageLoader is created
+    // Constructor - starts loading icons in the background if nobody has yet
     public ImageLoader() {
-        loadIcons();
+        preload();
     }
 
-    // Load all required icons
-    private void loadIcons() {
-        flagIcon = createScaledIcon("flag.png", 24);
-        mineIcon = createScaledIcon("bomb.png", 24);
-        hitMineIcon = createScaledIcon("bomb.png", 24);
+    // Start decoding and scaling the icons in the background (safe to call more than once)
+    // Main calls this before the first window is built so the work overlaps with GUI setup
+    public static synchronized void preload() {
+        if (flagFuture == null) {
+            flagFuture = CompletableFuture.supplyAsync(() -> createScaledIcon("flag.png", GameConstants.ICON_SIZE));
+            bombFuture = CompletableFuture.supplyAsync(() -> createScaledIcon("bomb.png", GameConstants.ICON_SIZE));
+        }
     }
 
     // Create a scaled icon from an image file
-    private ImageIcon createScaledIcon(String filename, int size) {
+    private static ImageIcon createScaledIcon(String filename, int size) {
         // Try different paths in order
         String[] paths = {
-                USER_ABSOLUTE_PATH + filename,   // Absolute path first
                 IMAGE_FOLDER + filename,         // Relative path in project folder
                 "/" + IMAGE_FOLDER + filename    // Resource path (in JAR file)
         };
@@ -41,7 +47,7 @@ public class ImageLoader {
         for (String path : paths) {
             Image image = loadImage(path);
             if (image != null) {
-                // Scale image to desired size
+                // Scale image to desired size (ImageIcon waits for the scaled image, so this stays off the EDT)
                 Image scaled = image.getScaledInstance(size, size, Image.SCALE_SMOOTH);
                 return new ImageIcon(scaled);
             }
@@ -52,11 +58,11 @@ public class ImageLoader {
     }
 
     // Load an image from a path (file system or resource)
-    private Image loadImage(String path) {
+    private static Image loadImage(String path) {
         try {
             if (path.startsWith("/")) {
                 // Load from resources (inside JAR file)
-                URL resource = getClass().getResource(path);
+                URL resource = ImageLoader.class.getResource(path);
                 return resource != null ? javax.imageio.ImageIO.read(resource) : null;
             } else {
                 // Load from file system
@@ -69,14 +75,14 @@ public class ImageLoader {
     }
 
     // Determine what color to use for fallback icons based on filename
-    private Color getColorForFilename(String filename) {
+    private static Color getColorForFilename(String filename) {
         if (filename.contains("flag")) return Color.BLUE;    // Flags are blue
         if (filename.contains("bomb") || filename.contains("mine")) return Color.BLACK;  // Mines are black
         return Color.GRAY;  // Default color
     }
 
     // Create a simple colored circle as a fallback when images aren't found
-    private ImageIcon createFallbackIcon(int size, Color color) {
+    private static ImageIcon createFallbackIcon(int size, Color color) {
         BufferedImage image = new BufferedImage(size, size, BufferedImage.TYPE_INT_ARGB);
         Graphics2D g2d = image.createGraphics();
         g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
@@ -88,16 +94,38 @@ public class ImageLoader {
         return new ImageIcon(image);
     }
 
+    // Wait for a background icon (only blocks if it is needed before loading finished)
+    private static ImageIcon await(CompletableFuture<ImageIcon> future) {
+        try {
+            return future.join();
+        } catch (Exception e) {
+            return null;  // Loading failed, getters fall back to a colored circle
+        }
+    }
+
     // Getter methods for icons (with fallback creation if needed)
     public ImageIcon getFlagIcon() {
-        return flagIcon != null ? flagIcon : createFallbackIcon(24, Color.BLUE);
+        if (flagIcon == null) {
+            ImageIcon icon = await(flagFuture);
+            flagIcon = icon != null ? icon : createFallbackIcon(GameConstants.ICON_SIZE, Color.BLUE);
+        }
+        return flagIcon;
     }
 
     public ImageIcon getMineIcon() {
-        return mineIcon != null ? mineIcon : createFallbackIcon(24, Color.BLACK);
+        if (mineIcon == null) {
+            ImageIcon icon = await(bombFuture);
+            mineIcon = icon != null ? icon : createFallbackIcon(GameConstants.ICON_SIZE, Color.BLACK);
+        }
+        return mineIcon;
     }
 
     public ImageIcon getHitMineIcon() {
-        return hitMineIcon != null ? hitMineIcon : createFallbackIcon(24, Color.RED);
+        if (hitMineIcon == null) {
+            // Same decoded bomb image as the mine icon (the hit mine is marked by its background)
+            ImageIcon icon = await(bombFuture);
+            hitMineIcon = icon != null ? icon : createFallbackIcon(GameConstants.ICON_SIZE, Color.RED);
+        }
+        return hitMineIcon;
     }
-}
\ No newline at end of file
+}
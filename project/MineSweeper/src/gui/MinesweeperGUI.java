@@ -4,7 +4,6 @@ import javax.swing.*;
 import java.awt.*;
 import java.awt.event.*;
 import game.MinesweeperGame;
-import game.Cell;
 import utils.GameConstants;
 
 public class MinesweeperGUI extends JFrame {
@@ -12,10 +11,11 @@ public class MinesweeperGUI extends JFrame {
     private MinesweeperGame game;
 
     // UI components
-    private JButton[][] buttons;      // Grid of buttons representing cells
+    private BoardPanel boardPanel;    // Painted grid of cells
     private JLabel statusLabel;       // Label for game status messages
     private JLabel flagsLabel;        // Label showing flag count
-    private JPanel boardPanel;        // Panel containing the game board
+    private JToggleButton autoPlayButton;  // Shows whether auto-play is on
+    private int shownFlags = -1;      // Flag count currently in flagsLabel (text is rebuilt only on change)
     private Timer messageTimer;       // Timer for temporary status messages
     private ImageLoader imageLoader;  // Loads and manages game icons
 
@@ -24,11 +24,19 @@ public class MinesweeperGUI extends JFrame {
         void onCellRevealed(int row, int col);  // Called when a cell is left-clicked
         void onCellFlagged(int row, int col);   // Called when a cell is right-clicked
         void onUndo();                          // Called when undo is requested
+        void onRedo();                          // Called when redo is requested
         void onNewGame();                       // Called when new game is requested
+        void onReplay();                        // Called when a replay of the current game is requested
+        void onHint();                          // Called when a hint is requested
+        void onShare();                         // Called when the board's code is requested
+        void onAutoPlay();                      // Called when auto-play is toggled
     }
 
     private GameEventListener gameEventListener;  // Listener for game events
 
+    // Font of the status label (cell numbers are pre-rendered into the sprite atlas)
+    private static final Font STATUS_FONT = new Font("Arial", Font.BOLD, 14);
+
     // Constructor - sets up the GUI
     public MinesweeperGUI(MinesweeperGame game) {
         this.game = game;
@@ -75,7 +83,7 @@ public class MinesweeperGUI extends JFrame {
         // Status Panel (top line - shows game messages)
         JPanel statusLinePanel = new JPanel(new FlowLayout(FlowLayout.CENTER));
         statusLabel = new JLabel("Click to start!");
-        statusLabel.setFont(new Font("Arial", Font.BOLD, 14));
+        statusLabel.setFont(STATUS_FONT);
         statusLinePanel.add(statusLabel);
         northPanel.add(statusLinePanel);
 
@@ -86,11 +94,21 @@ public class MinesweeperGUI extends JFrame {
 
         JButton newGameButton = new JButton("New Game");
         JButton undoButton = new JButton("Undo");
+        JButton redoButton = new JButton("Redo");
+        JButton hintButton = new JButton("Hint");
+        JButton replayButton = new JButton("Replay");
+        JButton shareButton = new JButton("Share");
+        autoPlayButton = new JToggleButton("Auto-play");
 
         controlInfoLinePanel.add(flagsLabel);
         controlInfoLinePanel.add(Box.createHorizontalStrut(15));  // Spacer
         controlInfoLinePanel.add(newGameButton);
         controlInfoLinePanel.add(undoButton);
+        controlInfoLinePanel.add(redoButton);
+        controlInfoLinePanel.add(hintButton);
+        controlInfoLinePanel.add(replayButton);
+        controlInfoLinePanel.add(shareButton);
+        controlInfoLinePanel.add(autoPlayButton);
 
         // Button actions
         newGameButton.addActionListener(e -> {
@@ -105,60 +123,63 @@ public class MinesweeperGUI extends JFrame {
             }
         });
 
-        northPanel.add(controlInfoLinePanel);
+        redoButton.addActionListener(e -> {
+            if (gameEventListener != null) {
+                gameEventListener.onRedo();  // Request redo
+            }
+        });
 
-        return northPanel;
-    }
+        hintButton.addActionListener(e -> {
+            if (gameEventListener != null) {
+                gameEventListener.onHint();  // Request hint
+            }
+        });
 
-    // Set up the game board panel with grid of buttons
-    private void setupBoardPanel() {
-        boardPanel = new JPanel();
-        int rows = game.getRows();
-        int cols = game.getCols();
-        boardPanel.setLayout(new GridLayout(rows, cols, 1, 1));  // Grid with 1px gaps
-        boardPanel.setBorder(BorderFactory.createEmptyBorder(5, 5, 5, 5));
-        buttons = new JButton[rows][cols];
-
-        // Create a button for each cell
-        for (int i = 0; i < rows; i++) {
-            for (int j = 0; j < cols; j++) {
-                buttons[i][j] = createCellButton(i, j);
-                boardPanel.add(buttons[i][j]);
+        replayButton.addActionListener(e -> {
+            if (gameEventListener != null) {
+                gameEventListener.onReplay();  // Request replay of this game
             }
-        }
+        });
 
-        add(boardPanel, BorderLayout.CENTER);
-    }
+        shareButton.addActionListener(e -> {
+            if (gameEventListener != null) {
+                gameEventListener.onShare();  // Request a code for this board
+            }
+        });
 
-    // Create a button for a specific cell
-    private JButton createCellButton(int row, int col) {
-        JButton button = new JButton();
-        button.setPreferredSize(new Dimension(GameConstants.CELL_SIZE, GameConstants.CELL_SIZE));
-        button.setFont(new Font("Arial", Font.BOLD, 14));
-        button.setFocusPainted(false);  // Don't show focus border
-        button.setMargin(new Insets(0, 0, 0, 0));
-        button.setBorder(BorderFactory.createRaisedBevelBorder());  // 3D raised look
-
-        // Left click - reveal cell
-        button.addActionListener(e -> {
+        autoPlayButton.addActionListener(e -> {
             if (gameEventListener != null) {
-                clearStatusMessage();
-                gameEventListener.onCellRevealed(row, col);
+                gameEventListener.onAutoPlay();  // Start or stop playing certain moves
+            } else {
+                autoPlayButton.setSelected(false);  // Nothing to play (e.g. replay windows)
             }
         });
 
-        // Right click - toggle flag
-        button.addMouseListener(new MouseAdapter() {
+        northPanel.add(controlInfoLinePanel);
+
+        return northPanel;
+    }
+
+    // Set up the game board panel (cells are painted from a sprite atlas)
+    private void setupBoardPanel() {
+        boardPanel = new BoardPanel(game, imageLoader, new BoardPanel.CellListener() {
             @Override
-            public void mousePressed(MouseEvent e) {
-                if (SwingUtilities.isRightMouseButton(e) && gameEventListener != null) {
+            public void onLeftClick(int row, int col) {
+                if (gameEventListener != null) {
                     clearStatusMessage();
-                    gameEventListener.onCellFlagged(row, col);
+                    gameEventListener.onCellRevealed(row, col);  // Left click - reveal cell
                 }
             }
-        });
 
-        return button;
+            @Override
+            public void onRightClick(int row, int col) {
+                if (gameEventListener != null) {
+                    clearStatusMessage();
+                    gameEventListener.onCellFlagged(row, col);  // Right click - toggle flag
+                }
+            }
+        });
+        add(boardPanel, BorderLayout.CENTER);
     }
 
     // Set up keyboard shortcuts (hotkeys)
@@ -168,8 +189,16 @@ public class MinesweeperGUI extends JFrame {
 
         // Ctrl+Z for undo
         inputMap.put(KeyStroke.getKeyStroke(KeyEvent.VK_Z, InputEvent.CTRL_DOWN_MASK), "undo");
+        // Ctrl+Y for redo
+        inputMap.put(KeyStroke.getKeyStroke(KeyEvent.VK_Y, InputEvent.CTRL_DOWN_MASK), "redo");
         // Ctrl+N for new game
         inputMap.put(KeyStroke.getKeyStroke(KeyEvent.VK_N, InputEvent.CTRL_DOWN_MASK), "newGame");
+        // Ctrl+H for hint
+        inputMap.put(KeyStroke.getKeyStroke(KeyEvent.VK_H, InputEvent.CTRL_DOWN_MASK), "hint");
+        // Ctrl+R for replay
+        inputMap.put(KeyStroke.getKeyStroke(KeyEvent.VK_R, InputEvent.CTRL_DOWN_MASK), "replay");
+        // Ctrl+P for auto-play
+        inputMap.put(KeyStroke.getKeyStroke(KeyEvent.VK_P, InputEvent.CTRL_DOWN_MASK), "autoPlay");
 
         // Define actions for keyboard shortcuts
         actionMap.put("undo", new AbstractAction() {
@@ -179,59 +208,62 @@ public class MinesweeperGUI extends JFrame {
             }
         });
 
+        actionMap.put("redo", new AbstractAction() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                if (gameEventListener != null) gameEventListener.onRedo();
+            }
+        });
+
         actionMap.put("newGame", new AbstractAction() {
             @Override
             public void actionPerformed(ActionEvent e) {
                 if (gameEventListener != null) gameEventListener.onNewGame();
             }
         });
-    }
 
-    // Update the entire display to reflect current game state
-    public void updateDisplay() {
-        // Update each cell button
-        for (int i = 0; i < game.getRows(); i++) {
-            for (int j = 0; j < game.getCols(); j++) {
-                updateCellDisplay(i, j);
+        actionMap.put("hint", new AbstractAction() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                if (gameEventListener != null) gameEventListener.onHint();
             }
-        }
-        // Update flags counter
-        flagsLabel.setText("Flags: " + game.getFlagsPlaced() + "/" + game.getTotalMines());
-    }
+        });
 
-    // Update the display of a single cell
-    private void updateCellDisplay(int row, int col) {
-        JButton button = buttons[row][col];
-        Cell cell = game.getCell(row, col);
-
-        button.setText("");
-        button.setIcon(null);
-        button.setForeground(Color.BLACK);
-
-        if (cell.isRevealed()) {
-            //button.setEnabled(false);  // Disable revealed cells
-            button.setBackground(GameConstants.REVEALED_COLOR);
-            button.setBorder(BorderFactory.createLoweredBevelBorder());  // 3D sunken look
-
-            if (cell.isMine()) {
-                button.setIcon(imageLoader.getMineIcon());  // Show mine icon
-                button.setBackground(Color.RED);  // Red background for mine
-            } else if (cell.getAdjacentMines() > 0) {
-                // Show number of adjacent mines with appropriate color
-                button.setText(String.valueOf(cell.getAdjacentMines()));
-                button.setForeground(GameConstants.getNumberColor(cell.getAdjacentMines()));
+        actionMap.put("replay", new AbstractAction() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                if (gameEventListener != null) gameEventListener.onReplay();
             }
-        } else {
-            button.setEnabled(true);  // Enable covered cells
-            button.setBackground(GameConstants.COVERED_COLOR);
-            button.setBorder(BorderFactory.createRaisedBevelBorder());  // 3D raised look
+        });
 
-            if (cell.isFlagged()) {
-                button.setIcon(imageLoader.getFlagIcon());  // Show flag icon
+        actionMap.put("autoPlay", new AbstractAction() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                if (gameEventListener != null) gameEventListener.onAutoPlay();
             }
+        });
+    }
+
+    // Update the display to reflect current game state (only cells that changed are repainted)
+    public void updateDisplay() {
+        boardPanel.refresh();
+        // Update flags counter
+        if (game.getFlagsPlaced() != shownFlags) {
+            shownFlags = game.getFlagsPlaced();
+            flagsLabel.setText("Flags: " + shownFlags + "/" + game.getTotalMines());
         }
     }
 
+    // Show whether auto-play is running (it stops by itself when no certain move is left)
+    public void setAutoPlaying(boolean playing) {
+        autoPlayButton.setSelected(playing);
+    }
+
+    // Highlight a hinted cell until the next display update (green = safe, orange = lowest risk)
+    public void highlightCell(int row, int col, boolean safe) {
+        boardPanel.highlight(row, col, safe);
+    }
+
     // Show game over message and reveal the board
     public void showGameOver(boolean won, int hitRow, int hitCol) {
         if (messageTimer.isRunning()) {
@@ -240,37 +272,11 @@ public class MinesweeperGUI extends JFrame {
 
         if (won) {
             statusLabel.setText(" Congratulations! You won!");
-            statusLabel.setForeground(new Color(0, 128, 0));  // Green for win
+            statusLabel.setForeground(GameConstants.WIN_COLOR);  // Green for win
         } else {
             statusLabel.setText(" Game Over! You hit a mine!");
             statusLabel.setForeground(Color.RED);  // Red for loss
-            revealAllMines(hitRow, hitCol);  // Show all mines on loss
-        }
-    }
-
-    // Reveal all mines when game is lost
-    private void revealAllMines(int hitRow, int hitCol) {
-        for (int i = 0; i < game.getRows(); i++) {
-            for (int j = 0; j < game.getCols(); j++) {
-                Cell cell = game.getCell(i, j);
-                JButton button = buttons[i][j];
-                button.setEnabled(false);  // Disable all buttons
-
-                // Highlight the mine that was clicked
-                if (i == hitRow && j == hitCol) {
-                    button.setIcon(imageLoader.getHitMineIcon());
-                    button.setBackground(Color.RED);
-                    button.setBorder(BorderFactory.createLineBorder(Color.BLACK, 2));
-                } else if (cell.isMine() && !cell.isFlagged()) {
-                    // Show unflagged mines
-                    button.setIcon(imageLoader.getMineIcon());
-                    button.setBackground(new Color(255, 200, 200));  // Light red
-                } else if (!cell.isMine() && cell.isFlagged()) {
-                    // Show incorrect flags (flags on non-mines)
-                    button.setIcon(imageLoader.getFlagIcon());
-                    button.setBackground(Color.PINK);  // Pink for incorrect flags
-                }
-            }
+            boardPanel.showLoss(hitRow, hitCol);  // Show all mines on loss
         }
     }
 
@@ -281,7 +287,7 @@ public class MinesweeperGUI extends JFrame {
         }
 
         this.game = newGame;  // Replace game model
-        remove(boardPanel);   //
+        boardPanel.detach();  // Old panel stops following its game
         remove(boardPanel);   // Remove old board panel from the frame
 
         setupBoardPanel();    // Create new board panel with new dimensions
@@ -292,11 +298,25 @@ public class MinesweeperGUI extends JFrame {
         statusLabel.setText("Click to start!");
         statusLabel.setForeground(Color.BLACK);
         flagsLabel.setText("Flags: 0/" + game.getTotalMines());
+        shownFlags = 0;
 
         pack();                 // Resize window to fit new board
         setLocationRelativeTo(null);  // Center window on screen
     }
 
+    // Stop showing the current game so it can be closed before the next one is built (see resetGame)
+    public void releaseGame() {
+        boardPanel.detach();  // Panel stops following its game
+        remove(boardPanel);   // and is never painted again
+        repaint();
+    }
+
+    // Add a panel of extra controls below the board (used for replay playback)
+    public void addControlPanel(JComponent panel) {
+        add(panel, BorderLayout.SOUTH);
+        pack();
+    }
+
     // Show a temporary message in the status bar
     public void showMessage(String message) {
         if (messageTimer.isRunning()) {
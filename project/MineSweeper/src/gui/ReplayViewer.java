@@ -0,0 +1,133 @@
+package gui;
+
+import javax.swing.*;
+import java.awt.*;
+import game.MinesweeperGame;
+import game.Move;
+import game.Replay;
+import game.ReplayPlayer;
+
+public class ReplayViewer extends JPanel {
+    private static final long serialVersionUID = 1L;
+    private static final int PLAY_DELAY_MS = 300;  // Delay between moves during playback
+
+    // Playback model and view
+    private final ReplayPlayer player;    // Seekable replay of the recorded game
+    private final MinesweeperGUI gui;     // Board window showing the playback game
+
+    // UI components
+    private final JSlider slider;         // Seek bar over all moves
+    private final JLabel positionLabel;   // Shows "Move x / n"
+    private final JButton playButton;     // Toggles automatic playback
+    private final Timer playTimer;        // Steps forward while playing
+    private boolean updatingSlider;       // Ignore slider events caused by our own updates
+
+    // Constructor - builds the playback window for a recorded game
+    public ReplayViewer(Replay replay) {
+        this.player = new ReplayPlayer(replay);
+        this.gui = new MinesweeperGUI(player.getGame());  // No event listener: board clicks are ignored
+        gui.setTitle("Minesweeper Replay");
+        gui.setDefaultCloseOperation(JFrame.DISPOSE_ON_CLOSE);
+
+        setLayout(new FlowLayout(FlowLayout.CENTER, 5, 5));
+
+        JButton startButton = new JButton("|<");
+        JButton backButton = new JButton("<");
+        playButton = new JButton("Play");
+        JButton forwardButton = new JButton(">");
+        JButton endButton = new JButton(">|");
+        slider = new JSlider(0, player.getLength(), 0);
+        positionLabel = new JLabel();
+
+        add(startButton);
+        add(backButton);
+        add(playButton);
+        add(forwardButton);
+        add(endButton);
+        add(slider);
+        add(positionLabel);
+
+        // Timer that advances one move per tick while playing
+        playTimer = new Timer(PLAY_DELAY_MS, e -> {
+            if (!player.stepForward()) {
+                stopPlayback();
+            }
+            refresh();
+        });
+
+        // Button actions
+        startButton.addActionListener(e -> seek(0));
+        backButton.addActionListener(e -> seek(player.getPosition() - 1));
+        forwardButton.addActionListener(e -> seek(player.getPosition() + 1));
+        endButton.addActionListener(e -> seek(player.getLength()));
+        playButton.addActionListener(e -> {
+            if (playTimer.isRunning()) {
+                stopPlayback();
+            } else {
+                if (player.getPosition() == player.getLength()) {
+                    player.seek(0);  // Restart from the beginning when at the end
+                }
+                playTimer.start();
+                playButton.setText("Pause");
+            }
+        });
+        slider.addChangeListener(e -> {
+            if (!updatingSlider) {
+                seek(slider.getValue());
+            }
+        });
+
+        gui.addControlPanel(this);
+        refresh();
+    }
+
+    // Show the playback window
+    public void open() {
+        gui.setVisible(true);
+    }
+
+    // Jump to a position (clamped to the replay length)
+    private void seek(int target) {
+        stopPlayback();
+        player.seek(Math.max(0, Math.min(target, player.getLength())));
+        refresh();
+    }
+
+    // Stop automatic playback
+    private void stopPlayback() {
+        playTimer.stop();
+        playButton.setText("Play");
+    }
+
+    // Update the board, slider and labels to match the current position
+    private void refresh() {
+        gui.updateDisplay();
+
+        updatingSlider = true;
+        slider.setValue(player.getPosition());
+        updatingSlider = false;
+        positionLabel.setText("Move " + player.getPosition() + " / " + player.getLength());
+
+        Move lastMove = player.getLastMove();
+        if (player.getGame().isGameOver()) {
+            boolean won = player.getGame().isGameWon();
+            int[] hit = won ? new int[]{-1, -1} : findRevealedMine();
+            gui.showGameOver(won, hit[0], hit[1]);
+        } else if (lastMove != null) {
+            gui.showMessage(lastMove.toString());
+        }
+    }
+
+    // Find the mine that ended the game (the only revealed mine on a lost board)
+    private int[] findRevealedMine() {
+        MinesweeperGame game = player.getGame();
+        for (int i = 0; i < game.getRows(); i++) {
+            for (int j = 0; j < game.getCols(); j++) {
+                if (game.getCell(i, j).isMine() && game.getCell(i, j).isRevealed()) {
+                    return new int[]{i, j};
+                }
+            }
+        }
+        return new int[]{-1, -1};
+    }
+}
@@ -0,0 +1,137 @@
+package gui;
+
+import javax.swing.*;
+import javax.swing.border.BevelBorder;
+import javax.swing.border.Border;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.awt.image.IndexColorModel;
+import java.util.HashMap;
+import java.util.Map;
+import utils.GameConstants;
+
+// Every face a cell can show, pre-rendered once per cell size into a single image strip
+// Painting a cell is then one drawImage from the strip: no borders, colors, strings or icons per paint.
+// Each zoom level of the board view has its own atlas; numbers shrink with cells below the default size.
+public class SpriteAtlas {
+    // Face indices (position in the strip)
+    public static final int COVERED = 0;
+    public static final int FLAG = 1;
+    public static final int EMPTY = 2;        // Revealed cell with no adjacent mines
+    public static final int NUMBER_1 = 3;     // NUMBER_1 + (n - 1) for n = 1..8
+    public static final int MINE = 11;        // Revealed mine
+    public static final int HIT_MINE = 12;    // The mine that ended the game
+    public static final int LOST_MINE = 13;   // Unflagged mine shown after a loss
+    public static final int WRONG_FLAG = 14;  // Flag on a non-mine shown after a loss
+    public static final int FACE_COUNT = 15;
+
+    // Borders shared by every face (explicit colors, so they never depend on a component)
+    private static final Border RAISED_BORDER = new BevelBorder(BevelBorder.RAISED,
+            Color.WHITE, new Color(240, 240, 240), Color.DARK_GRAY, Color.GRAY);
+    private static final Border LOWERED_BORDER = new BevelBorder(BevelBorder.LOWERED,
+            Color.WHITE, new Color(240, 240, 240), Color.DARK_GRAY, Color.GRAY);
+    private static final Border HIT_BORDER = BorderFactory.createLineBorder(Color.BLACK, 2);
+    private static final Font NUMBER_FONT = new Font("Arial", Font.BOLD, 14);
+
+    private static final Map<Integer, SpriteAtlas> ATLASES = new HashMap<>();  // One atlas per cell size
+
+    private final int cellSize;
+    private final Font numberFont;
+    private final BufferedImage image;  // FACE_COUNT faces side by side
+
+    // Atlas for a cell size, rendered on first use
+    public static synchronized SpriteAtlas forSize(int cellSize, ImageLoader images) {
+        return ATLASES.computeIfAbsent(cellSize, size -> new SpriteAtlas(size, images));
+    }
+
+    private SpriteAtlas(int cellSize, ImageLoader images) {
+        this.cellSize = cellSize;
+        this.numberFont = NUMBER_FONT.deriveFont(Math.min(NUMBER_FONT.getSize2D(), cellSize * 0.5f));
+        GraphicsConfiguration config = GraphicsEnvironment.isHeadless() ? null
+                : GraphicsEnvironment.getLocalGraphicsEnvironment().getDefaultScreenDevice().getDefaultConfiguration();
+        // A screen-compatible image lets drawImage copy pixels without converting them
+        image = config != null ? config.createCompatibleImage(cellSize * FACE_COUNT, cellSize)
+                : new BufferedImage(cellSize * FACE_COUNT, cellSize, BufferedImage.TYPE_INT_RGB);
+
+        Graphics2D g = image.createGraphics();
+        g.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+        Image flag = images.getFlagIcon().getImage();
+        Image mine = images.getMineIcon().getImage();
+        Image hitMine = images.getHitMineIcon().getImage();
+
+        drawFace(g, COVERED, GameConstants.COVERED_COLOR, RAISED_BORDER, null, 0);
+        drawFace(g, FLAG, GameConstants.COVERED_COLOR, RAISED_BORDER, flag, 0);
+        drawFace(g, EMPTY, GameConstants.REVEALED_COLOR, LOWERED_BORDER, null, 0);
+        for (int n = 1; n <= 8; n++) {
+            drawFace(g, NUMBER_1 + n - 1, GameConstants.REVEALED_COLOR, LOWERED_BORDER, null, n);
+        }
+        drawFace(g, MINE, GameConstants.HIT_MINE_COLOR, LOWERED_BORDER, mine, 0);
+        drawFace(g, HIT_MINE, GameConstants.HIT_MINE_COLOR, HIT_BORDER, hitMine, 0);
+        drawFace(g, LOST_MINE, GameConstants.LOST_MINE_COLOR, RAISED_BORDER, mine, 0);
+        drawFace(g, WRONG_FLAG, GameConstants.WRONG_FLAG_COLOR, RAISED_BORDER, flag, 0);
+        g.dispose();
+    }
+
+    // Render one face: background, optional icon or number, then the border
+    private void drawFace(Graphics2D g, int face, Color background, Border border, Image icon, int number) {
+        int x = face * cellSize;
+        g.setColor(background);
+        g.fillRect(x, 0, cellSize, cellSize);
+        if (icon != null) {
+            int iconSize = Math.min(GameConstants.ICON_SIZE, cellSize - 4);
+            g.drawImage(icon, x + (cellSize - iconSize) / 2, (cellSize - iconSize) / 2, iconSize, iconSize, null);
+        }
+        if (number > 0) {
+            g.setFont(numberFont);
+            g.setColor(GameConstants.getNumberColor(number));
+            FontMetrics metrics = g.getFontMetrics();
+            String text = String.valueOf(number);
+            g.drawString(text, x + (cellSize - metrics.stringWidth(text)) / 2,
+                    (cellSize - metrics.getHeight()) / 2 + metrics.getAscent());
+        }
+        border.paintBorder(null, g, x, 0, cellSize, cellSize);
+    }
+
+    // One color per face, for views too small for glyphs (a number tints the revealed color with its own)
+    public static IndexColorModel createMinimapColors() {
+        Color[] colors = new Color[FACE_COUNT];
+        colors[COVERED] = GameConstants.COVERED_COLOR;
+        colors[FLAG] = GameConstants.HIT_MINE_COLOR.darker();
+        colors[EMPTY] = GameConstants.REVEALED_COLOR;
+        for (int n = 1; n <= 8; n++) {
+            colors[NUMBER_1 + n - 1] = blend(GameConstants.REVEALED_COLOR, GameConstants.getNumberColor(n), 0.35);
+        }
+        colors[MINE] = GameConstants.HIT_MINE_COLOR;
+        colors[HIT_MINE] = GameConstants.HIT_MINE_COLOR;
+        colors[LOST_MINE] = GameConstants.LOST_MINE_COLOR;
+        colors[WRONG_FLAG] = GameConstants.WRONG_FLAG_COLOR;
+        byte[] red = new byte[FACE_COUNT];
+        byte[] green = new byte[FACE_COUNT];
+        byte[] blue = new byte[FACE_COUNT];
+        for (int face = 0; face < FACE_COUNT; face++) {
+            red[face] = (byte) colors[face].getRed();
+            green[face] = (byte) colors[face].getGreen();
+            blue[face] = (byte) colors[face].getBlue();
+        }
+        return new IndexColorModel(8, FACE_COUNT, red, green, blue);
+    }
+
+    private static Color blend(Color base, Color tint, double share) {
+        return new Color((int) Math.round(base.getRed() + (tint.getRed() - base.getRed()) * share),
+                (int) Math.round(base.getGreen() + (tint.getGreen() - base.getGreen()) * share),
+                (int) Math.round(base.getBlue() + (tint.getBlue() - base.getBlue()) * share));
+    }
+
+    // Face for a revealed cell showing a number (0 = empty)
+    public static int numberFace(int adjacentMines) {
+        return adjacentMines == 0 ? EMPTY : NUMBER_1 + adjacentMines - 1;
+    }
+
+    // Copy one face to (x, y) on the target
+    public void draw(Graphics g, int face, int x, int y) {
+        int sourceX = face * cellSize;
+        g.drawImage(image, x, y, x + cellSize, y + cellSize, sourceX, 0, sourceX + cellSize, cellSize, null);
+    }
+
+    public int getCellSize() { return cellSize; }
+}
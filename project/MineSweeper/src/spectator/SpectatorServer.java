@@ -0,0 +1,388 @@
+package spectator;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedSelectorException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import game.Cell;
+import game.CellChangeListener;
+import game.MinesweeperGame;
+
+// Streams a live game to spectators over TCP as compact binary diffs
+// The game thread only records which cells changed in a ring buffer and updates a mirror of what a
+// player can see (mines stay hidden); one selector thread does all the networking. Every spectator
+// has a cursor into the ring and at most one frame in flight. A spectator that falls behind is sent
+// the latest state of each cell that changed since its cursor (coalesced), or a full snapshot once
+// the ring has moved past its cursor, so a slow client never grows a queue or blocks the player.
+// Spectators in sync share the same encoded frame.
+//
+// Frames (big-endian): int length of the rest, byte type, long nanoTime of the newest change included,
+// int flags placed, byte status (STATUS_* bits), then
+//   SNAPSHOT: int rows, int cols, rows * cols cell codes
+//   DIFF:     int count, count * (int cell index, byte cell code)
+// Cell codes: 0-8 revealed number, COVERED, FLAGGED, MINE (revealed mine).
+public class SpectatorServer implements CellChangeListener, Closeable {
+    public static final byte SNAPSHOT = 1;
+    public static final byte DIFF = 2;
+    public static final byte COVERED = 9;
+    public static final byte FLAGGED = 10;
+    public static final byte MINE = 11;
+    public static final int STATUS_OVER = 1;
+    public static final int STATUS_WON = 2;
+    public static final int HEADER_BYTES = 18;  // Length, type, time, flags and status
+
+    private static final int RING_SIZE = 1 << 16;   // Cell changes remembered for catching up
+    private static final int STATUS_POLL_MS = 20;   // Status (flags, win) can change without a cell change
+    private static final int SEND_BUFFER_BYTES = 16 * 1024;  // Small, so a lagging client backs up here and gets coalesced instead of queued in the kernel
+
+    // What spectators can see of the board; replaced when the board size changes
+    private static final class Mirror {
+        final int rows;
+        final int cols;
+        final int generation;
+        final byte[] cells;
+
+        Mirror(int rows, int cols, int generation) {
+            this.rows = rows;
+            this.cols = cols;
+            this.generation = generation;
+            this.cells = new byte[rows * cols];
+        }
+    }
+
+    // A connected spectator
+    private static final class Client {
+        final SocketChannel channel;
+        long cursor;             // Ring position this spectator has been sent up to
+        int generation = -1;     // Mirror generation it has a snapshot of (-1 = none yet)
+        int statusVersion = -1;  // Last status it was sent
+        ByteBuffer pending;      // Frame being written (null when idle)
+
+        Client(SocketChannel channel) {
+            this.channel = channel;
+        }
+    }
+
+    // Producer side, written only by the thread that plays the game
+    private final Object producerLock = new Object();  // Serializes watch() with game callbacks, never taken by the network thread
+    private final int[] ringCells = new int[RING_SIZE];
+    private final long[] ringTimes = new long[RING_SIZE];
+    private volatile long head;         // Number of changes ever published
+    private volatile Mirror mirror;
+    private volatile MinesweeperGame game;
+    private final AtomicBoolean wakeupPending = new AtomicBoolean();
+
+    // Network side, touched only by the selector thread
+    private final Selector selector;
+    private final ServerSocketChannel server;
+    private final Thread thread;
+    private final List<Client> clients = new ArrayList<>();
+    private final Map<Long, ByteBuffer> diffFrames = new HashMap<>();  // Frames built this round, by start cursor
+    private final ByteBuffer discard = ByteBuffer.allocate(256);
+    private int[] seen = new int[0];    // Dedupe stamps per cell while coalescing
+    private int stamp;
+    private int sentStatus = -1;
+    private int statusVersion;
+    private long statusChangedAt;
+    private volatile boolean closed;
+
+    // Statistics
+    private volatile int clientCount;
+    private volatile long framesSent;
+    private volatile long snapshotsSent;
+    private volatile long bytesSent;
+    private volatile long cellsCoalesced;  // Ring entries skipped because a later entry covered the same cell
+
+    // Constructor - listens on a local port (0 picks a free one) and starts the network thread
+    public SpectatorServer(int port) throws IOException {
+        selector = Selector.open();
+        server = ServerSocketChannel.open();
+        server.bind(new InetSocketAddress(port));
+        server.configureBlocking(false);
+        server.register(selector, SelectionKey.OP_ACCEPT);
+        thread = new Thread(this::networkLoop, "spectator-server");
+        thread.setDaemon(true);  // Never keeps the application alive
+        thread.start();
+    }
+
+    // Start streaming a game (replaces the previous one; spectators get a snapshot of the new board)
+    public void watch(MinesweeperGame newGame) {
+        synchronized (producerLock) {
+            if (game != null) {
+                game.removeCellChangeListener(this);
+            }
+            game = newGame;
+            Mirror current = mirror;
+            mirror = new Mirror(newGame.getRows(), newGame.getCols(), current == null ? 0 : current.generation + 1);
+            newGame.addCellChangeListener(this);
+            syncMirror();
+        }
+    }
+
+    public int getPort() {
+        return server.socket().getLocalPort();
+    }
+
+    @Override
+    public void onCellChanged(int row, int col) {
+        synchronized (producerLock) {
+            Mirror current = mirror;
+            if (current == null || row >= current.rows || col >= current.cols) return;
+            publish(current, row * current.cols + col, visibleCode(game.getPackedCell(row, col)));
+            wakeUp();
+        }
+    }
+
+    @Override
+    public void onBoardChanged() {
+        synchronized (producerLock) {
+            syncMirror();
+        }
+    }
+
+    // Bring the mirror up to date with the whole board, publishing only cells that look different
+    private void syncMirror() {
+        Mirror current = mirror;
+        if (current.rows != game.getRows() || current.cols != game.getCols()) {
+            current = new Mirror(game.getRows(), game.getCols(), current.generation + 1);  // Resized: everyone resyncs
+            mirror = current;
+        }
+        for (int row = 0; row < current.rows; row++) {
+            for (int col = 0; col < current.cols; col++) {
+                publish(current, row * current.cols + col, visibleCode(game.getPackedCell(row, col)));
+            }
+        }
+        wakeUp();
+    }
+
+    // Record a cell's new code; the volatile head write makes the entry and mirror visible to the network thread
+    private void publish(Mirror current, int index, byte code) {
+        if (current.cells[index] == code) return;  // Looks the same to spectators
+        current.cells[index] = code;
+        long position = head;
+        int slot = (int) (position & (RING_SIZE - 1));
+        ringCells[slot] = index;
+        ringTimes[slot] = System.nanoTime();
+        head = position + 1;
+    }
+
+    // One selector wakeup per batch of changes, not per cell
+    private void wakeUp() {
+        if (!wakeupPending.get() && !wakeupPending.getAndSet(true)) {
+            selector.wakeup();
+        }
+    }
+
+    // What a player can see of a cell
+    public static byte visibleCode(byte cell) {
+        if ((cell & Cell.REVEALED_BIT) != 0) {
+            return (cell & Cell.MINE_BIT) != 0 ? MINE : (byte) Cell.adjacentMines(cell);
+        }
+        return (cell & Cell.FLAGGED_BIT) != 0 ? FLAGGED : COVERED;
+    }
+
+    // Network thread: accept spectators, finish partial writes and send each idle spectator its next frame
+    private void networkLoop() {
+        try {
+            while (!closed) {
+                selector.select(STATUS_POLL_MS);
+                wakeupPending.set(false);
+                Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+                    if (!key.isValid()) continue;
+                    if (key.isAcceptable()) {
+                        accept();
+                    } else {
+                        Client client = (Client) key.attachment();
+                        if (key.isReadable()) drainInput(client);
+                        if (key.isValid() && key.isWritable()) write(client);
+                    }
+                }
+                broadcast();
+            }
+        } catch (IOException | ClosedSelectorException e) {
+            if (!closed) {
+                System.err.println("Spectator server stopped: " + e.getMessage());
+            }
+        }
+    }
+
+    private void accept() throws IOException {
+        SocketChannel channel;
+        while ((channel = server.accept()) != null) {
+            channel.configureBlocking(false);
+            channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+            channel.setOption(StandardSocketOptions.SO_SNDBUF, SEND_BUFFER_BYTES);
+            Client client = new Client(channel);
+            channel.register(selector, SelectionKey.OP_READ, client);
+            clients.add(client);
+            clientCount = clients.size();
+        }
+    }
+
+    // Spectators never send anything; reading only notices when they disconnect
+    private void drainInput(Client client) {
+        try {
+            discard.clear();
+            if (client.channel.read(discard) < 0) disconnect(client);
+        } catch (IOException e) {
+            disconnect(client);
+        }
+    }
+
+    private void disconnect(Client client) {
+        clients.remove(client);
+        clientCount = clients.size();
+        try {
+            client.channel.close();
+        } catch (IOException ignored) {
+            // Already gone
+        }
+    }
+
+    // Send the next frame to every spectator that has nothing in flight and is behind
+    private void broadcast() {
+        Mirror current = mirror;
+        if (current == null) return;
+        long end = head;  // Read before the mirror cells, so frames include at least everything up to here
+        MinesweeperGame source = game;
+        int status = source.getFlagsPlaced() << 2 | (source.isGameOver() ? STATUS_OVER : 0) | (source.isGameWon() ? STATUS_WON : 0);
+        if (status != sentStatus) {
+            sentStatus = status;
+            statusVersion++;
+            statusChangedAt = System.nanoTime();
+        }
+
+        diffFrames.clear();
+        ByteBuffer snapshot = null;
+        for (int i = clients.size() - 1; i >= 0; i--) {
+            Client client = clients.get(i);
+            if (client.pending != null) continue;  // Backpressure: still writing its last frame
+            boolean resync = client.generation != current.generation || end - client.cursor > RING_SIZE;
+            if (!resync && client.cursor == end && client.statusVersion == statusVersion) continue;
+
+            ByteBuffer frame = resync ? null : diffFrames.get(client.cursor);
+            if (frame == null && !resync) {
+                frame = encodeDiff(current, client.cursor, end, status);
+                if (frame != null) diffFrames.put(client.cursor, frame);
+            }
+            if (frame == null) {
+                if (snapshot == null) snapshot = encodeSnapshot(current, end, status);
+                frame = snapshot;
+            }
+            client.cursor = end;
+            client.generation = current.generation;
+            client.statusVersion = statusVersion;
+            client.pending = frame.duplicate();
+            write(client);
+        }
+    }
+
+    // Latest code of every cell changed in [from, end), or null if a snapshot would be smaller or the ring lapped
+    private ByteBuffer encodeDiff(Mirror current, long from, long end, int status) {
+        if (seen.length < current.cells.length) seen = new int[current.cells.length];
+        stamp++;
+        int unique = 0;
+        for (long position = from; position < end; position++) {
+            int index = ringCells[(int) (position & (RING_SIZE - 1))];
+            if (index < current.cells.length && seen[index] != stamp) {
+                seen[index] = stamp;
+                unique++;
+            }
+        }
+        if (head - from > RING_SIZE || unique * 5 >= current.cells.length + 8) return null;
+        cellsCoalesced += end - from - unique;
+
+        ByteBuffer frame = ByteBuffer.allocate(HEADER_BYTES + 4 + unique * 5);
+        writeHeader(frame, DIFF, newestChange(from, end), status);
+        frame.putInt(unique);
+        stamp++;
+        for (long position = end - 1; position >= from; position--) {  // Newest first, each cell once
+            int index = ringCells[(int) (position & (RING_SIZE - 1))];
+            if (index < current.cells.length && seen[index] != stamp) {
+                seen[index] = stamp;
+                frame.putInt(index).put(current.cells[index]);
+            }
+        }
+        if (head - from > RING_SIZE) return null;  // Overwritten while reading
+        return frame.flip();
+    }
+
+    private ByteBuffer encodeSnapshot(Mirror current, long end, int status) {
+        ByteBuffer frame = ByteBuffer.allocate(HEADER_BYTES + 8 + current.cells.length);
+        writeHeader(frame, SNAPSHOT, end > 0 ? ringTimes[(int) ((end - 1) & (RING_SIZE - 1))] : System.nanoTime(), status);
+        frame.putInt(current.rows).putInt(current.cols).put(current.cells);
+        snapshotsSent++;
+        return frame.flip();
+    }
+
+    private long newestChange(long from, long end) {
+        return from < end ? ringTimes[(int) ((end - 1) & (RING_SIZE - 1))] : statusChangedAt;
+    }
+
+    private static void writeHeader(ByteBuffer frame, byte type, long changedAt, int status) {
+        frame.putInt(frame.capacity() - 4).put(type).putLong(changedAt).putInt(status >>> 2).put((byte) (status & 3));
+    }
+
+    // Write as much of the pending frame as the socket takes; wait for OP_WRITE if it is full
+    private void write(Client client) {
+        try {
+            int written = client.channel.write(client.pending);
+            bytesSent += written;
+            SelectionKey key = client.channel.keyFor(selector);
+            if (client.pending.hasRemaining()) {
+                key.interestOps(SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+            } else {
+                client.pending = null;
+                framesSent++;
+                key.interestOps(SelectionKey.OP_READ);
+            }
+        } catch (IOException e) {
+            disconnect(client);
+        }
+    }
+
+    // Statistics
+    public int getClientCount() { return clientCount; }
+    public long getFramesSent() { return framesSent; }
+    public long getSnapshotsSent() { return snapshotsSent; }
+    public long getBytesSent() { return bytesSent; }
+    public long getCellsCoalesced() { return cellsCoalesced; }
+    public long getChangesPublished() { return head; }
+
+    // Stop streaming and disconnect every spectator
+    @Override
+    public void close() throws IOException {
+        closed = true;
+        synchronized (producerLock) {
+            if (game != null) {
+                game.removeCellChangeListener(this);
+            }
+        }
+        selector.wakeup();
+        try {
+            thread.join(1000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        for (Client client : clients) {
+            client.channel.close();
+        }
+        server.close();
+        selector.close();
+    }
+}
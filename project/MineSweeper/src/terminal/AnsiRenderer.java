@@ -0,0 +1,266 @@
+package terminal;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import game.Cell;
+import game.CellChangeListener;
+import game.MinesweeperGame;
+
+// Draws the board in a terminal with ANSI escape codes
+// Only cells whose glyph changed since the last frame are written, using cursor jumps,
+// and each frame goes out in a single buffered write. Boards larger than the terminal
+// are shown through a scrollable viewport.
+public class AnsiRenderer implements CellChangeListener {
+    private static final String ESC = "\u001b[";
+    private static final int GUTTER = 5;      // Width of the row number column
+    private static final int HEADER_ROWS = 2; // Status line and column ruler
+
+    // Glyph codes stored per screen cell (what is currently on screen)
+    private static final byte UNKNOWN = -1;
+    private static final byte COVERED = 0;
+    private static final byte FLAG = 1;
+    private static final byte NUMBER = 2;     // NUMBER + n for n adjacent mines (0-8)
+    private static final byte MINE = 11;
+    private static final byte HIT_MINE = 12;
+    private static final byte WRONG_FLAG = 13;
+
+    private final MinesweeperGame game;   // Game being drawn
+    private final OutputStream out;       // Terminal output
+    private final int screenRows;         // Terminal height in lines
+    private final int screenCols;         // Terminal width in characters
+
+    // Viewport over the board
+    private int boardRows;                // Board size the viewport was built for
+    private int boardCols;
+    private int viewRows;                 // Visible board rows
+    private int viewCols;                 // Visible board columns
+    private int top;                      // First visible board row
+    private int left;                     // First visible board column
+
+    // Diff state
+    private byte[] shown;                 // Glyph currently on screen for each viewport cell
+    private boolean[] dirtyMark;          // Viewport cells that may have changed
+    private int[] dirty;                  // Indices of the marked viewport cells
+    private int dirtyCount;
+    private boolean labelsDirty;          // Ruler and row numbers need redrawing
+    private boolean clearScreen;          // Whole screen needs clearing
+    private boolean lastGameOver;         // Game over state at the last frame
+    private String shownStatus = "";      // Status line currently on screen
+
+    // Frame assembly
+    private final StringBuilder frame = new StringBuilder(4096);
+    private int cursorRow;                // Where the terminal cursor is after the last write
+    private int cursorCol;
+    private String currentStyle = "";     // SGR style currently active
+    private int lastFrameBytes;           // Size of the last frame written
+
+    // Constructor - attaches to a game and sizes the viewport to the terminal
+    public AnsiRenderer(MinesweeperGame game, OutputStream out, int screenRows, int screenCols) {
+        this.game = game;
+        this.out = out;
+        this.screenRows = screenRows;
+        this.screenCols = screenCols;
+        game.addCellChangeListener(this);
+        resize();
+    }
+
+    // Fit the viewport to the board and the terminal (after a new game)
+    private void resize() {
+        boardRows = game.getRows();
+        boardCols = game.getCols();
+        viewRows = Math.max(1, Math.min(game.getRows(), screenRows - HEADER_ROWS - 1));  // Last line: prompt
+        viewCols = Math.max(1, Math.min(game.getCols(), (screenCols - GUTTER) / 2));
+        top = 0;
+        left = 0;
+        shown = new byte[viewRows * viewCols];
+        Arrays.fill(shown, UNKNOWN);
+        dirtyMark = new boolean[viewRows * viewCols];
+        dirty = new int[viewRows * viewCols];
+        dirtyCount = 0;
+        markAllDirty();
+        labelsDirty = true;
+        clearScreen = true;
+    }
+
+    @Override
+    public void onCellChanged(int row, int col) {
+        int r = row - top;
+        int c = col - left;
+        if (r >= 0 && r < viewRows && c >= 0 && c < viewCols) {
+            markDirty(r * viewCols + c);
+        }
+    }
+
+    @Override
+    public void onBoardChanged() {
+        if (game.getRows() != boardRows || game.getCols() != boardCols) {
+            resize();  // New game with different dimensions
+        } else {
+            markAllDirty();  // Diffing against the screen keeps the output small
+        }
+    }
+
+    private void markDirty(int index) {
+        if (!dirtyMark[index]) {
+            dirtyMark[index] = true;
+            dirty[dirtyCount++] = index;
+        }
+    }
+
+    private void markAllDirty() {
+        for (int i = 0; i < viewRows * viewCols; i++) {
+            markDirty(i);
+        }
+    }
+
+    // Move the viewport by a number of rows and columns (clamped to the board)
+    public void scroll(int deltaRows, int deltaCols) {
+        int newTop = Math.max(0, Math.min(top + deltaRows, game.getRows() - viewRows));
+        int newLeft = Math.max(0, Math.min(left + deltaCols, game.getCols() - viewCols));
+        if (newTop != top || newLeft != left) {
+            top = newTop;
+            left = newLeft;
+            markAllDirty();  // Unchanged glyphs at the same screen position are still skipped
+            labelsDirty = true;
+        }
+    }
+
+    // Draw one frame: changed cells, labels if needed, the status line and the prompt
+    public void render(String status) throws IOException {
+        frame.setLength(0);
+        if (clearScreen) {
+            frame.append(ESC).append("0m").append(ESC).append("2J");
+            currentStyle = "";
+            shownStatus = "";
+            cursorRow = -1;
+            clearScreen = false;
+        }
+        if (game.isGameOver() != lastGameOver) {
+            lastGameOver = game.isGameOver();
+            markAllDirty();  // Mines and wrong flags are shown only once the game is lost
+        }
+        if (labelsDirty) {
+            drawLabels();
+            labelsDirty = false;
+        }
+
+        // Changed cells only
+        for (int i = 0; i < dirtyCount; i++) {
+            int index = dirty[i];
+            dirtyMark[index] = false;
+            int row = top + index / viewCols;
+            int col = left + index % viewCols;
+            byte glyph = glyphFor(row, col);
+            if (glyph == shown[index]) continue;
+            shown[index] = glyph;
+            moveTo(HEADER_ROWS + 1 + index / viewCols, GUTTER + 1 + 2 * (index % viewCols));
+            setStyle(styleFor(glyph));
+            frame.append(charFor(glyph)).append(' ');
+            cursorCol += 2;
+        }
+        dirtyCount = 0;
+
+        // Status line (only if it changed)
+        if (!status.equals(shownStatus)) {
+            moveTo(1, 1);
+            setStyle("");
+            frame.append(ESC).append("2K").append(status);
+            shownStatus = status;
+            cursorRow = -1;  // Cursor position after text is not tracked
+        }
+
+        // Prompt below the board
+        moveTo(HEADER_ROWS + viewRows + 1, 1);
+        setStyle("");
+        frame.append(ESC).append("2K> ");
+        cursorRow = -1;
+
+        byte[] bytes = frame.toString().getBytes(StandardCharsets.US_ASCII);
+        out.write(bytes);
+        out.flush();
+        lastFrameBytes = bytes.length;
+    }
+
+    // Column ruler (last digit of each column) and row numbers
+    private void drawLabels() {
+        setStyle(ESC + "2m");  // Dim
+        moveTo(2, 1);
+        frame.append(ESC).append("2K").append(" ".repeat(GUTTER));
+        for (int c = 0; c < viewCols; c++) {
+            frame.append((left + c) % 10).append(' ');
+        }
+        for (int r = 0; r < viewRows; r++) {
+            moveTo(HEADER_ROWS + 1 + r, 1);
+            frame.append(String.format("%4d ", top + r));
+        }
+        cursorRow = -1;
+    }
+
+    // Jump the cursor unless it is already in place (consecutive cells need no jump)
+    private void moveTo(int row, int col) {
+        if (row == cursorRow && col == cursorCol) return;
+        frame.append(ESC).append(row).append(';').append(col).append('H');
+        cursorRow = row;
+        cursorCol = col;
+    }
+
+    // Switch SGR style only when it differs from the active one
+    private void setStyle(String style) {
+        if (style.equals(currentStyle)) return;
+        frame.append(ESC).append("0m").append(style);
+        currentStyle = style;
+    }
+
+    // Which glyph a cell should show now
+    private byte glyphFor(int row, int col) {
+        Cell cell = game.getCell(row, col);
+        boolean lost = game.isGameOver() && !game.isGameWon();
+        if (cell.isRevealed()) {
+            if (cell.isMine()) return HIT_MINE;
+            return (byte) (NUMBER + cell.getAdjacentMines());
+        }
+        if (cell.isFlagged()) {
+            return lost && !cell.isMine() ? WRONG_FLAG : FLAG;
+        }
+        return lost && cell.isMine() ? MINE : COVERED;
+    }
+
+    private static char charFor(byte glyph) {
+        return switch (glyph) {
+            case COVERED -> '.';
+            case FLAG -> 'F';
+            case MINE, HIT_MINE -> '*';
+            case WRONG_FLAG -> 'X';
+            case NUMBER -> ' ';
+            default -> (char) ('0' + glyph - NUMBER);
+        };
+    }
+
+    // ANSI colors matching the GUI's number colors as closely as the basic palette allows
+    private static String styleFor(byte glyph) {
+        return switch (glyph) {
+            case COVERED -> ESC + "2m";
+            case FLAG -> ESC + "1;34m";
+            case MINE -> ESC + "1m";
+            case HIT_MINE -> ESC + "1;41m";
+            case WRONG_FLAG -> ESC + "1;35m";
+            case NUMBER + 1 -> ESC + "1;34m";
+            case NUMBER + 2 -> ESC + "32m";
+            case NUMBER + 3 -> ESC + "1;31m";
+            case NUMBER + 4 -> ESC + "34m";
+            case NUMBER + 5 -> ESC + "31m";
+            case NUMBER + 6 -> ESC + "36m";
+            case NUMBER + 8 -> ESC + "2m";
+            default -> "";
+        };
+    }
+
+    // Getter methods
+    public int getLastFrameBytes() { return lastFrameBytes; }
+    public int getTop() { return top; }
+    public int getLeft() { return left; }
+    public int getViewRows() { return viewRows; }
+    public int getViewCols() { return viewCols; }
+}
@@ -0,0 +1,151 @@
+package terminal;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import game.MinesweeperGame;
+import game.Topology;
+import utils.InputValidator;
+import utils.MemoryEstimator;
+
+// Headless front end: plays MinesweeperGame in a terminal without Swing or AWT
+// Supports the same actions as the GUI (reveal, flag, undo, redo, new game) as typed commands.
+// Run with: java Main --terminal [rows cols mines]   (set LINES/COLUMNS for the terminal size)
+public class TerminalGame {
+    private static final String HELP =
+            "r ROW COL reveal | f ROW COL flag | u undo | y redo | n [ROWS COLS MINES] new | w/a/s/d scroll | q quit";
+
+    private MinesweeperGame game;         // Game being played
+    private final AnsiRenderer renderer;  // Draws only what changed
+    private String message = HELP;        // Message shown in the status line
+
+    // Constructor - creates a game and a renderer sized to the terminal
+    public TerminalGame(int rows, int cols, int mines, OutputStream out, int screenRows, int screenCols) {
+        this.game = new MinesweeperGame(rows, cols, mines);
+        this.renderer = new AnsiRenderer(game, out, screenRows, screenCols);
+    }
+
+    // Entry point for the terminal front end
+    public static void main(String[] args) throws IOException {
+        int rows = args.length >= 3 ? Integer.parseInt(args[0]) : 16;
+        int cols = args.length >= 3 ? Integer.parseInt(args[1]) : 16;
+        int mines = args.length >= 3 ? Integer.parseInt(args[2]) : 40;
+
+        OutputStream out = new BufferedOutputStream(new FileOutputStream(FileDescriptor.out), 1 << 16);
+        TerminalGame terminalGame;
+        try {
+            validateBoard(rows, cols, mines);
+            terminalGame = new TerminalGame(rows, cols, mines, out, getEnvInt("LINES", 24), getEnvInt("COLUMNS", 80));
+        } catch (IllegalArgumentException | OutOfMemoryError e) {
+            System.err.println("Cannot start " + rows + "x" + cols + " with " + mines + " mines: " + e.getMessage());
+            return;
+        }
+        terminalGame.run(new BufferedReader(new InputStreamReader(System.in)));
+    }
+
+    // Check a board against the game's limits and the heap (the terminal keeps boards on the heap)
+    private static void validateBoard(int rows, int cols, int mines) {
+        InputValidator.validateLimits(rows, cols, mines);
+        MemoryEstimator.Estimate estimate = MemoryEstimator.forThisJvm()
+                .estimate(rows, cols, mines, Topology.CLASSIC, MemoryEstimator.Backend.HEAP);
+        if (!estimate.fits()) {
+            throw new IllegalArgumentException(estimate.getProblem());
+        }
+    }
+
+    // Read a positive number from an environment variable
+    private static int getEnvInt(String name, int defaultValue) {
+        try {
+            int value = Integer.parseInt(System.getenv(name));
+            return value > 0 ? value : defaultValue;
+        } catch (NumberFormatException e) {
+            return defaultValue;
+        }
+    }
+
+    // Main loop: draw, read a command, apply it
+    public void run(BufferedReader input) throws IOException {
+        while (true) {
+            renderer.render(buildStatus());
+            String line = input.readLine();
+            if (line == null || line.trim().equals("q")) {
+                break;
+            }
+            handleCommand(line.trim().split("\\s+"));
+        }
+        System.out.print("\u001b[0m\n");
+    }
+
+    // Status line: flags, game state, message and how big the last frame was
+    private String buildStatus() {
+        String state = game.isGameOver()
+                ? (game.isGameWon() ? "Congratulations! You won!" : "Game Over! You hit a mine!")
+                : message;
+        return "Flags: " + game.getFlagsPlaced() + "/" + game.getTotalMines()
+                + " | view " + renderer.getTop() + "," + renderer.getLeft()
+                + " | last frame " + renderer.getLastFrameBytes() + " B | " + state;
+    }
+
+    // Apply a single command
+    private void handleCommand(String[] parts) {
+        message = "";
+        try {
+            switch (parts[0]) {
+                case "r" -> handleCellReveal(Integer.parseInt(parts[1]), Integer.parseInt(parts[2]));
+                case "f" -> handleCellFlag(Integer.parseInt(parts[1]), Integer.parseInt(parts[2]));
+                case "u" -> message = game.undo() ? "Move undone!" : "Cannot undo!";
+                case "y" -> message = game.redo() ? "Move redone!" : "Cannot redo!";
+                case "n" -> handleNewGame(parts);
+                case "w" -> renderer.scroll(-renderer.getViewRows() / 2, 0);
+                case "s" -> renderer.scroll(renderer.getViewRows() / 2, 0);
+                case "a" -> renderer.scroll(0, -renderer.getViewCols() / 2);
+                case "d" -> renderer.scroll(0, renderer.getViewCols() / 2);
+                default -> message = HELP;
+            }
+        } catch (NumberFormatException | ArrayIndexOutOfBoundsException e) {
+            message = HELP;  // Missing or invalid coordinates
+        } catch (IllegalArgumentException | OutOfMemoryError e) {
+            message = "Error: " + e.getMessage();  // The game refused the command; keep playing
+        }
+    }
+
+    // Reveal a cell (same rules as the GUI's left click)
+    private void handleCellReveal(int row, int col) {
+        if (game.isGameOver()) return;  // Ignore moves if game is over
+        if (!game.revealCell(row, col)) {
+            message = "Cannot reveal (" + row + ", " + col + ")";
+        }
+    }
+
+    // Toggle a flag (same rules as the GUI's right click)
+    private void handleCellFlag(int row, int col) {
+        if (game.isGameOver()) return;
+        if (!game.toggleFlag(row, col)) {
+            message = "Cannot flag (" + row + ", " + col + ")";
+        }
+    }
+
+    // Start a new game, optionally with new dimensions
+    private void handleNewGame(String[] parts) {
+        int rows = game.getRows();
+        int cols = game.getCols();
+        int mines = game.getTotalMines();
+        if (parts.length >= 4) {
+            rows = Integer.parseInt(parts[1]);
+            cols = Integer.parseInt(parts[2]);
+            mines = Integer.parseInt(parts[3]);
+        }
+        try {
+            validateBoard(rows, cols, mines);
+        } catch (IllegalArgumentException e) {
+            message = e.getMessage();
+            return;
+        }
+        game.resetGame(rows, cols, mines);  // Renderer resizes on the board change event
+        message = "New game started";
+    }
+}
@@ -0,0 +1,80 @@
+package tools;
+
+import game.AutoPlayer;
+import game.MinesweeperGame;
+import game.Topology;
+import gui.BoardPanel;
+import gui.ImageLoader;
+
+// Runs auto-play on seeded games headless and reports moves per second through the real game loop
+// (revealCell / toggleFlag with history, win checks and listeners), so engine changes can be compared
+// on whole games. The last part plays the same games with a board view attached, refreshing it after
+// every move and then once per frame-sized batch as the GUI does.
+// Run with: java tools.AutoPlayBenchmark [games] [rows cols mines]
+public class AutoPlayBenchmark {
+    private static final long FRAME_NANOS = 12_000_000L;  // Batch played between two refreshes in the GUI
+    private static final int[][] BOARDS = {{9, 9, 10}, {16, 16, 40}, {16, 30, 99}, {100, 100, 1200}, {300, 300, 10000}};
+
+    public static void main(String[] args) {
+        System.setProperty("java.awt.headless", "true");
+        int games = args.length > 0 ? Integer.parseInt(args[0]) : 200;
+        int[][] boards = args.length >= 4
+                ? new int[][]{{Integer.parseInt(args[1]), Integer.parseInt(args[2]), Integer.parseInt(args[3])}} : BOARDS;
+
+        for (int warmup = 0; warmup < 2; warmup++) {
+            for (int seed = 0; seed < 50; seed++) play(new MinesweeperGame(16, 16, 40, seed, Topology.CLASSIC));
+        }
+        for (int[] board : boards) {
+            int count = Math.max(1, (int) Math.min(games, 2_000_000L / ((long) board[0] * board[1])));  // Fewer big games
+            long moves = 0;
+            long nanos = 0;
+            int won = 0;
+            int lost = 0;
+            for (int seed = 0; seed < count; seed++) {
+                MinesweeperGame game = new MinesweeperGame(board[0], board[1], board[2], seed, Topology.CLASSIC);
+                AutoPlayer player = play(game);
+                moves += player.getMoves();
+                nanos += player.getBusyNanos();
+                if (game.isGameWon()) won++;
+                else if (game.isGameOver()) lost++;
+            }
+            System.out.printf("%dx%d/%d: %d games, %d won, %d stuck, %d lost, %,d moves, %,.0f moves/s%n",
+                    board[0], board[1], board[2], count, won, count - won - lost, lost, moves, moves * 1e9 / nanos);
+            if (lost > 0) {
+                System.out.println("FAIL: auto-play made a move that was not certain");
+                System.exit(1);
+            }
+        }
+
+        // Refreshing a view after every move against once per batch
+        int[] board = boards[boards.length - 1];
+        ImageLoader images = new ImageLoader();
+        for (boolean batched : new boolean[]{false, true}) {
+            MinesweeperGame game = new MinesweeperGame(board[0], board[1], board[2], 1, Topology.CLASSIC);
+            BoardPanel view = new BoardPanel(game, images, null);
+            AutoPlayer player = new AutoPlayer(game);
+            long start = System.nanoTime();
+            int refreshes = 0;
+            while (!player.isFinished()) {
+                player.play(batched ? Integer.MAX_VALUE : 1, FRAME_NANOS);
+                view.refresh();
+                refreshes++;
+            }
+            long nanos = System.nanoTime() - start;
+            player.detach();
+            view.detach();
+            System.out.printf("%dx%d/%d with a view refreshed %s: %,d refreshes, %,.0f moves/s%n", board[0], board[1],
+                    board[2], batched ? "once per batch" : "after every move", refreshes, player.getMoves() * 1e9 / nanos);
+        }
+    }
+
+    // Play a game until nothing certain is left
+    private static AutoPlayer play(MinesweeperGame game) {
+        AutoPlayer player = new AutoPlayer(game);
+        while (!player.isFinished()) {
+            player.play(Integer.MAX_VALUE, Long.MAX_VALUE / 4);
+        }
+        player.detach();
+        return player;
+    }
+}
@@ -0,0 +1,115 @@
+package tools;
+
+import game.BoardCode;
+import game.MinesweeperGame;
+import game.Topology;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.SplittableRandom;
+
+// Checks that board codes round-trip exactly and times them on a large board
+// Random layouts over many sizes, densities (from empty boards to the most mines a board may have) and
+// topologies must decode to the same mines, damaged codes and codes for boards beyond New Game's limits
+// must be rejected, and imported games must replay on the same layout.
+// Run with: java tools.BoardCodeBenchmark [layouts] [side]
+public class BoardCodeBenchmark {
+    private static final int[] DENSITIES = {0, 1, 5, 12, 16, 20, 25, 30, 33};  // Percent of cells (at most a third)
+    private static final int TIMING_RUNS = 20;
+
+    public static void main(String[] args) {
+        int layouts = args.length > 0 ? Integer.parseInt(args[0]) : 2000;
+        int side = args.length > 1 ? Integer.parseInt(args[1]) : 1000;
+        SplittableRandom random = new SplittableRandom(42);
+        Topology[] topologies = Topology.values();
+
+        long codeChars = 0;
+        long codeCells = 0;
+        for (int i = 0; i < layouts; i++) {
+            int rows = 1 + random.nextInt(i % 10 == 0 ? 300 : 40);
+            int cols = 1 + random.nextInt(i % 10 == 0 ? 300 : 40);
+            int mines = (int) ((long) rows * cols * DENSITIES[i % DENSITIES.length] / 100);
+            Topology topology = topologies[random.nextInt(topologies.length)];
+            long[] mineCells = randomLayout((long) rows * cols, mines, random);
+
+            String code = BoardCode.encode(rows, cols, topology, mineCells);
+            BoardCode decoded = BoardCode.decode(code);
+            if (decoded.getRows() != rows || decoded.getCols() != cols || decoded.getTopology() != topology
+                    || !Arrays.equals(decoded.getMineCells(), mineCells)) {
+                fail("round trip changed " + rows + "x" + cols + "/" + mines + " " + topology + ": " + code);
+            }
+            codeChars += code.length();
+            codeCells += (long) rows * cols;
+
+            char[] damaged = code.toCharArray();
+            int at = random.nextInt(damaged.length - 1);  // The last character may only hold unused bits
+            damaged[at] = damaged[at] == 'A' ? 'B' : 'A';
+            if (accepts(new String(damaged)) || accepts(code.substring(0, code.length() - 1))) {
+                fail("damaged code accepted: " + code);
+            }
+        }
+        System.out.printf("%,d layouts round-tripped, damaged codes rejected (%.3f chars/cell)%n",
+                layouts, (double) codeChars / codeCells);
+
+        // An imported game keeps its layout through the game, its code and its replay
+        long[] mineCells = randomLayout(30 * 40, 200, random);
+        String code = BoardCode.encode(30, 40, Topology.HEX, mineCells);
+        MinesweeperGame game = BoardCode.decode(code).createGame();
+        game.revealCell(0, 0);
+        if (!code.equals(game.getBoardCode()) || !code.equals(game.toReplay().createGame().getBoardCode())) {
+            fail("imported game lost its layout");
+        }
+        System.out.println("imported game and its replay keep the layout");
+
+        // Codes are only accepted for boards New Game could create
+        if (accepts(BoardCode.encode(50000, 50000, Topology.CLASSIC, new long[0]))
+                || accepts(BoardCode.encode(10, 10, Topology.CLASSIC, randomLayout(100, 50, random)))) {
+            fail("code beyond the board limits accepted");
+        }
+        System.out.println("codes beyond the board limits rejected");
+
+        // Time a large board at expert density
+        long[] large = randomLayout((long) side * side, side * side * 16 / 100, random);
+        String largeCode = null;
+        long encodeNanos = Long.MAX_VALUE;
+        long decodeNanos = Long.MAX_VALUE;
+        for (int run = 0; run < TIMING_RUNS; run++) {
+            long start = System.nanoTime();
+            largeCode = BoardCode.encode(side, side, Topology.CLASSIC, large);
+            encodeNanos = Math.min(encodeNanos, System.nanoTime() - start);
+            start = System.nanoTime();
+            BoardCode decoded = BoardCode.decode(largeCode);
+            decodeNanos = Math.min(decodeNanos, System.nanoTime() - start);
+            if (decoded.getMines() != large.length) fail("large board lost mines");
+        }
+        System.out.printf("%dx%d, %,d mines: %,d chars (%.1f KB), encode %.2f ms, decode %.2f ms%n", side, side,
+                large.length, largeCode.length(), largeCode.length() / 1024.0, encodeNanos / 1e6, decodeNanos / 1e6);
+    }
+
+    // Uniform random ascending mine cells (Floyd's sampling, then sorted)
+    private static long[] randomLayout(long cells, int mines, SplittableRandom random) {
+        HashSet<Long> chosen = new HashSet<>();
+        for (long j = cells - mines; j < cells; j++) {
+            long pick = random.nextLong(j + 1);
+            chosen.add(chosen.contains(pick) ? j : pick);
+        }
+        long[] mineCells = new long[mines];
+        int count = 0;
+        for (long cell : chosen) mineCells[count++] = cell;
+        Arrays.sort(mineCells);
+        return mineCells;
+    }
+
+    private static boolean accepts(String code) {
+        try {
+            BoardCode.decode(code);
+            return true;
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    private static void fail(String message) {
+        System.out.println("FAIL: " + message);
+        System.exit(1);
+    }
+}
@@ -0,0 +1,44 @@
+package tools;
+
+import game.BoardPool;
+import game.MineLayout;
+import game.MinesweeperGame;
+import game.Topology;
+
+// Compares New Game + first click with and without the board pool on a large board,
+// then prints the pool's hit rate and refill latency
+// Run with: java tools.BoardPoolBenchmark [side] [games] [pauseMs]
+public class BoardPoolBenchmark {
+    public static void main(String[] args) throws InterruptedException {
+        int side = args.length > 0 ? Integer.parseInt(args[0]) : 1000;
+        int games = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+        long pauseMillis = args.length > 2 ? Long.parseLong(args[2]) : 500;  // "Thinking time" between games
+        int mines = side * side * 16 / 100;  // Expert-like density
+
+        BoardPool pool = new BoardPool(BoardPool.DEFAULT_CAPACITY);
+        pool.take(side, side, mines, Topology.CLASSIC);  // First take is a miss and starts filling
+        Thread.sleep(pauseMillis);
+
+        System.out.printf("%-6s %16s %16s%n", "game", "fresh ms", "pooled ms");
+        for (int i = 0; i < games; i++) {
+            long start = System.nanoTime();
+            MinesweeperGame fresh = new MinesweeperGame(side, side, mines, i, Topology.CLASSIC);
+            fresh.revealCell(side / 2, side / 2);
+            long freshNanos = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            MineLayout layout = pool.take(side, side, mines, Topology.CLASSIC);
+            MinesweeperGame pooled = layout != null ? new MinesweeperGame(layout)
+                    : new MinesweeperGame(side, side, mines, i, Topology.CLASSIC);
+            pooled.revealCell(side / 2, side / 2);
+            long pooledNanos = System.nanoTime() - start;
+
+            System.out.printf("%-6d %16.2f %16.2f%s%n", i, freshNanos / 1e6, pooledNanos / 1e6,
+                    layout == null ? "  (miss)" : "");
+            Thread.sleep(pauseMillis);
+        }
+        System.out.println(pool);
+        System.out.printf("pool memory: %.2f MB%n", pool.getMemoryBytes() / 1e6);
+        pool.close();
+    }
+}
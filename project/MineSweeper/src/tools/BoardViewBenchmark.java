@@ -0,0 +1,125 @@
+package tools;
+
+import game.Cell;
+import game.MinesweeperGame;
+import game.OffHeapCellStorage;
+import game.Topology;
+import gui.BoardPanel;
+import gui.ImageLoader;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+// Times zooming and refreshing the board view on a large board (headless, painting into an image)
+// A game is played in scattered spots, then the view zooms from full glyphs out to the whole board and
+// back in at several points, painting a frame per wheel notch; the report gives frame times against the
+// 16.7 ms of a 60 fps frame. It also times refreshing the view after one move, and checks that a view
+// kept up to date by cell change events paints exactly like a new view of the same game.
+// Run with: java -Xmx1g tools.BoardViewBenchmark [side]
+public class BoardViewBenchmark {
+    private static final int VIEW_WIDTH = 1200;
+    private static final int VIEW_HEIGHT = 760;
+    private static final double FRAME_BUDGET_MS = 1000.0 / 60;
+    private static final int NOTCHES = 40;  // Wheel notches each way (1.25x each: 36 px per cell down to the whole board)
+
+    public static void main(String[] args) {
+        System.setProperty("java.awt.headless", "true");
+        int side = args.length > 0 ? Integer.parseInt(args[0]) : 5000;
+        long cells = (long) side * side;
+        MinesweeperGame game = new MinesweeperGame(side, side, (int) (cells * 12 / 100), 1, Topology.CLASSIC,
+                OffHeapCellStorage.allocate(cells));
+        ImageLoader images = new ImageLoader();
+
+        long start = System.nanoTime();
+        BoardPanel view = new BoardPanel(game, images, null);
+        view.setSize(VIEW_WIDTH, VIEW_HEIGHT);
+        System.out.printf("%dx%d view built in %.0f ms (one full scan)%n", side, side, (System.nanoTime() - start) / 1e6);
+
+        // Play scattered spots: reveal a grid of cells and flag a few mines
+        SplittableRandom random = new SplittableRandom(7);
+        game.revealCell(side / 2, side / 2);
+        for (int i = 0; i < 300 && !game.isGameOver(); i++) {
+            int row = random.nextInt(side);
+            int col = random.nextInt(side);
+            byte packed = game.getPackedCell(row, col);
+            if ((packed & Cell.REVEALED_BIT) != 0) continue;
+            if ((packed & Cell.MINE_BIT) != 0) game.toggleFlag(row, col);
+            else game.revealCell(row, col);
+        }
+        view.refresh();
+
+        // One more move: the view only looks at the cells it changed
+        long refreshNanos = Long.MAX_VALUE;
+        for (int i = 0; i < 20 && !game.isGameOver(); i++) {
+            int row = random.nextInt(side);
+            int col = random.nextInt(side);
+            if ((game.getPackedCell(row, col) & (Cell.MINE_BIT | Cell.REVEALED_BIT)) != 0) continue;
+            game.revealCell(row, col);
+            start = System.nanoTime();
+            view.refresh();
+            refreshNanos = Math.min(refreshNanos, System.nanoTime() - start);
+        }
+        System.out.printf("refresh after one move: %.3f ms%n", refreshNanos / 1e6);
+
+        // Zoom out to the whole board and back in, around a few points
+        BufferedImage frame = new BufferedImage(VIEW_WIDTH, VIEW_HEIGHT, BufferedImage.TYPE_INT_RGB);
+        int[][] anchors = {{VIEW_WIDTH / 2, VIEW_HEIGHT / 2}, {100, 80}, {VIEW_WIDTH - 50, VIEW_HEIGHT - 50}};
+        for (int warmup = 0; warmup < 2; warmup++) sweep(view, frame, anchors);
+        double[] times = sweep(view, frame, anchors);
+        Arrays.sort(times);
+        double total = 0;
+        int overBudget = 0;
+        for (double t : times) {
+            total += t;
+            if (t > FRAME_BUDGET_MS) overBudget++;
+        }
+        System.out.printf("%d zoom frames: mean %.2f ms, median %.2f ms, 99th %.2f ms, worst %.2f ms (%.0f fps mean), %d over %.1f ms%n",
+                times.length, total / times.length, times[times.length / 2], times[times.length * 99 / 100],
+                times[times.length - 1], 1000 * times.length / total, overBudget, FRAME_BUDGET_MS);
+
+        // Event-driven updates paint the same pixels as a view that scanned the whole game
+        BoardPanel fresh = new BoardPanel(game, images, null);
+        fresh.setSize(VIEW_WIDTH, VIEW_HEIGHT);
+        for (double factor : new double[]{1e-6, 3, 20, 4, 1.5}) {  // Whole board first, so both views line up
+            view.zoom(VIEW_WIDTH / 2, VIEW_HEIGHT / 2, factor);
+            fresh.zoom(VIEW_WIDTH / 2, VIEW_HEIGHT / 2, factor);
+            if (!Arrays.equals(render(view, frame), render(fresh, frame))) {
+                System.out.println("FAIL: updated view differs from a new one at " + view.getPitch() + " px per cell");
+                System.exit(1);
+            }
+        }
+        view.detach();
+        fresh.detach();
+        System.out.println("updated view matches a new view at every zoom level");
+    }
+
+    // Paint one frame per wheel notch, out and back in around each anchor; frame times in ms
+    private static double[] sweep(BoardPanel view, BufferedImage frame, int[][] anchors) {
+        double[] times = new double[anchors.length * 2 * NOTCHES];
+        int count = 0;
+        for (int[] anchor : anchors) {
+            for (int direction : new int[]{-1, 1}) {
+                for (int notch = 0; notch < NOTCHES; notch++) {
+                    long start = System.nanoTime();
+                    view.zoom(anchor[0], anchor[1], Math.pow(1.25, direction));
+                    paint(view, frame);
+                    times[count++] = (System.nanoTime() - start) / 1e6;
+                }
+            }
+        }
+        return times;
+    }
+
+    private static void paint(BoardPanel view, BufferedImage frame) {
+        Graphics2D g = frame.createGraphics();
+        g.setClip(0, 0, VIEW_WIDTH, VIEW_HEIGHT);
+        view.paint(g);
+        g.dispose();
+    }
+
+    private static int[] render(BoardPanel view, BufferedImage frame) {
+        paint(view, frame);
+        return frame.getRGB(0, 0, VIEW_WIDTH, VIEW_HEIGHT, null, 0, VIEW_WIDTH);
+    }
+}
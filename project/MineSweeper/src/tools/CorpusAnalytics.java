@@ -0,0 +1,223 @@
+package tools;
+
+import game.GameCorpusReader;
+import game.GameRecord;
+import game.Move;
+import game.Topology;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+// Summary statistics over recorded game corpora (see GameRecordWriter and GameCorpusGenerator)
+// Every thread claims blocks of games, reads them into one reused record and adds them to its own
+// partial statistics; the partials are merged at the end. Memory stays constant however big the corpus.
+// Reports win rate per board configuration, a heatmap of mine hits, cascade sizes and when undo is used.
+// Usage: java tools.CorpusAnalytics [--threads n] file...
+public class CorpusAnalytics {
+    private static final int CASCADE_BUCKETS = 32;  // Bucket 0 = no cells, bucket b = 2^(b-1) .. 2^b - 1 cells
+    private static final int PROGRESS_BUCKETS = 10; // Undo position as a tenth of the game's moves
+    private static final String SHADES = " .:-=+*#%@";
+
+    // Games of one board configuration
+    private static final class ConfigStats {
+        final int rows;
+        final int cols;
+        final int mines;
+        final Topology topology;
+        final long[] hits;  // Mine hits per cell (row * cols + col)
+        long games;
+        long wins;
+        long losses;
+        long moves;
+
+        ConfigStats(int rows, int cols, int mines, Topology topology) {
+            this.rows = rows;
+            this.cols = cols;
+            this.mines = mines;
+            this.topology = topology;
+            this.hits = new long[rows * cols];
+        }
+
+        void merge(ConfigStats other) {
+            games += other.games;
+            wins += other.wins;
+            losses += other.losses;
+            moves += other.moves;
+            for (int i = 0; i < hits.length; i++) hits[i] += other.hits[i];
+        }
+
+        String name() {
+            return rows + "x" + cols + "/" + mines + " " + topology.name();
+        }
+    }
+
+    // Statistics gathered by one thread, merged at the end
+    private static final class Partial {
+        final Map<Long, ConfigStats> configs = new HashMap<>();
+        final long[] cascades = new long[CASCADE_BUCKETS];
+        final long[] undoProgress = new long[PROGRESS_BUCKETS];
+        long games;
+        long moves;
+        long undos;
+        long gamesWithUndo;
+        long undosAfterHit;
+        long redos;
+        long bytes;
+
+        void add(GameRecord game) {
+            long key = (long) game.getRows() << 40 | (long) game.getCols() << 24 | (long) game.getMines() << 4
+                    | game.getTopology().ordinal();
+            ConfigStats config = configs.get(key);
+            if (config == null) {
+                config = new ConfigStats(game.getRows(), game.getCols(), game.getMines(), game.getTopology());
+                configs.put(key, config);
+            }
+            int count = game.getMoveCount();
+            config.games++;
+            config.moves += count;
+            if (game.getOutcome() == GameRecord.WON) config.wins++;
+            else if (game.getOutcome() == GameRecord.LOST) config.losses++;
+            games++;
+            moves += count;
+
+            boolean usedUndo = false;
+            boolean afterHit = false;
+            for (int i = 0; i < count; i++) {
+                Move.Type type = game.getMoveType(i);
+                if (type == Move.Type.REVEAL || type == Move.Type.CHORD) {
+                    int revealed = game.getRevealedCount(i);
+                    cascades[revealed == 0 ? 0 : Math.min(CASCADE_BUCKETS - 1, 32 - Integer.numberOfLeadingZeros(revealed))]++;
+                    if (game.getHitRow(i) >= 0) {
+                        config.hits[game.getHitRow(i) * config.cols + game.getHitCol(i)]++;
+                        afterHit = true;
+                        continue;
+                    }
+                } else if (type == Move.Type.UNDO) {
+                    undos++;
+                    usedUndo = true;
+                    if (afterHit) undosAfterHit++;
+                    undoProgress[(int) ((long) i * PROGRESS_BUCKETS / count)]++;
+                } else if (type == Move.Type.REDO) {
+                    redos++;
+                }
+                afterHit = false;
+            }
+            if (usedUndo) gamesWithUndo++;
+        }
+
+        void merge(Partial other) {
+            for (Map.Entry<Long, ConfigStats> entry : other.configs.entrySet()) {
+                ConfigStats mine = configs.get(entry.getKey());
+                if (mine == null) configs.put(entry.getKey(), entry.getValue());
+                else mine.merge(entry.getValue());
+            }
+            for (int i = 0; i < CASCADE_BUCKETS; i++) cascades[i] += other.cascades[i];
+            for (int i = 0; i < PROGRESS_BUCKETS; i++) undoProgress[i] += other.undoProgress[i];
+            games += other.games;
+            moves += other.moves;
+            undos += other.undos;
+            gamesWithUndo += other.gamesWithUndo;
+            undosAfterHit += other.undosAfterHit;
+            redos += other.redos;
+            bytes += other.bytes;
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        int threads = Runtime.getRuntime().availableProcessors();
+        List<GameCorpusReader> readers = new ArrayList<>();
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("--threads")) threads = Integer.parseInt(args[++i]);
+            else readers.add(new GameCorpusReader(Path.of(args[i])));
+        }
+        if (readers.isEmpty()) {
+            System.err.println("Usage: java tools.CorpusAnalytics [--threads n] file...");
+            System.exit(2);
+        }
+
+        long start = System.nanoTime();
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        List<Future<Partial>> partials = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            partials.add(pool.submit(() -> {
+                Partial partial = new Partial();
+                GameRecord record = new GameRecord();
+                ByteBuffer block = null;
+                for (GameCorpusReader reader : readers) {
+                    while ((block = reader.nextBlock(block)) != null) {
+                        partial.bytes += block.remaining() + 4;
+                        while (block.hasRemaining()) {
+                            record.readFrom(block);
+                            partial.add(record);
+                        }
+                    }
+                }
+                return partial;
+            }));
+        }
+        Partial total = new Partial();
+        for (Future<Partial> partial : partials) total.merge(partial.get());
+        pool.shutdown();
+        for (GameCorpusReader reader : readers) reader.close();
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        report(total, seconds, threads);
+    }
+
+    private static void report(Partial total, double seconds, int threads) {
+        System.out.printf("%,d games, %,d moves, %.1f MB in %.2f s on %d threads (%,.0f games/min)%n%n",
+                total.games, total.moves, total.bytes / 1e6, seconds, threads, total.games / seconds * 60);
+
+        List<ConfigStats> configs = new ArrayList<>(total.configs.values());
+        configs.sort((a, b) -> Long.compare(b.games, a.games));
+        System.out.println("Win rate by configuration");
+        for (ConfigStats config : configs) {
+            System.out.printf("  %-22s %,12d games  %5.1f%% won  %5.1f%% lost  %5.1f moves/game%n", config.name(), config.games,
+                    100.0 * config.wins / config.games, 100.0 * config.losses / config.games, (double) config.moves / config.games);
+        }
+
+        ConfigStats busiest = configs.get(0);
+        long maxHits = 1;
+        int hottest = 0;
+        for (int i = 0; i < busiest.hits.length; i++) {
+            if (busiest.hits[i] > maxHits) {
+                maxHits = busiest.hits[i];
+                hottest = i;
+            }
+        }
+        System.out.printf("%nMine hits on %s (darker = more, hottest cell (%d, %d) with %,d hits)%n",
+                busiest.name(), hottest / busiest.cols, hottest % busiest.cols, maxHits);
+        for (int row = 0; row < busiest.rows; row++) {
+            StringBuilder line = new StringBuilder("  ");
+            for (int col = 0; col < busiest.cols; col++) {
+                long hits = busiest.hits[row * busiest.cols + col];
+                line.append(SHADES.charAt((int) (hits * (SHADES.length() - 1) / maxHits)));
+            }
+            System.out.println(line);
+        }
+
+        System.out.println("\nCells revealed per reveal");
+        long reveals = 0;
+        for (long count : total.cascades) reveals += count;
+        for (int bucket = 0; bucket < CASCADE_BUCKETS; bucket++) {
+            if (total.cascades[bucket] == 0) continue;
+            String range = bucket == 0 ? "0 (mine)" : bucket == 1 ? "1" : (1 << (bucket - 1)) + "-" + ((1 << bucket) - 1);
+            System.out.printf("  %-10s %,14d  %5.1f%%%n", range, total.cascades[bucket], 100.0 * total.cascades[bucket] / reveals);
+        }
+
+        System.out.printf("%nUndo: %,d undos and %,d redos; %.1f%% of games use undo, %.1f%% of undos take back a mine hit%n",
+                total.undos, total.redos, 100.0 * total.gamesWithUndo / total.games,
+                total.undos == 0 ? 0 : 100.0 * total.undosAfterHit / total.undos);
+        StringBuilder progress = new StringBuilder("  by game progress:");
+        for (int bucket = 0; bucket < PROGRESS_BUCKETS; bucket++) {
+            progress.append(String.format(" %d%%", total.undos == 0 ? 0 : Math.round(100.0 * total.undoProgress[bucket] / total.undos)));
+        }
+        System.out.println(progress + "  (first tenth of the moves .. last tenth)");
+    }
+}
@@ -0,0 +1,94 @@
+package tools;
+
+import game.GameRecordWriter;
+import game.GameView;
+import game.MinesweeperGame;
+import game.NeighborTable;
+import game.Topology;
+import java.nio.file.Path;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Writes a corpus of bot-played games for CorpusAnalytics
+// The bot plays single-cell logic (reveal around satisfied numbers, flag when the covered neighbors must all
+// be mines) and guesses at random otherwise; after hitting a mine it sometimes undoes and keeps going.
+// Usage: java tools.GameCorpusGenerator [games] [file] [threads]
+public class GameCorpusGenerator {
+    private static final int[][] CONFIGS = {{8, 8, 10}, {12, 12, 20}, {16, 16, 40}, {16, 30, 99}};
+    private static final int UNDO_PERCENT = 30;  // Chance of undoing a mine hit
+    private static final int MAX_MOVES = 1000;
+
+    public static void main(String[] args) throws Exception {
+        long games = args.length > 0 ? Long.parseLong(args[0]) : 1_000_000;
+        Path file = Path.of(args.length > 1 ? args[1] : "games.msgr");
+        int threads = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+
+        AtomicLong next = new AtomicLong();
+        long start = System.nanoTime();
+        try (GameRecordWriter writer = new GameRecordWriter(file)) {
+            ExecutorService pool = Executors.newFixedThreadPool(threads);
+            for (int t = 0; t < threads; t++) {
+                SplittableRandom random = new SplittableRandom(t);
+                pool.submit(() -> {
+                    while (next.getAndIncrement() < games) {
+                        int[] config = CONFIGS[random.nextInt(CONFIGS.length)];
+                        Topology topology = random.nextInt(4) == 0 ? Topology.values()[random.nextInt(Topology.values().length)]
+                                : Topology.CLASSIC;
+                        writer.write(play(config[0], config[1], config[2], topology, random).toReplay());
+                    }
+                    return null;
+                });
+            }
+            pool.shutdown();
+            pool.awaitTermination(1, TimeUnit.DAYS);
+        }
+        System.out.printf("wrote %,d games to %s (%.1f MB) in %.1f s%n", games, file,
+                file.toFile().length() / 1e6, (System.nanoTime() - start) / 1e9);
+    }
+
+    private static MinesweeperGame play(int rows, int cols, int mines, Topology topology, SplittableRandom random) {
+        MinesweeperGame game = new MinesweeperGame(rows, cols, mines, random.nextLong(), topology);
+        GameView view = game.getView();
+        for (int moves = 0; moves < MAX_MOVES && !game.isGameOver(); moves++) {
+            if (!logicMove(game, view)) {
+                int row = random.nextInt(rows);
+                int col = random.nextInt(cols);
+                if (view.isRevealed(row, col) || view.isFlagged(row, col)) continue;
+                game.revealCell(row, col);
+            }
+            if (game.isGameOver() && !game.isGameWon() && random.nextInt(100) < UNDO_PERCENT) {
+                game.undo();
+            }
+        }
+        return game;
+    }
+
+    // Make one move that single-cell logic proves (false if there is none)
+    private static boolean logicMove(MinesweeperGame game, GameView view) {
+        if (view.isFirstMove()) return false;
+        NeighborTable table = view.getNeighborTable();
+        int cols = view.getCols();
+        for (int index = 0; index < table.getCellCount(); index++) {
+            int number = view.getAdjacentMines(index / cols, index % cols);
+            if (number <= 0) continue;
+            int flagged = 0;
+            int covered = -1;
+            int coveredCount = 0;
+            for (int p = table.start(index); p < table.end(index); p++) {
+                int n = table.neighbor(p);
+                if (view.isFlagged(n / cols, n % cols)) flagged++;
+                else if (!view.isRevealed(n / cols, n % cols)) {
+                    covered = n;
+                    coveredCount++;
+                }
+            }
+            if (coveredCount == 0) continue;
+            if (flagged == number) return game.revealCell(covered / cols, covered % cols);
+            if (flagged + coveredCount == number) return game.toggleFlag(covered / cols, covered % cols);
+        }
+        return false;
+    }
+}
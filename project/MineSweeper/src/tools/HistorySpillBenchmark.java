@@ -0,0 +1,81 @@
+package tools;
+
+import game.HistoryTree;
+import game.MinesweeperGame;
+import java.util.Arrays;
+import java.util.Random;
+
+// Plays a marathon game on a huge board, sampling heap use as the undo history grows,
+// then holds Ctrl+Z all the way back, timing undos of moves in the heap and of moves spilled to disk
+// Compare with spilling effectively disabled in a second JVM:
+//   java -Xmx1g tools.HistorySpillBenchmark
+//   java -Xmx1g -Dminesweeper.historyInMemory=100000000 tools.HistorySpillBenchmark
+// Usage: java tools.HistorySpillBenchmark [side] [moves]
+public class HistorySpillBenchmark {
+    private static final int SAMPLES = 10;
+
+    public static void main(String[] args) {
+        int side = args.length > 0 ? Integer.parseInt(args[0]) : 1000;
+        int moves = args.length > 1 ? Integer.parseInt(args[1]) : 200_000;
+        MinesweeperGame game = new MinesweeperGame(side, side, side * side / 5, 1);
+        Random random = new Random(2);
+
+        System.out.printf("board %dx%d, %,d moves, %,d moves kept in the heap%n", side, side, moves, HistoryTree.DEFAULT_RESIDENT_LIMIT);
+        System.out.println("    moves   heap MB  in heap  on disk   file MB");
+        long start = System.nanoTime();
+        int played = 0;
+        while (played < moves) {
+            int row = random.nextInt(side);
+            int col = random.nextInt(side);
+            if (game.isGameOver()) {
+                game.undo();  // Take back the mine and keep playing (the next move starts a branch)
+            } else if (random.nextInt(10) < 7 ? game.revealCell(row, col) : game.toggleFlag(row, col)) {
+                played++;
+                if (played % (moves / SAMPLES) == 0) sample(game, played);
+            }
+        }
+        double playSeconds = (System.nanoTime() - start) / 1e9;
+
+        // Hold Ctrl+Z until the start of the game
+        HistoryTree history = game.getHistory();
+        long[] residentNanos = new long[history.getCurrent().getDepth()];
+        long[] spilledNanos = new long[residentNanos.length];
+        int residentUndos = 0;
+        int spilledUndos = 0;
+        long pageInsBefore = history.getPageIns();
+        start = System.nanoTime();
+        while (history.canUndo()) {
+            boolean resident = history.isResident(history.getCurrent());
+            long before = System.nanoTime();
+            game.undo();
+            long nanos = System.nanoTime() - before;
+            if (resident) residentNanos[residentUndos++] = nanos;
+            else spilledNanos[spilledUndos++] = nanos;
+        }
+        double undoSeconds = (System.nanoTime() - start) / 1e9;
+
+        System.out.printf("played in %.1f s, undid everything in %.1f s%n", playSeconds, undoSeconds);
+        System.out.println("undo of a move in the heap:   " + summary(residentNanos, residentUndos));
+        System.out.println("undo of a move on disk:       " + summary(spilledNanos, spilledUndos));
+        System.out.printf("disk reads: %,d (%,d more moves loaded by read-ahead)%n",
+                history.getPageIns() - pageInsBefore, history.getReadAheadLoads());
+    }
+
+    private static void sample(MinesweeperGame game, int played) {
+        System.gc();
+        Runtime runtime = Runtime.getRuntime();
+        HistoryTree history = game.getHistory();
+        System.out.printf("%9d %9.1f %8d %8d %9.1f%n", played, (runtime.totalMemory() - runtime.freeMemory()) / 1e6,
+                history.getResidentCount(), history.getSpilledCount(), history.getSpillFileBytes() / 1e6);
+    }
+
+    private static String summary(long[] nanos, int count) {
+        if (count == 0) return "none";
+        long[] sorted = Arrays.copyOf(nanos, count);
+        Arrays.sort(sorted);
+        double total = 0;
+        for (long value : sorted) total += value;
+        return String.format("%,d undos, avg %.1f us, p50 %.1f us, p99 %.1f us, max %.1f us", count, total / count / 1e3,
+                sorted[count / 2] / 1e3, sorted[(int) (count * 0.99)] / 1e3, sorted[count - 1] / 1e3);
+    }
+}
@@ -0,0 +1,105 @@
+package tools;
+
+import game.Cell;
+import game.HintEngine;
+import game.MinesweeperGame;
+import game.OffHeapCellStorage;
+import game.Topology;
+import gui.BoardPanel;
+import gui.ImageLoader;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.function.Supplier;
+import utils.MemoryEstimator;
+
+// Compares MemoryEstimator's projections with the heap games really retain
+// Each case builds a game with its board view (and hint engine for in-memory boards), makes the first click
+// and measures the heap after a full collection; smaller cases then reveal every safe cell and measure again.
+// Exits with 1 if a measurement is off by more than the tolerance.
+// Run with: java -Xmx2g tools.MemoryEstimateCheck [tolerancePercent]
+public class MemoryEstimateCheck {
+    // rows, cols, mine percent, backend (0 = heap, 1 = direct), play the whole game (1) or only the first click (0)
+    private static final int[][] CASES = {
+            {200, 200, 16, 0, 1}, {300, 300, 16, 0, 1}, {300, 300, 5, 0, 1}, {250, 400, 20, 1, 1},
+            {1000, 1000, 16, 0, 0}, {1000, 1000, 5, 0, 0}, {2000, 2000, 16, 0, 0}, {2000, 2000, 16, 1, 0},
+            {3000, 3000, 2, 1, 0}};
+
+    public static void main(String[] args) throws Exception {
+        System.setProperty("java.awt.headless", "true");
+        double tolerance = (args.length > 0 ? Double.parseDouble(args[0]) : 15) / 100;
+        long maxHeap = Runtime.getRuntime().maxMemory();
+        MemoryEstimator estimator = new MemoryEstimator(maxHeap, maxHeap, false);
+        ImageLoader images = new ImageLoader();
+        measure(() -> new MinesweeperGame(20, 20, 40), images, false);  // Load images and the sprite atlas first
+
+        boolean ok = true;
+        System.out.printf("%-16s %-16s %12s %12s %7s %12s %12s %7s%n", "board", "backend",
+                "start MB", "projected", "error", "game MB", "projected", "error");
+        for (int[] c : CASES) {
+            int rows = c[0];
+            int cols = c[1];
+            int mines = rows * cols * c[2] / 100;
+            MemoryEstimator.Backend backend = c[3] == 0 ? MemoryEstimator.Backend.HEAP : MemoryEstimator.Backend.DIRECT;
+            MemoryEstimator.Estimate estimate = estimator.estimate(rows, cols, mines, Topology.CLASSIC, backend);
+
+            long[] measured = measure(() -> backend == MemoryEstimator.Backend.HEAP
+                    ? new MinesweeperGame(rows, cols, mines, 1, Topology.CLASSIC)
+                    : new MinesweeperGame(rows, cols, mines, 1, Topology.CLASSIC, OffHeapCellStorage.allocate((long) rows * cols)),
+                    images, c[4] == 1);
+
+            double startError = (double) measured[0] / estimate.getStartHeapBytes() - 1;
+            String line = String.format("%-16s %-16s %12.1f %12.1f %+6.1f%%", rows + "x" + cols + " " + c[2] + "%", backend,
+                    measured[0] / 1e6, estimate.getStartHeapBytes() / 1e6, 100 * startError);
+            ok &= Math.abs(startError) <= tolerance;
+            if (c[4] == 1) {
+                double gameError = (double) measured[1] / estimate.getGameHeapBytes() - 1;
+                line += String.format(" %12.1f %12.1f %+6.1f%%", measured[1] / 1e6, estimate.getGameHeapBytes() / 1e6, 100 * gameError);
+                ok &= Math.abs(gameError) <= tolerance;
+            }
+            System.out.println(line);
+        }
+        int side = estimator.getMaxSide(0.16, Topology.CLASSIC);
+        System.out.printf("largest square board at 16%% for this heap: %dx%d (%s)%n", side, side,
+                estimator.choose(side, side, side * side * 16 / 100, Topology.CLASSIC));
+        if (!ok) {
+            System.out.println("FAIL: projection off by more than " + Math.round(tolerance * 100) + "%");
+            System.exit(1);
+        }
+        System.out.println("all projections within " + Math.round(tolerance * 100) + "%");
+    }
+
+    // Heap retained by a game after its first click, and after revealing every safe cell (0 if not played)
+    private static long[] measure(Supplier<MinesweeperGame> newGame, ImageLoader images, boolean playAll) {
+        long before = usedHeap();
+        MinesweeperGame game = newGame.get();
+        BoardPanel view = new BoardPanel(game, images, null);
+        HintEngine hints = game.getView().getNeighborTable() != null ? new HintEngine(game.getView(), 5) : null;
+        int rows = game.getRows();
+        int cols = game.getCols();
+        game.revealCell(rows / 2, cols / 2);
+        if (hints != null) hints.findHint();
+        view.refresh();
+        long start = usedHeap() - before;
+
+        long whole = 0;
+        if (playAll) {
+            for (int row = 0; row < rows && !game.isGameOver(); row++) {
+                for (int col = 0; col < cols && !game.isGameOver(); col++) {
+                    byte packed = game.getPackedCell(row, col);
+                    if ((packed & (Cell.MINE_BIT | Cell.REVEALED_BIT)) == 0) game.revealCell(row, col);
+                }
+            }
+            view.refresh();
+            whole = usedHeap() - before;
+        }
+        if (hints != null) hints.detach();
+        if (view.getWidth() < 0 || game.getRows() < 0) System.out.println();  // Keep both reachable until measured
+        return new long[]{start, whole};
+    }
+
+    private static long usedHeap() {
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        for (int i = 0; i < 3; i++) memory.gc();
+        return memory.getHeapMemoryUsage().getUsed();
+    }
+}
@@ -0,0 +1,133 @@
+package tools;
+
+import game.Board;
+import game.HeapCellStorage;
+import game.Topology;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+// Checks tiled mine generation (Board.placeMines with a seed) and compares it with placing mines one by one
+// - the same seed gives the same layout on 1, 2, ... threads
+// - every adjacent count matches a direct count, on every topology and on boards with thin tiles
+//   (for mines placed either way, since both are counted tile by tile)
+// - mines are spread evenly across rows (chi-square over many seeds, rows cross tile borders)
+// then times both ways of placing mines on a large board.
+// Run with: java tools.MineGenerationBenchmark [side] [maxThreads]
+public class MineGenerationBenchmark {
+    public static void main(String[] args) throws Exception {
+        int side = args.length > 0 ? Integer.parseInt(args[0]) : 5000;
+        int maxThreads = args.length > 1 ? Integer.parseInt(args[1]) : Math.max(4, Runtime.getRuntime().availableProcessors());
+
+        // Same seed, same layout, whatever the thread count
+        long expected = 0;
+        for (int threads = 1; threads <= maxThreads; threads *= 2) {
+            long hash = hash(placeIn(threads, 700, 900, 700 * 900 / 6, Topology.CLASSIC, 7));
+            if (threads == 1) expected = hash;
+            else if (hash != expected) fail("layout differs on " + threads + " threads");
+        }
+        System.out.println("same layout on 1.." + maxThreads + " threads");
+
+        // Adjacent counts against a direct count
+        int[][] shapes = {{300, 1000}, {7, 70000}, {130, 600}, {3, 3}, {1, 40}, {40, 1}};
+        for (Topology topology : Topology.values()) {
+            for (int[] shape : shapes) {
+                int mines = Math.max(0, shape[0] * shape[1] - 9) / 5;
+                checkCounts(placeIn(maxThreads, shape[0], shape[1], mines, topology, shape[0] + shape[1]));
+                Board oneByOne = new Board(shape[0], shape[1], mines, topology);  // Counted by the same tiles
+                oneByOne.placeMines(shape[0] / 2, shape[1] / 2, new Random(shape[0] + shape[1]));
+                checkCounts(oneByOne);
+            }
+        }
+        System.out.println("adjacent counts match on every topology");
+
+        // Uniformity: mines per row over many seeds against the free cells in each row
+        int rows = 70;
+        int cols = 2048;  // 32 rows per tile, so rows cross tile borders
+        int mines = rows * cols / 5;
+        int seeds = 40;
+        long[] hits = new long[rows];
+        for (int seed = 0; seed < seeds; seed++) {
+            Board board = placeIn(maxThreads, rows, cols, mines, Topology.CLASSIC, seed);
+            for (int row = 0; row < rows; row++) {
+                for (int col = 0; col < cols; col++) {
+                    if (board.isMine(row, col)) hits[row]++;
+                }
+            }
+        }
+        double chiSquare = 0;
+        for (int row = 0; row < rows; row++) {
+            int free = cols - (Math.abs(row - rows / 2) <= 1 ? 3 : 0);  // The safe zone around the center click
+            double expectedHits = (double) seeds * mines * free / (rows * cols - 9);
+            chiSquare += (hits[row] - expectedHits) * (hits[row] - expectedHits) / expectedHits;
+        }
+        System.out.printf("mines per row: chi-square %.1f over %d rows (99.99%% bound ~120)%n", chiSquare, rows);
+        if (chiSquare > 120) fail("mines are not spread evenly");
+
+        // Timing on a large board without a neighbor table, like a giant off-heap game
+        int largeMines = (int) Math.min(Integer.MAX_VALUE, (long) side * side * 16 / 100);
+        long start = System.nanoTime();
+        Board oneByOne = new Board(side, side, largeMines, Topology.CLASSIC, new HeapCellStorage((long) side * side));
+        oneByOne.placeMines(side / 2, side / 2, new Random(1));
+        long oneByOneNanos = System.nanoTime() - start;
+        System.out.printf("%dx%d, %,d mines: one by one %.0f ms%n", side, side, largeMines, oneByOneNanos / 1e6);
+        oneByOne = null;
+        for (int threads = 1; threads <= maxThreads; threads *= 2) {
+            start = System.nanoTime();
+            placeIn(threads, side, side, largeMines, null, 1);
+            System.out.printf("%dx%d, %,d mines: tiled on %d threads %.0f ms%n", side, side, largeMines, threads,
+                    (System.nanoTime() - start) / 1e6);
+        }
+        System.out.println("(" + Runtime.getRuntime().availableProcessors() + " processors available)");
+    }
+
+    // Build a board and place mines with the seed inside a pool of the given size
+    // A null topology means a classic board without a neighbor table
+    private static Board placeIn(int threads, int rows, int cols, int mines, Topology topology, long seed) throws Exception {
+        Board board = topology == null
+                ? new Board(rows, cols, mines, Topology.CLASSIC, new HeapCellStorage((long) rows * cols))
+                : new Board(rows, cols, mines, topology);
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try {
+            pool.submit(() -> board.placeMines(rows / 2, cols / 2, seed)).get();
+        } finally {
+            pool.shutdown();
+        }
+        return board;
+    }
+
+    private static void checkCounts(Board board) {
+        int mines = 0;
+        for (int row = 0; row < board.getRows(); row++) {
+            for (int col = 0; col < board.getCols(); col++) {
+                if (board.isMine(row, col)) {
+                    mines++;
+                    continue;
+                }
+                int around = 0;
+                for (int[] pos : board.getAdjacentPositions(row, col)) {
+                    if (board.isMine(pos[0], pos[1])) around++;
+                }
+                if (board.getAdjacentMines(row, col) != around) {
+                    fail(board.getTopology() + " " + board.getRows() + "x" + board.getCols() + ": cell (" + row + ", "
+                            + col + ") says " + board.getAdjacentMines(row, col) + ", has " + around);
+                }
+            }
+        }
+        if (mines != board.getTotalMines()) fail("placed " + mines + " of " + board.getTotalMines() + " mines");
+    }
+
+    private static long hash(Board board) {
+        long hash = 0;
+        for (int row = 0; row < board.getRows(); row++) {
+            for (int col = 0; col < board.getCols(); col++) {
+                hash = hash * 31 + board.getPacked(row, col);
+            }
+        }
+        return hash;
+    }
+
+    private static void fail(String message) {
+        System.out.println("FAIL: " + message);
+        System.exit(1);
+    }
+}
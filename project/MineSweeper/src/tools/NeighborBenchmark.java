@@ -0,0 +1,128 @@
+package tools;
+
+import game.NeighborTable;
+import game.Topology;
+import java.util.Arrays;
+import java.util.Random;
+
+// Compares neighbor iteration with bounds-checked nested loops against the precomputed table
+// on the classic grid: counting adjacent mines for every cell, then a flood fill from the center
+// Run with: java tools.NeighborBenchmark [side]
+public class NeighborBenchmark {
+    public static void main(String[] args) {
+        int side = args.length > 0 ? Integer.parseInt(args[0]) : 1000;
+        int size = side * side;
+        boolean[] mines = new boolean[size];
+        Random random = new Random(1);
+        for (int i = 0; i < size; i++) {
+            mines[i] = random.nextInt(100) < 16;  // Expert-like density
+        }
+        mines[size / 2 + side / 2] = false;  // Start the flood on a safe cell
+
+        long start = System.nanoTime();
+        NeighborTable table = new NeighborTable(side, side, Topology.CLASSIC);
+        long buildNanos = System.nanoTime() - start;
+        System.out.printf("table build: %.2f ms, %.2f MB%n", buildNanos / 1e6, table.getMemoryBytes() / 1e6);
+        System.out.printf("%-8s %14s %14s %14s %14s%n", "run", "count loop ms", "count table ms",
+                "flood loop ms", "flood table ms");
+
+        byte[] counts = new byte[size];
+        int[] queue = new int[size];
+        boolean[] visited = new boolean[size];
+        long checksum = 0;
+        for (int run = 0; run < 5; run++) {  // Early runs warm up the JIT
+            long t0 = System.nanoTime();
+            countWithLoops(mines, counts, side);
+            long t1 = System.nanoTime();
+            checksum += counts[size / 3];
+            countWithTable(mines, counts, table);
+            long t2 = System.nanoTime();
+            checksum += counts[size / 3];
+            checksum += floodWithLoops(counts, mines, visited, queue, side, size / 2 + side / 2);
+            long t3 = System.nanoTime();
+            checksum += floodWithTable(counts, mines, visited, queue, table, size / 2 + side / 2);
+            long t4 = System.nanoTime();
+            System.out.printf("%-8d %14.2f %14.2f %14.2f %14.2f%n", run,
+                    (t1 - t0) / 1e6, (t2 - t1) / 1e6, (t3 - t2) / 1e6, (t4 - t3) / 1e6);
+        }
+        System.out.println("checksum: " + checksum);  // Keeps the work from being optimized away
+    }
+
+    private static void countWithLoops(boolean[] mines, byte[] counts, int side) {
+        for (int row = 0; row < side; row++) {
+            for (int col = 0; col < side; col++) {
+                int count = 0;
+                for (int i = -1; i <= 1; i++) {
+                    for (int j = -1; j <= 1; j++) {
+                        int r = row + i;
+                        int c = col + j;
+                        if ((i != 0 || j != 0) && r >= 0 && r < side && c >= 0 && c < side && mines[r * side + c]) {
+                            count++;
+                        }
+                    }
+                }
+                counts[row * side + col] = (byte) count;
+            }
+        }
+    }
+
+    private static void countWithTable(boolean[] mines, byte[] counts, NeighborTable table) {
+        for (int index = 0; index < counts.length; index++) {
+            int count = 0;
+            for (int p = table.start(index); p < table.end(index); p++) {
+                if (mines[table.neighbor(p)]) count++;
+            }
+            counts[index] = (byte) count;
+        }
+    }
+
+    // Reveal-style flood: spread through zero cells, stop at numbers
+    private static int floodWithLoops(byte[] counts, boolean[] mines, boolean[] visited, int[] queue,
+                                      int side, int origin) {
+        Arrays.fill(visited, false);
+        int head = 0;
+        int tail = 0;
+        queue[tail++] = origin;
+        visited[origin] = true;
+        while (head < tail) {
+            int index = queue[head++];
+            if (counts[index] != 0) continue;
+            int row = index / side;
+            int col = index % side;
+            for (int i = -1; i <= 1; i++) {
+                for (int j = -1; j <= 1; j++) {
+                    int r = row + i;
+                    int c = col + j;
+                    if ((i == 0 && j == 0) || r < 0 || r >= side || c < 0 || c >= side) continue;
+                    int neighbor = r * side + c;
+                    if (!visited[neighbor] && !mines[neighbor]) {
+                        visited[neighbor] = true;
+                        queue[tail++] = neighbor;
+                    }
+                }
+            }
+        }
+        return tail;
+    }
+
+    private static int floodWithTable(byte[] counts, boolean[] mines, boolean[] visited, int[] queue,
+                                      NeighborTable table, int origin) {
+        Arrays.fill(visited, false);
+        int head = 0;
+        int tail = 0;
+        queue[tail++] = origin;
+        visited[origin] = true;
+        while (head < tail) {
+            int index = queue[head++];
+            if (counts[index] != 0) continue;
+            for (int p = table.start(index); p < table.end(index); p++) {
+                int neighbor = table.neighbor(p);
+                if (!visited[neighbor] && !mines[neighbor]) {
+                    visited[neighbor] = true;
+                    queue[tail++] = neighbor;
+                }
+            }
+        }
+        return tail;
+    }
+}
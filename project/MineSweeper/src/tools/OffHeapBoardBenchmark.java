@@ -0,0 +1,94 @@
+package tools;
+
+import game.Board;
+import game.CellStorage;
+import game.GameState;
+import game.HeapCellStorage;
+import game.OffHeapCellStorage;
+import game.Topology;
+import java.io.IOException;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+// Places mines and plays random reveals on a huge board with one storage backend,
+// then reports timings, where the cells live, heap use and GC activity
+// Run each backend in its own JVM to compare, e.g.
+//   java -Xmx64m tools.OffHeapBoardBenchmark mapped 100000
+//   java -Xmx64m -XX:MaxDirectMemorySize=2g tools.OffHeapBoardBenchmark direct 20000
+//   java -Xmx1g tools.OffHeapBoardBenchmark heap 20000
+// Usage: java tools.OffHeapBoardBenchmark heap|direct|mapped [side] [reveals] [file]
+public class OffHeapBoardBenchmark {
+    public static void main(String[] args) throws IOException {
+        String backend = args.length > 0 ? args[0] : "mapped";
+        int side = args.length > 1 ? Integer.parseInt(args[1]) : 20000;
+        int reveals = args.length > 2 ? Integer.parseInt(args[2]) : 100000;
+        Path file = args.length > 3 ? Path.of(args[3]) : null;
+        long cells = (long) side * side;
+        int mines = (int) Math.min(Integer.MAX_VALUE, cells * 16 / 100);  // Expert-like density
+
+        long start = System.nanoTime();
+        boolean tempFile = false;
+        CellStorage storage;
+        switch (backend) {
+            case "heap" -> storage = new HeapCellStorage(cells);
+            case "direct" -> storage = OffHeapCellStorage.allocate(cells);
+            case "mapped" -> {
+                if (file == null) {
+                    file = Files.createTempFile("minesweeper-cells", ".bin");
+                    tempFile = true;
+                }
+                storage = OffHeapCellStorage.map(file, cells);
+            }
+            default -> throw new IllegalArgumentException("Unknown backend: " + backend);
+        }
+        long allocateNanos = System.nanoTime() - start;
+
+        try {
+            Board board = new Board(side, side, mines, Topology.CLASSIC, storage);
+            start = System.nanoTime();
+            board.placeMines(side / 2, side / 2, 1L);  // Tiled, in parallel (see MineGenerationBenchmark)
+            long placeNanos = System.nanoTime() - start;
+
+            // Random clicks on covered safe cells, revealing whole openings like a real move would
+            Random random = new Random(2);
+            long revealedCells = 0;
+            start = System.nanoTime();
+            for (int i = 0; i < reveals; i++) {
+                int row = random.nextInt(side);
+                int col = random.nextInt(side);
+                if (board.isMine(row, col) || board.isRevealed(row, col)) continue;
+                revealedCells += board.reveal(row, col, new GameState());
+            }
+            long revealNanos = System.nanoTime() - start;
+
+            System.gc();
+            Runtime runtime = Runtime.getRuntime();
+            long heapUsed = runtime.totalMemory() - runtime.freeMemory();
+            long gcCount = 0;
+            long gcMillis = 0;
+            for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+                gcCount += Math.max(0, gc.getCollectionCount());
+                gcMillis += Math.max(0, gc.getCollectionTime());
+            }
+
+            System.out.printf("backend:          %s%n", backend);
+            System.out.printf("board:            %dx%d (%,d cells, %,d mines)%n", side, side, cells, mines);
+            System.out.printf("allocate:         %.1f ms%n", allocateNanos / 1e6);
+            System.out.printf("place mines:      %.1f ms%n", placeNanos / 1e6);
+            System.out.printf("reveals:          %.1f ms (%,d cells revealed)%n", revealNanos / 1e6, revealedCells);
+            System.out.printf("storage heap:     %.1f MB%n", storage.getHeapBytes() / 1e6);
+            System.out.printf("storage off-heap: %.1f MB%s%n", storage.getOffHeapBytes() / 1e6,
+                    "mapped".equals(backend) ? " (plus " + cells / 1_000_000 + " MB file in the page cache)" : "");
+            System.out.printf("heap used:        %.1f MB of %.1f MB max%n", heapUsed / 1e6, runtime.maxMemory() / 1e6);
+            System.out.printf("GC:               %d collections, %d ms%n", gcCount, gcMillis);
+        } finally {
+            storage.close();
+            if (tempFile) {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package tools;
+
+import game.Board;
+import game.GameState;
+import game.OpeningIndex;
+import java.util.Random;
+
+// Reports opening index build time and memory for large boards,
+// and the time to reveal the first click's opening through the index
+// Run with: java tools.OpeningIndexBenchmark [maxSide]
+public class OpeningIndexBenchmark {
+    public static void main(String[] args) {
+        int maxSide = args.length > 0 ? Integer.parseInt(args[0]) : 2000;
+        System.out.printf("%-12s %10s %10s %10s %10s %12s%n",
+                "board", "build ms", "index MB", "openings", "3BV", "reveal us");
+
+        for (int side = 100; side <= maxSide; side *= 2) {
+            int mines = side * side * 16 / 100;  // Expert-like density
+            for (int run = 0; run < 3; run++) {  // Last run is reported (after warm-up)
+                Board board = new Board(side, side, mines);
+                board.placeMines(side / 2, side / 2, new Random(run));
+                OpeningIndex index = board.getOpeningIndex();
+
+                // Time a reveal of the largest opening (the first click's opening)
+                long start = System.nanoTime();
+                int revealed = board.reveal(side / 2, side / 2, new GameState());
+                long revealNanos = System.nanoTime() - start;
+
+                if (run == 2) {
+                    System.out.printf("%-12s %10.2f %10.2f %10d %10d %12.1f  (%d cells)%n",
+                            side + "x" + side, index.getBuildNanos() / 1e6, index.getMemoryBytes() / 1e6,
+                            index.getOpeningCount(), index.get3BV(), revealNanos / 1e3, revealed);
+                }
+            }
+        }
+    }
+}
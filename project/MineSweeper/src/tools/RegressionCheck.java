@@ -0,0 +1,275 @@
+package tools;
+
+import game.Board;
+import game.BoardCode;
+import game.MineLayout;
+import game.MinesweeperGame;
+import game.NeighborTable;
+import game.OffHeapCellStorage;
+import game.Topology;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.BitSet;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.zip.CRC32;
+
+// Fixed-seed checks for bugs that have bitten before, complementing the random StressHarness
+// Board codes: layouts round-trip, and malformed, over-limit and hand-crafted hostile codes (valid checksum,
+// bad payload) are rejected. Tiled mine placement: exact mine count, safe first click, correct numbers,
+// the same layout whatever the thread count, flags kept on dense tiles, and per-band mine counts that
+// follow the hypergeometric split. Undo: taking back the first click restores the untouched board.
+// Exits with 1 on the first failure.
+// Run with: java tools.RegressionCheck
+public class RegressionCheck {
+    private static final int SPLIT_SEEDS = 200;  // Boards sampled for the hypergeometric split
+
+    public static void main(String[] args) throws Exception {
+        checkBoardCodes();
+        checkTiledPlacement();
+        checkFirstClickUndo();
+        System.out.println("all regression checks passed");
+    }
+
+    // Round trips, then codes that must never decode
+    private static void checkBoardCodes() {
+        SplittableRandom random = new SplittableRandom(7);
+        for (Topology topology : Topology.values()) {
+            for (int percent : new int[] {0, 1, 16, 33}) {
+                int rows = 1 + random.nextInt(60);
+                int cols = 1 + random.nextInt(60);
+                long[] mineCells = randomLayout((long) rows * cols, rows * cols * percent / 100, random);
+                String code = BoardCode.encode(rows, cols, topology, mineCells);
+                BoardCode decoded = BoardCode.decode(code);
+                if (decoded.getRows() != rows || decoded.getCols() != cols || decoded.getTopology() != topology
+                        || !Arrays.equals(decoded.getMineCells(), mineCells)) {
+                    fail("board code round trip changed " + rows + "x" + cols + " " + topology + ": " + code);
+                }
+
+                char[] damaged = code.toCharArray();
+                int at = random.nextInt(damaged.length - 1);  // The last character may only hold unused bits
+                damaged[at] = damaged[at] == 'A' ? 'B' : 'A';
+                expectRejected("damaged code", new String(damaged));
+                expectRejected("truncated code", code.substring(0, code.length() - 1));
+            }
+        }
+        expectRejected("empty code", "");
+        expectRejected("non-base64 code", "not a code!");
+        expectRejected("board beyond the size limit", BoardCode.encode(50000, 50000, Topology.CLASSIC, new long[0]));
+        expectRejected("board beyond the mine limit",
+                BoardCode.encode(10, 10, Topology.CLASSIC, randomLayout(100, 50, random)));
+
+        // Hand-built 10x10 codes with a valid checksum; the first proves the builder matches the format
+        BitSet bits = new BitSet();
+        int end = riceGap(bits, 0, 5, 0);
+        BoardCode single = BoardCode.decode(code(new int[] {1, 10, 10, 0, 1, 0, 0}, bits, end));
+        if (!Arrays.equals(single.getMineCells(), new long[] {5})) fail("hand-built code decoded wrong");
+
+        bits = new BitSet();
+        expectRejected("unknown version", code(new int[] {2, 10, 10, 0, 1, 0, 0}, bits, riceGap(bits, 0, 5, 0)));
+        bits = new BitSet();
+        expectRejected("gap past the last cell", code(new int[] {1, 10, 10, 0, 1, 0, 0}, bits, riceGap(bits, 0, 100, 0)));
+        bits = new BitSet();
+        end = riceGap(bits, 0, 5, 62);
+        end = riceGap(bits, end, Long.MAX_VALUE - 3, 62);  // 5 + 1 + this wraps around to a small cell
+        expectRejected("gap wrapping around", code(new int[] {1, 10, 10, 0, 2, 0, 62}, bits, end));
+        expectRejected("payload shorter than its mines", code(new int[] {1, 10, 10, 0, 10, 0, 3}, new BitSet(), 16));
+        bits = new BitSet();
+        bits.set(3);
+        bits.set(40);
+        bits.set(77);
+        expectRejected("bitmap with more mines than declared", code(new int[] {1, 10, 10, 0, 2, 1}, bits, 100));
+        System.out.println("board codes: round trips kept, malformed and hostile codes rejected");
+    }
+
+    // Mines on boards of several tiles (see BoardTiles)
+    private static void checkTiledPlacement() throws InterruptedException, ExecutionException {
+        int side = 400;  // 160,000 cells: three tiles
+        int mines = side * side * 16 / 100;
+        int center = side / 2;
+
+        for (long seed = 1; seed <= 3; seed++) {
+            Board board = placeIn(4, side, mines, seed);
+            Board alone = placeIn(1, side, mines, seed);
+
+            long[] mineCells = board.getMineCells();
+            if (mineCells.length != mines) fail("seed " + seed + " placed " + mineCells.length + " of " + mines + " mines");
+            if (!Arrays.equals(mineCells, alone.getMineCells())) fail("seed " + seed + " layout depends on the thread count");
+            if (board.isMine(center, center)) fail("seed " + seed + " put a mine on the first click");
+            for (int[] p : board.getAdjacentPositions(center, center)) {
+                if (board.isMine(p[0], p[1])) fail("seed " + seed + " put a mine next to the first click");
+            }
+            for (int row = 0; row < side; row++) {
+                for (int col = 0; col < side; col++) {
+                    if (board.isMine(row, col)) continue;
+                    int count = 0;
+                    for (int[] p : board.getAdjacentPositions(row, col)) {
+                        if (board.isMine(p[0], p[1])) count++;
+                    }
+                    if (count != board.getAdjacentMines(row, col)) fail("seed " + seed + " miscounted (" + row + ", " + col + ")");
+                }
+            }
+        }
+
+        // Flags placed before the first click survive a tile that is filled with mines and then thinned out
+        Board dense = new Board(200, 200, 24000);
+        dense.setFlagged(0, 0, true);
+        dense.setFlagged(199, 199, true);
+        dense.placeMines(100, 100, 3);
+        if (!dense.isFlagged(0, 0) || !dense.isFlagged(199, 199)) fail("placing mines on a dense tile erased flags");
+
+        // Mines in the top quarter of the board: hypergeometric over the cells outside the safe zone
+        int bandCells = side * side / 4;
+        long free = (long) side * side - 9;
+        double share = (double) bandCells / free;
+        double mean = mines * share;
+        double variance = mines * share * (1 - share) * (free - mines) / (free - 1);
+        double sum = 0;
+        double sumSquares = 0;
+        for (long seed = 0; seed < SPLIT_SEEDS; seed++) {
+            Board board = new Board(side, side, mines);
+            board.placeMines(center, center, 1000 + seed);
+            int inBand = 0;
+            for (long cell : board.getMineCells()) {
+                if (cell < bandCells) inBand++;
+            }
+            sum += inBand;
+            sumSquares += (double) inBand * inBand;
+        }
+        double sampleMean = sum / SPLIT_SEEDS;
+        double sampleVariance = (sumSquares - sum * sum / SPLIT_SEEDS) / (SPLIT_SEEDS - 1);
+        if (Math.abs(sampleMean - mean) > 5 * Math.sqrt(variance / SPLIT_SEEDS)
+                || sampleVariance < 0.6 * variance || sampleVariance > 1.5 * variance) {
+            fail(String.format("top band held %.1f mines (variance %.0f), expected %.1f (variance %.0f)",
+                    sampleMean, sampleVariance, mean, variance));
+        }
+        System.out.printf("tiled placement: exact, safe, counted, thread-independent; top band %.1f mines (expected %.1f)%n",
+                sampleMean, mean);
+    }
+
+    // A board seeded from inside a pool of the given parallelism (BoardTiles runs in the current pool)
+    private static Board placeIn(int threads, int side, int mines, long seed) throws InterruptedException, ExecutionException {
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try {
+            return pool.submit(() -> {
+                Board board = new Board(side, side, mines);
+                board.placeMines(side / 2, side / 2, seed);
+                return board;
+            }).get();
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    // Undoing every move, the first click included, gives back the board before it; redo replays it
+    private static void checkFirstClickUndo() {
+        int rows = 30;
+        int cols = 40;
+        int mines = 200;
+        String[] kinds = {"seeded", "pre-generated layout", "off-heap"};
+        for (int kind = 0; kind < kinds.length; kind++) {
+            for (long seed = 1; seed <= 10; seed++) {
+                MinesweeperGame game = kind == 0 ? new MinesweeperGame(rows, cols, mines, seed, Topology.CLASSIC)
+                        : kind == 1 ? new MinesweeperGame(MineLayout.generate(rows, cols, mines,
+                                new NeighborTable(rows, cols, Topology.CLASSIC), seed))
+                        : new MinesweeperGame(rows, cols, mines, seed, Topology.CLASSIC,
+                                OffHeapCellStorage.allocate((long) rows * cols));
+                String label = kinds[kind] + " game, seed " + seed;
+                SplittableRandom random = new SplittableRandom(seed);
+                game.toggleFlag(0, 0);
+                byte[] before = snapshot(game);
+
+                int firstRow = 1 + random.nextInt(rows - 1);
+                int firstCol = random.nextInt(cols);
+                game.revealCell(firstRow, firstCol);
+                byte[] afterFirst = snapshot(game);
+                for (int i = 0; i < 40 && !game.isGameOver(); i++) {
+                    int row = random.nextInt(rows);
+                    int col = random.nextInt(cols);
+                    if (random.nextInt(4) == 0) {
+                        game.toggleFlag(row, col);
+                    } else {
+                        game.revealCell(row, col);
+                    }
+                }
+                byte[] last = snapshot(game);
+
+                int moves = game.getUndoCount() - 1;  // Keep the flag placed before the first click
+                for (int i = 0; i < moves; i++) game.undo();
+                if (!game.isFirstMove() || !Arrays.equals(snapshot(game), before)) fail(label + ": undo did not restore the board");
+                for (int i = 0; i < moves; i++) game.redo();
+                if (!Arrays.equals(snapshot(game), last)) fail(label + ": redo did not replay the game");
+
+                // A different first click starts a new branch; the old one still replays
+                for (int i = 0; i < moves; i++) game.undo();
+                game.revealCell(1 + (firstRow + 6) % (rows - 1), (firstCol + 11) % cols);  // Another row, never the flag
+                if (game.isFirstMove()) fail(label + ": a new first click after undo did not count");
+                game.undo();
+                game.redo(0);
+                if (!Arrays.equals(snapshot(game), afterFirst)) fail(label + ": the first branch lost its board");
+                game.close();
+            }
+        }
+        System.out.println("undo of the first click: board restored, redo and branches replay");
+    }
+
+    // Append one Rice-coded gap (LSB first) at bit `at`; returns the bit after it
+    private static int riceGap(BitSet bits, int at, long gap, int k) {
+        for (long ones = gap >>> k; ones > 0; ones--) bits.set(at++);
+        at++;  // Terminating zero
+        for (int i = 0; i < k; i++) {
+            if ((gap >>> i & 1) != 0) bits.set(at);
+            at++;
+        }
+        return at;
+    }
+
+    // A code from header bytes and `length` payload bits, with a valid checksum
+    private static String code(int[] header, BitSet bits, int length) {
+        ByteBuffer out = ByteBuffer.allocate(header.length + (length + 7) / 8 + 2);
+        for (int value : header) out.put((byte) value);
+        out.put(Arrays.copyOf(bits.toByteArray(), (length + 7) / 8));
+        CRC32 crc = new CRC32();
+        crc.update(out.array(), 0, out.position());
+        out.putShort((short) crc.getValue());
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(out.array());
+    }
+
+    private static void expectRejected(String what, String code) {
+        try {
+            BoardCode.decode(code);
+        } catch (IllegalArgumentException e) {
+            return;
+        }
+        fail(what + " accepted: " + code);
+    }
+
+    // Uniform random ascending mine cells
+    private static long[] randomLayout(long cells, int mines, SplittableRandom random) {
+        List<Long> all = new ArrayList<>();
+        for (long cell = 0; cell < cells; cell++) all.add(cell);
+        long[] mineCells = new long[mines];
+        for (int i = 0; i < mines; i++) {
+            mineCells[i] = all.remove(random.nextInt(all.size()));
+        }
+        Arrays.sort(mineCells);
+        return mineCells;
+    }
+
+    private static byte[] snapshot(MinesweeperGame game) {
+        byte[] cells = new byte[game.getRows() * game.getCols()];
+        for (int i = 0; i < cells.length; i++) {
+            cells[i] = game.getPackedCell(i / game.getCols(), i % game.getCols());
+        }
+        return cells;
+    }
+
+    private static void fail(String message) {
+        System.out.println("FAIL: " + message);
+        System.exit(1);
+    }
+}
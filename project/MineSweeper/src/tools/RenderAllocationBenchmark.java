@@ -0,0 +1,95 @@
+package tools;
+
+import game.Hint;
+import game.HintEngine;
+import game.MinesweeperGame;
+import gui.BoardPanel;
+import gui.ImageLoader;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.lang.management.ManagementFactory;
+
+// Checks that the board's render path allocates nothing: paints full frames of a game in progress
+// (numbers, flags, covered cells and a hint outline) and refreshes with no changes, measuring bytes
+// allocated by this thread. Exits with status 1 if either path allocates after warm-up.
+// Runs headless: java -Djava.awt.headless=true tools.RenderAllocationBenchmark [frames]
+public class RenderAllocationBenchmark {
+    private static final int ROUNDS = 5;
+
+    public static void main(String[] args) {
+        int frames = args.length > 0 ? Integer.parseInt(args[0]) : 2000;
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+        // A 30x30 game part-way through, with a flag and a hint on screen
+        MinesweeperGame game = new MinesweeperGame(30, 30, 150, 7);
+        HintEngine hints = new HintEngine(game.getView(), 50);
+        for (int move = 0; move < 40 && !game.isGameOver(); move++) {
+            Hint hint = hints.findHint();
+            if (!hint.isSafe()) break;
+            game.revealCell(hint.getRow(), hint.getCol());
+        }
+        Hint hint = hints.findHint();
+
+        Probe panel = new Probe(game);
+        panel.setSize(panel.getPreferredSize());
+        panel.highlight(hint.getRow(), hint.getCol(), hint.isSafe());
+        BufferedImage frame = new BufferedImage(panel.getWidth(), panel.getHeight(), BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = frame.createGraphics();
+        g.setClip(0, 0, panel.getWidth(), panel.getHeight());
+
+        long overhead = measure(threads, () -> { });
+        for (int i = 0; i < frames; i++) panel.paintFrame(g);  // Warm-up (JIT, Java2D loops)
+        long paintStart = System.nanoTime();
+        long paintBytes = measureRounds(threads, overhead, () -> {
+            for (int i = 0; i < frames; i++) panel.paintFrame(g);
+        });
+        long paintNanos = (System.nanoTime() - paintStart) / ROUNDS;
+
+        panel.refresh();  // Clears the hint; from here on nothing changes between refreshes
+        for (int i = 0; i < frames; i++) panel.refresh();
+        long refreshBytes = measureRounds(threads, overhead, () -> {
+            for (int i = 0; i < frames; i++) panel.refresh();
+        });
+        g.dispose();
+
+        System.out.printf("board:               %dx%d cells%n", game.getRows(), game.getCols());
+        System.out.printf("full frame paint:    %.1f us, %d bytes allocated per %d frames%n",
+                paintNanos / 1e3 / frames, paintBytes, frames);
+        System.out.printf("unchanged refresh:   %d bytes allocated per %d refreshes%n", refreshBytes, frames);
+        boolean allocationFree = paintBytes <= 0 && refreshBytes <= 0;
+        System.out.println(allocationFree ? "render path is allocation-free" : "render path ALLOCATES");
+        System.exit(allocationFree ? 0 : 1);
+    }
+
+    // Fewest bytes allocated in any of several rounds (one-off JIT or class loading work can land in a round)
+    private static long measureRounds(com.sun.management.ThreadMXBean threads, long overhead, Runnable work) {
+        long fewest = Long.MAX_VALUE;
+        for (int round = 0; round < ROUNDS; round++) {
+            fewest = Math.min(fewest, measure(threads, work) - overhead);
+        }
+        return fewest;
+    }
+
+    // Bytes allocated by the current thread while running the work
+    private static long measure(com.sun.management.ThreadMXBean threads, Runnable work) {
+        long before = threads.getCurrentThreadAllocatedBytes();
+        work.run();
+        return threads.getCurrentThreadAllocatedBytes() - before;
+    }
+
+    // Exposes the panel's paint method so it can be driven without a screen
+    private static class Probe extends BoardPanel {
+        private static final long serialVersionUID = 1L;
+
+        Probe(MinesweeperGame game) {
+            super(game, new ImageLoader(), new CellListener() {
+                @Override public void onLeftClick(int row, int col) { }
+                @Override public void onRightClick(int row, int col) { }
+            });
+        }
+
+        void paintFrame(Graphics2D g) {
+            paintComponent(g);
+        }
+    }
+}
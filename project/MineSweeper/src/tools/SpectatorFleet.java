@@ -0,0 +1,225 @@
+package tools;
+
+import game.MinesweeperGame;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.locks.LockSupport;
+import spectator.SpectatorServer;
+
+// Load test for SpectatorServer: a bot plays a live game while a fleet of local TCP spectators watches it
+// Every spectator decodes the frames into its own copy of the board and records the latency from the
+// cell change on the game thread to the frame arriving (same JVM, so nanoTime is comparable). A share
+// of the spectators is slow: it stops reading for half of every second, to show that lagging clients
+// are coalesced or resynced without delaying the others or the player. Ends by checking every
+// spectator converged on the real board, and compares the player's move time with and without spectators.
+// Usage: java tools.SpectatorFleet [spectators] [seconds] [slowPercent]
+public class SpectatorFleet {
+    private static final int ROWS = 30;
+    private static final int COLS = 30;
+    private static final int MINES = 150;
+    private static final long MOVE_INTERVAL_NANOS = 2_000_000;  // Player makes 500 moves per second
+    private static final long SLOW_PERIOD_NANOS = 1_000_000_000;
+    private static final int MAX_LATENCY_MICROS = 10_000_000;
+
+    // One connected spectator and its copy of the board
+    private static final class Spectator {
+        final SocketChannel channel;
+        final boolean slow;
+        final ByteBuffer in = ByteBuffer.allocate(1 << 16);
+        byte[] cells = new byte[0];
+        int flags;
+        int status;
+        long frames;
+        long snapshots;
+
+        Spectator(SocketChannel channel, boolean slow) {
+            this.channel = channel;
+            this.slow = slow;
+        }
+    }
+
+    private static final int[] fastLatency = new int[MAX_LATENCY_MICROS + 1];  // Frames per microsecond of latency
+    private static final int[] slowLatency = new int[MAX_LATENCY_MICROS + 1];
+
+    public static void main(String[] args) throws Exception {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 1000;
+        int seconds = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+        int slowPercent = args.length > 2 ? Integer.parseInt(args[2]) : 5;
+
+        // Baseline: the same player with nobody watching (after a warm-up, so JIT compilation does not count)
+        play(new MinesweeperGame(ROWS, COLS, MINES, 2), 2, 2);
+        double baselineMicros = play(new MinesweeperGame(ROWS, COLS, MINES, 1), seconds / 2.0, 1) / 1e3;
+
+        MinesweeperGame game = new MinesweeperGame(ROWS, COLS, MINES, 1);
+        try (SpectatorServer server = new SpectatorServer(0)) {
+            server.watch(game);
+            Selector selector = Selector.open();
+            List<Spectator> fleet = connect(selector, server.getPort(), count, slowPercent);
+            while (server.getClientCount() < count) Thread.sleep(10);
+
+            Thread player = new Thread(() -> System.out.printf("player move with %d spectators: %.1f us (without: %.1f us)%n",
+                    count, play(game, seconds, 1) / 1e3, baselineMicros), "player");
+            long start = System.nanoTime();
+            player.start();
+            while (player.isAlive()) {
+                pump(selector, fleet, 10);
+            }
+            double elapsed = (System.nanoTime() - start) / 1e9;
+
+            // Let every spectator (slow ones included) catch up, then compare with the real board
+            byte[] expected = visibleBoard(game);
+            int converged = 0;
+            long convergeStart = System.nanoTime();
+            while (System.nanoTime() - convergeStart < 5_000_000_000L) {
+                pump(selector, fleet, 10);
+                converged = 0;
+                for (Spectator spectator : fleet) {
+                    if (Arrays.equals(spectator.cells, expected) && spectator.flags == game.getFlagsPlaced()) converged++;
+                }
+                if (converged == count) break;
+            }
+
+            long frames = 0;
+            long snapshots = 0;
+            for (Spectator spectator : fleet) {
+                frames += spectator.frames;
+                snapshots += spectator.snapshots;
+                spectator.channel.close();
+            }
+            selector.close();
+
+            System.out.printf("spectators:        %d (%d slow)%n", count, fleet.stream().filter(s -> s.slow).count());
+            System.out.printf("cell changes:      %,d in %.1f s%n", server.getChangesPublished(), elapsed);
+            System.out.printf("frames received:   %,d (%,d snapshots), %.1f MB sent%n", frames, snapshots, server.getBytesSent() / 1e6);
+            System.out.printf("coalesced changes: %,d%n", server.getCellsCoalesced());
+            System.out.println("fast latency:      " + percentiles(fastLatency));
+            System.out.println("slow latency:      " + percentiles(slowLatency));
+            System.out.printf("converged:         %d of %d spectators show the final board%n", converged, count);
+            if (converged != count) System.exit(1);
+        }
+    }
+
+    // Random clicks and flags on covered cells at a steady pace, starting a new game after each one ends
+    // Returns the average time of a move on the calling thread
+    private static long play(MinesweeperGame game, double seconds, long seed) {
+        Random random = new Random(seed);
+        long end = System.nanoTime() + (long) (seconds * 1e9);
+        long moveNanos = 0;
+        long moves = 0;
+        long next = System.nanoTime();
+        while (System.nanoTime() < end) {
+            int row = random.nextInt(ROWS);
+            int col = random.nextInt(COLS);
+            long before = System.nanoTime();
+            if (game.isGameOver()) {
+                game.resetGame(ROWS, COLS, MINES, random.nextLong());
+            } else if (random.nextInt(5) == 0 && !game.isFirstMove()) {
+                game.toggleFlag(row, col);
+            } else {
+                game.revealCell(row, col);
+            }
+            moveNanos += System.nanoTime() - before;
+            moves++;
+            next += MOVE_INTERVAL_NANOS;
+            LockSupport.parkNanos(next - System.nanoTime());
+        }
+        return moveNanos / Math.max(1, moves);
+    }
+
+    private static List<Spectator> connect(Selector selector, int port, int count, int slowPercent) throws IOException {
+        List<Spectator> fleet = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            SocketChannel channel = SocketChannel.open(new InetSocketAddress("localhost", port));
+            channel.configureBlocking(false);
+            boolean slow = i * 100 < count * slowPercent;
+            if (slow) {
+                channel.setOption(StandardSocketOptions.SO_RCVBUF, 4096);  // Fills up quickly while not reading
+            }
+            Spectator spectator = new Spectator(channel, slow);
+            channel.register(selector, SelectionKey.OP_READ, spectator);
+            fleet.add(spectator);
+        }
+        return fleet;
+    }
+
+    // Read whatever has arrived (slow spectators only in the first half of each second)
+    private static void pump(Selector selector, List<Spectator> fleet, long timeoutMillis) throws IOException {
+        boolean slowReading = System.nanoTime() % SLOW_PERIOD_NANOS < SLOW_PERIOD_NANOS / 2;
+        for (Spectator spectator : fleet) {
+            if (spectator.slow) {
+                spectator.channel.keyFor(selector).interestOps(slowReading ? SelectionKey.OP_READ : 0);
+            }
+        }
+        selector.select(timeoutMillis);
+        for (SelectionKey key : selector.selectedKeys()) {
+            Spectator spectator = (Spectator) key.attachment();
+            if (spectator.channel.read(spectator.in) < 0) throw new IOException("Server closed a spectator");
+            decode(spectator);
+        }
+        selector.selectedKeys().clear();
+    }
+
+    // Apply every complete frame in the spectator's input buffer
+    private static void decode(Spectator spectator) {
+        ByteBuffer in = spectator.in.flip();
+        while (in.remaining() >= 4 && in.remaining() >= 4 + in.getInt(in.position())) {
+            int end = in.position() + 4 + in.getInt();
+            byte type = in.get();
+            long latency = (System.nanoTime() - in.getLong()) / 1000;
+            spectator.flags = in.getInt();
+            spectator.status = in.get();
+            if (type == SpectatorServer.SNAPSHOT) {
+                int cells = in.getInt() * in.getInt();
+                if (spectator.cells.length != cells) spectator.cells = new byte[cells];
+                in.get(spectator.cells);
+                spectator.snapshots++;
+            } else {
+                for (int i = in.getInt(); i > 0; i--) {
+                    int index = in.getInt();
+                    spectator.cells[index] = in.get();
+                }
+            }
+            in.position(end);
+            if (spectator.frames++ > 0) {  // The first snapshot shows changes made before the spectator connected
+                (spectator.slow ? slowLatency : fastLatency)[(int) Math.min(Math.max(latency, 0), MAX_LATENCY_MICROS)]++;
+            }
+        }
+        in.compact();
+    }
+
+    private static byte[] visibleBoard(MinesweeperGame game) {
+        byte[] cells = new byte[game.getRows() * game.getCols()];
+        for (int i = 0; i < cells.length; i++) {
+            cells[i] = SpectatorServer.visibleCode(game.getPackedCell(i / game.getCols(), i % game.getCols()));
+        }
+        return cells;
+    }
+
+    private static String percentiles(int[] histogram) {
+        long total = 0;
+        for (int frames : histogram) total += frames;
+        if (total == 0) return "no frames";
+        StringBuilder text = new StringBuilder();
+        double[] points = {0.5, 0.99, 0.999, 1.0};
+        String[] names = {"p50", "p99", "p99.9", "max"};
+        int point = 0;
+        long seen = 0;
+        for (int micros = 0; micros < histogram.length && point < points.length; micros++) {
+            seen += histogram[micros];
+            while (point < points.length && seen >= Math.ceil(points[point] * total)) {
+                text.append(names[point]).append(' ').append(String.format("%.2f ms", micros / 1e3)).append("  ");
+                point++;
+            }
+        }
+        return text.toString().trim();
+    }
+}
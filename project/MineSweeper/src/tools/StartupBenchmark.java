@@ -0,0 +1,39 @@
+package tools;
+
+import game.MinesweeperGame;
+import gui.BoardPanel;
+import gui.ImageLoader;
+import java.awt.Dimension;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.lang.management.ManagementFactory;
+import javax.swing.SwingUtilities;
+
+// Times a cold start of the board view headless: from JVM start until the first Expert board frame is painted
+// Follows Main's startup path minus the window itself (which needs a display): icons start decoding in the
+// background, the EDT builds the board view, then the first frame is painted into an image. Every run is a
+// fresh JVM, so run it a few times. Main --startup-benchmark (see scripts/startup.sh) times the full window.
+// Run with: java tools.StartupBenchmark
+public class StartupBenchmark {
+    public static void main(String[] args) throws Exception {
+        System.setProperty("java.awt.headless", "true");
+        long startTime = ManagementFactory.getRuntimeMXBean().getStartTime();
+        ImageLoader.preload();  // As in Main.main, before the EDT builds anything
+        long[] times = new long[2];
+        SwingUtilities.invokeAndWait(() -> {
+            BoardPanel view = new BoardPanel(new MinesweeperGame(16, 16, 40), new ImageLoader(), null);
+            Dimension size = view.getPreferredSize();
+            view.setSize(size);
+            times[0] = System.currentTimeMillis() - startTime;
+
+            BufferedImage frame = new BufferedImage(size.width, size.height, BufferedImage.TYPE_INT_RGB);
+            Graphics2D g = frame.createGraphics();
+            view.paint(g);
+            g.dispose();
+            times[1] = System.currentTimeMillis() - startTime;
+        });
+        System.out.println("board view built: " + times[0] + " ms, first frame painted: " + times[1]
+                + " ms after JVM start");
+        System.exit(0);  // The icon loader thread may still be finishing
+    }
+}
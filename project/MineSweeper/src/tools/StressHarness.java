@@ -0,0 +1,322 @@
+package tools;
+
+import game.Cell;
+import game.HistoryTree;
+import game.MinesweeperGame;
+import game.NeighborTable;
+import game.Topology;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+// Randomized stress test of the game engine: every core plays random reveal / flag / chord / undo / redo /
+// jump / reset sequences on random boards and checks the game's invariants after every step.
+// The first failure is shrunk to a short move list and printed with the command that replays it.
+//
+// Run:    java tools.StressHarness [seconds] [baseSeed] [threads]
+// Replay: java tools.StressHarness --replay rows cols mines TOPOLOGY seed "op op ..."
+// Ops:    R<r>,<c> reveal  F<r>,<c> flag  C<r>,<c> chord  U undo  Y<branch> redo  J<i>.<j>... jump  N<seed> reset
+public class StressHarness {
+    private static final int OPS_PER_CASE = 300;
+
+    // A board configuration plus the moves played on it
+    private static class Case {
+        final int rows;
+        final int cols;
+        final int mines;
+        final Topology topology;
+        final long seed;
+        final List<String> ops;
+
+        Case(int rows, int cols, int mines, Topology topology, long seed, List<String> ops) {
+            this.rows = rows;
+            this.cols = cols;
+            this.mines = mines;
+            this.topology = topology;
+            this.seed = seed;
+            this.ops = ops;
+        }
+
+        Case withOps(List<String> newOps) {
+            return new Case(rows, cols, mines, topology, seed, newOps);
+        }
+
+        @Override
+        public String toString() {
+            return rows + " " + cols + " " + mines + " " + topology.name() + " " + seed + " \"" + String.join(" ", ops) + "\"";
+        }
+    }
+
+    // Game state remembered for a history node, to check that undo/redo/jump restore it exactly
+    private static class Snapshot {
+        final byte[] cells;
+        final int flags;
+        final boolean over;
+        final boolean won;
+        final boolean firstMove;
+
+        Snapshot(MinesweeperGame game) {
+            int cols = game.getCols();
+            cells = new byte[game.getRows() * cols];
+            for (int i = 0; i < cells.length; i++) {
+                cells[i] = game.getPackedCell(i / cols, i % cols);
+            }
+            flags = game.getFlagsPlaced();
+            over = game.isGameOver();
+            won = game.isGameWon();
+            firstMove = game.isFirstMove();
+        }
+
+        String diff(Snapshot other) {
+            if (flags != other.flags) return "flags " + other.flags + " -> " + flags;
+            if (over != other.over || won != other.won) return "over/won " + other.over + "/" + other.won + " -> " + over + "/" + won;
+            if (firstMove != other.firstMove) return "firstMove " + other.firstMove + " -> " + firstMove;
+            for (int i = 0; i < cells.length; i++) {
+                if (cells[i] != other.cells[i]) return "cell " + i + " packed " + other.cells[i] + " -> " + cells[i];
+            }
+            return null;
+        }
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        if (args.length > 0 && args[0].equals("--replay")) {
+            Case replay = new Case(Integer.parseInt(args[1]), Integer.parseInt(args[2]), Integer.parseInt(args[3]),
+                    Topology.valueOf(args[4]), Long.parseLong(args[5]),
+                    args.length > 6 && !args[6].isBlank() ? Arrays.asList(args[6].trim().split("\\s+")) : List.of());
+            String failure = run(replay);
+            System.out.println(failure == null ? "passed" : "FAILED: " + failure);
+            System.exit(failure == null ? 0 : 1);
+        }
+
+        int seconds = args.length > 0 ? Integer.parseInt(args[0]) : 30;
+        long baseSeed = args.length > 1 ? Long.parseLong(args[1]) : System.nanoTime();
+        int threads = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+
+        AtomicLong opsChecked = new AtomicLong();
+        AtomicLong casesRun = new AtomicLong();
+        AtomicBoolean stop = new AtomicBoolean();
+        AtomicReference<Case> failed = new AtomicReference<>();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+        long start = System.nanoTime();
+
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        for (int t = 0; t < threads; t++) {
+            SplittableRandom random = new SplittableRandom(baseSeed + t);
+            pool.submit(() -> {
+                while (!stop.get() && System.nanoTime() < deadline) {
+                    Case generated = generate(random);
+                    if (run(generated) != null) {
+                        if (failed.compareAndSet(null, generated)) stop.set(true);
+                        return;
+                    }
+                    opsChecked.addAndGet(generated.ops.size());
+                    casesRun.incrementAndGet();
+                }
+            });
+        }
+        pool.shutdown();
+        pool.awaitTermination(seconds + 60L, TimeUnit.SECONDS);
+        double elapsed = (System.nanoTime() - start) / 1e9;
+
+        System.out.printf("%,d cases, %,d operations checked in %.1f s on %d threads (%,.0f ops/s), base seed %d%n",
+                casesRun.get(), opsChecked.get(), elapsed, threads, opsChecked.get() / elapsed, baseSeed);
+        Case failure = failed.get();
+        if (failure == null) {
+            System.out.println("all invariants held");
+            return;
+        }
+
+        Case shrunk = shrink(failure);
+        System.out.println("FAILED after " + failure.ops.size() + " ops, shrunk to " + shrunk.ops.size() + ": " + run(shrunk));
+        System.out.println("replay with: java tools.StressHarness --replay " + shrunk);
+        System.exit(1);
+    }
+
+    // Random board and a random sequence of operations on it
+    private static Case generate(SplittableRandom random) {
+        int rows = 5 + random.nextInt(12);
+        int cols = 5 + random.nextInt(12);
+        int mines = 1 + random.nextInt(rows * cols / 3);
+        Topology topology = Topology.values()[random.nextInt(Topology.values().length)];
+        List<String> ops = new ArrayList<>(OPS_PER_CASE);
+        for (int i = 0; i < OPS_PER_CASE; i++) {
+            int roll = random.nextInt(100);
+            int r = random.nextInt(rows);
+            int c = random.nextInt(cols);
+            if (roll < 40) ops.add("R" + r + "," + c);
+            else if (roll < 60) ops.add("F" + r + "," + c);
+            else if (roll < 70) ops.add("C" + r + "," + c);
+            else if (roll < 85) ops.add("U");
+            else if (roll < 92) ops.add("Y" + random.nextInt(3));
+            else if (roll < 98) ops.add("J" + randomPath(random));
+            else ops.add("N" + random.nextLong());
+        }
+        return new Case(rows, cols, mines, topology, random.nextLong(), ops);
+    }
+
+    // Child choices from the root, resolved against whatever tree exists when the jump runs
+    private static String randomPath(SplittableRandom random) {
+        StringBuilder path = new StringBuilder();
+        int depth = random.nextInt(6);
+        for (int i = 0; i < depth; i++) {
+            if (i > 0) path.append('.');
+            path.append(random.nextInt(3));
+        }
+        return path.toString();
+    }
+
+    // Play a case, checking invariants after every step; returns the first failure or null
+    private static String run(Case test) {
+        MinesweeperGame game = new MinesweeperGame(test.rows, test.cols, test.mines, test.seed, test.topology);
+        Map<HistoryTree.Node, Snapshot> snapshots = new IdentityHashMap<>();
+        String failure = check(game, snapshots);
+        if (failure != null) return "initial state: " + failure;
+        for (int i = 0; i < test.ops.size(); i++) {
+            String op = test.ops.get(i);
+            try {
+                apply(game, op, test);
+                if (op.startsWith("N")) {
+                    snapshots.clear();
+                    failure = checkReset(game);
+                }
+                if (failure == null) failure = check(game, snapshots);
+            } catch (RuntimeException e) {
+                failure = e.toString();
+            }
+            if (failure != null) return "op " + i + " (" + op + "): " + failure;
+        }
+        return null;
+    }
+
+    private static void apply(MinesweeperGame game, String op, Case test) {
+        switch (op.charAt(0)) {
+            case 'R' -> game.revealCell(row(op), col(op));
+            case 'F' -> game.toggleFlag(row(op), col(op));
+            case 'C' -> game.chord(row(op), col(op));
+            case 'U' -> game.undo();
+            case 'Y' -> game.redo(Integer.parseInt(op.substring(1)));
+            case 'J' -> {
+                HistoryTree.Node node = game.getHistory().getRoot();
+                if (op.length() > 1) {
+                    for (String step : op.substring(1).split("\\.")) {
+                        List<HistoryTree.Node> children = node.getChildren();
+                        if (children.isEmpty()) break;
+                        node = children.get(Integer.parseInt(step) % children.size());
+                    }
+                }
+                game.jumpTo(node);
+            }
+            case 'N' -> game.resetGame(test.rows, test.cols, test.mines, Long.parseLong(op.substring(1)));
+            default -> throw new IllegalArgumentException("Unknown op: " + op);
+        }
+    }
+
+    private static int row(String op) {
+        return Integer.parseInt(op.substring(1, op.indexOf(',')));
+    }
+
+    private static int col(String op) {
+        return Integer.parseInt(op.substring(op.indexOf(',') + 1));
+    }
+
+    // A reset must leave a fresh game with an empty history
+    private static String checkReset(MinesweeperGame game) {
+        if (game.getHistory().canUndo() || game.canRedo() || game.getUndoCount() != 0) return "reset kept undo history";
+        if (!game.isFirstMove() || game.isGameOver() || game.isGameWon()) return "reset kept game status";
+        return null;
+    }
+
+    // Invariants that must hold after every step
+    private static String check(MinesweeperGame game, Map<HistoryTree.Node, Snapshot> snapshots) {
+        int rows = game.getRows();
+        int cols = game.getCols();
+        NeighborTable neighbors = game.getView().getNeighborTable();
+        int flags = 0;
+        int mines = 0;
+        int revealedMines = 0;
+        boolean allSafeRevealed = true;
+        boolean flagsExact = true;
+
+        for (int index = 0; index < rows * cols; index++) {
+            byte cell = game.getPackedCell(index / cols, index % cols);
+            boolean mine = (cell & Cell.MINE_BIT) != 0;
+            boolean revealed = (cell & Cell.REVEALED_BIT) != 0;
+            boolean flagged = (cell & Cell.FLAGGED_BIT) != 0;
+            if (flagged) flags++;
+            if (mine) mines++;
+            if (revealed && flagged) return "cell " + index + " is revealed and flagged";
+            if (revealed && mine) revealedMines++;
+            if (!mine && !revealed) allSafeRevealed = false;
+            if (mine != flagged) flagsExact = false;
+
+            if (!mine && !game.isFirstMove()) {
+                int expected = 0;
+                for (int p = neighbors.start(index); p < neighbors.end(index); p++) {
+                    int n = neighbors.neighbor(p);
+                    if ((game.getPackedCell(n / cols, n % cols) & Cell.MINE_BIT) != 0) expected++;
+                }
+                if (Cell.adjacentMines(cell) != expected) {
+                    return "cell " + index + " shows " + Cell.adjacentMines(cell) + " adjacent mines, expected " + expected;
+                }
+            }
+        }
+
+        if (flags != game.getFlagsPlaced()) return "flagsPlaced " + game.getFlagsPlaced() + " but " + flags + " flags on board";
+        if (flags > game.getTotalMines()) return "more flags than mines";
+        int expectedMines = game.isFirstMove() ? 0 : game.getTotalMines();
+        if (mines != expectedMines) return mines + " mines on board, expected " + expectedMines;
+
+        boolean lost = game.isGameOver() && !game.isGameWon();
+        if (revealedMines != (lost ? 1 : 0)) return revealedMines + " revealed mines, game lost: " + lost;
+        if (game.isGameWon() && !game.isGameOver()) return "won but not over";
+        if (!lost && !game.isFirstMove() && game.isGameWon() != (allSafeRevealed || flagsExact)) {
+            return "gameWon " + game.isGameWon() + " but win condition is " + (allSafeRevealed || flagsExact);
+        }
+
+        // The state must be a function of the history position: undo, redo and jumps restore it exactly
+        HistoryTree.Node node = game.getHistory().getCurrent();
+        Snapshot now = new Snapshot(game);
+        Snapshot seen = snapshots.putIfAbsent(node, now);
+        if (seen != null) {
+            String diff = now.diff(seen);
+            if (diff != null) return "state at history node \"" + node.getDescription() + "\" changed: " + diff;
+        }
+        return null;
+    }
+
+    // Shrink a failing case: drop ever smaller chunks of moves while it still fails
+    private static Case shrink(Case failing) {
+        List<String> ops = new ArrayList<>(failing.ops);
+        // Everything after the failing op is irrelevant
+        String failure = run(failing);
+        if (!failure.startsWith("op ")) return failing.withOps(List.of());
+        int failedAt = Integer.parseInt(failure.substring(3, failure.indexOf(' ', 3)));
+        ops = new ArrayList<>(ops.subList(0, failedAt + 1));
+
+        for (int chunk = ops.size() / 2; chunk >= 1; chunk /= 2) {
+            boolean removed = true;
+            while (removed) {
+                removed = false;
+                for (int start = 0; start + chunk <= ops.size(); start += chunk) {
+                    List<String> candidate = new ArrayList<>(ops.subList(0, start));
+                    candidate.addAll(ops.subList(start + chunk, ops.size()));
+                    if (run(failing.withOps(candidate)) != null) {
+                        ops = candidate;
+                        removed = true;
+                        break;
+                    }
+                }
+            }
+        }
+        return failing.withOps(ops);
+    }
+}
@@ -6,28 +6,58 @@ public class GameConstants {
     // Colors for the game UI
     public static final Color COVERED_COLOR = new Color(192, 192, 192);    // Light gray for covered cells
     public static final Color REVEALED_COLOR = new Color(220, 220, 220);   // Slightly darker gray for revealed cells
+    public static final Color HIT_MINE_COLOR = Color.RED;                  // Revealed mine (the one that ended the game)
+    public static final Color LOST_MINE_COLOR = new Color(255, 200, 200); // Light red for mines shown after a loss
+    public static final Color WRONG_FLAG_COLOR = Color.PINK;               // Pink for flags on non-mines after a loss
+    public static final Color SAFE_HINT_COLOR = new Color(0, 160, 0);     // Green outline for a safe hint
+    public static final Color RISKY_HINT_COLOR = Color.ORANGE;             // Orange outline for a lowest-risk hint
+    public static final Color WIN_COLOR = new Color(0, 128, 0);            // Green status text after a win
+
+    // Colors of the numbers 1-8 (index 0 unused), shared instead of created per cell
+    private static final Color[] NUMBER_COLORS = {
+            Color.BLACK,
+            new Color(0, 0, 255),     // Blue for 1
+            new Color(0, 128, 0),     // Green for 2
+            new Color(255, 0, 0),     // Red for 3
+            new Color(0, 0, 128),     // Navy blue for 4
+            new Color(128, 0, 0),     // Maroon for 5
+            new Color(0, 128, 128),   // Teal for 6
+            new Color(0, 0, 0),       // Black for 7
+            new Color(128, 128, 128)  // Gray for 8
+    };
 
     // Game settings - limits for custom games
     public static final int MIN_ROWS = 5;    // Minimum allowed rows
     public static final int MAX_ROWS = 30;   // Maximum allowed rows
     public static final int MIN_COLS = 5;    // Minimum allowed columns
     public static final int MAX_COLS = 30;   // Maximum allowed columns
+    public static final int LARGE_MAX_SIDE = 46340;  // Large boards: rows or columns (a square board still fits one array)
     public static final int CELL_SIZE = 35;  // Size of each cell in pixels
     public static final int ICON_SIZE = 24;  // Size of icons (flags, mines) in pixels
+    public static final int MAX_VIEW_WIDTH = 1200;  // Largest board view in pixels (bigger boards zoom and pan inside it)
+    public static final int MAX_VIEW_HEIGHT = 760;
+
+    // Hint settings - time budget per hint (override with -Dminesweeper.hintBudgetMs=...)
+    public static final int HINT_BUDGET_MS = Integer.getInteger("minesweeper.hintBudgetMs", 5);
+
+    // Auto-play settings - time spent making moves before each display refresh, about one 60 fps frame
+    // minus room to paint (override with -Dminesweeper.autoPlayFrameMs=...)
+    public static final int AUTO_PLAY_FRAME_MS = Integer.getInteger("minesweeper.autoPlayFrameMs", 12);
+
+    // Board pool settings - layouts kept ready per board configuration (0 disables the pool),
+    // and whether to print hit rate and refill latency on every New Game (-Dminesweeper.boardPoolStats=true)
+    public static final int BOARD_POOL_SIZE = Integer.getInteger("minesweeper.boardPool", 3);
+    public static final boolean BOARD_POOL_STATS = Boolean.getBoolean("minesweeper.boardPoolStats");
+
+    // Spectator settings - TCP port that streams the current game to spectators (0 disables, -Dminesweeper.spectatorPort=...)
+    public static final int SPECTATOR_PORT = Integer.getInteger("minesweeper.spectatorPort", 0);
 
     // Return the standard Minesweeper color for each number
     // Each number 1-8 has a specific color in traditional Minesweeper
     public static Color getNumberColor(int adjacentMines) {
-        return switch (adjacentMines) {
-            case 1 -> new Color(0, 0, 255);     // Blue for 1
-            case 2 -> new Color(0, 128, 0);     // Green for 2
-            case 3 -> new Color(255, 0, 0);     // Red for 3
-            case 4 -> new Color(0, 0, 128);     // Navy blue for 4
-            case 5 -> new Color(128, 0, 0);     // Maroon for 5
-            case 6 -> new Color(0, 128, 128);   // Teal for 6
-            case 7 -> new Color(0, 0, 0);       // Black for 7
-            case 8 -> new Color(128, 128, 128); // Gray for 8
-            default -> Color.BLACK;             // Default black for other values
-        };
+        if (adjacentMines < 1 || adjacentMines > 8) {
+            return Color.BLACK;  // Default black for other values
+        }
+        return NUMBER_COLORS[adjacentMines];
     }
 }
\ No newline at end of file
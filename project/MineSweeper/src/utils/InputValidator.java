@@ -9,11 +9,26 @@
             if (mines <= 0) {
                 throw new IllegalArgumentException("Number of mines must be positive");
             }
-            if (mines >= rows * cols) {
+            if (mines >= (long) rows * cols) {
                 throw new IllegalArgumentException("Too many mines for board size");
             }
         }
 
+        // Validate a board against the playable limits: sides from the custom minimum up to the large-board
+        // limit, and at most getMaxMines mines so the first click's safe zone always leaves room for them
+        public static void validateLimits(int rows, int cols, int mines) {
+            validateDimensions(rows, cols, mines);
+            if (rows < GameConstants.MIN_ROWS || cols < GameConstants.MIN_COLS) {
+                throw new IllegalArgumentException("Board must be at least " + GameConstants.MIN_ROWS + "x" + GameConstants.MIN_COLS);
+            }
+            if (rows > GameConstants.LARGE_MAX_SIDE || cols > GameConstants.LARGE_MAX_SIDE) {
+                throw new IllegalArgumentException("Rows and columns must be at most " + GameConstants.LARGE_MAX_SIDE);
+            }
+            if (mines > getMaxMines(rows, cols)) {
+                throw new IllegalArgumentException("At most " + getMaxMines(rows, cols) + " mines fit a " + rows + "x" + cols + " board");
+            }
+        }
+
         // Check if a custom value is within valid range
         public static boolean isValidCustomValue(int value, int min, int max) {
             return value >= min && value <= max;
@@ -22,6 +37,6 @@
         // Calculate maximum allowed mines for a given board size
         // Uses 1/3 of total cells as maximum to ensure playable game
         public static int getMaxMines(int rows, int cols) {
-            return (rows * cols) / 3;
+            return (int) Math.min(Integer.MAX_VALUE, (long) rows * cols / 3);
         }
     }
\ No newline at end of file
@@ -0,0 +1,280 @@
+package utils;
+
+import game.Board;
+import game.HistoryTree;
+import game.NeighborTable;
+import game.OpeningIndex;
+import game.Topology;
+import java.lang.management.ManagementFactory;
+import java.util.HashMap;
+import java.util.Map;
+
+// Projects the heap a game will need before it is created, so New Game can refuse boards that would run
+// out of memory mid-game, or move their cells off the heap
+// A projection adds up what each part keeps per cell: the cell storage, neighbor table and opening index
+// (in-memory boards only), the undo history of a whole game (every move saves the cells it changes, and old
+// moves spill to disk, see HistoryTree), hint analysis and the board view. The biggest reveal's undo record,
+// which grows by doubling while the reveal runs, comes on top as the peak.
+// How big openings are depends on the mine density, so it is measured on a small sample board.
+// Object sizes are for a 64-bit JVM with compressed references (the default below 32 GB of heap);
+// tools.MemoryEstimateCheck compares projections with measured use.
+public class MemoryEstimator {
+    // Where the cells live, from fastest to leanest; New Game picks the first one that fits
+    public enum Backend {
+        HEAP("In memory"),                     // Byte array, neighbor table and opening index
+        DIRECT("Off-heap memory"),             // Direct buffers; neighbors computed on the fly, no hints
+        MAPPED("Memory-mapped temp file");     // Like DIRECT, but the OS pages cells to disk
+
+        private final String displayName;
+
+        Backend(String displayName) {
+            this.displayName = displayName;
+        }
+
+        @Override
+        public String toString() {
+            return displayName;
+        }
+    }
+
+    // Share of -Xmx a game may plan to use (the collector needs room to work) and what Swing,
+    // images and the JVM use before any board exists
+    private static final double HEAP_SHARE = 0.85;
+    private static final long BASELINE_BYTES = 24L << 20;
+
+    // Undo history (see GameState, HistoryTree and Move)
+    private static final int CHANGED_CELL_BYTES = 9;       // Row and column ints plus the packed byte before
+    private static final double CAPACITY_SLACK = 1.5;      // Arrays grow by doubling: 1.5x full on average
+    private static final int MOVE_BYTES = 360;             // GameState, its first arrays and description, node, Move
+    private static final int SPILLED_MOVE_BYTES = 150;     // Node, its child list and Move left once the move is on disk
+
+    private static final int HINT_BYTES = 1;    // HintEngine: deductions plus seen and queued flags
+    private static final int HINT_QUEUE_BYTES = 4;  // HintEngine: work queue entry per revealed cell waiting
+    private static final int VIEW_BYTES = 1;    // BoardPanel: face shown by each cell
+    private static final int SPECTATOR_BYTES = 1;  // SpectatorServer: mirror of each visible cell
+
+    // Openings on a sample board; above this share of the board they percolate and scale with its size,
+    // below it the largest opening barely grows with the board (taken as a few times the sample's)
+    private static final int SAMPLE_SIDE = 256;
+    private static final double PERCOLATING = 0.25;
+    private static final int SUBCRITICAL_GROWTH = 4;
+    private static final long MAX_ARRAY = Integer.MAX_VALUE - 8;
+
+    private final long maxHeap;
+    private final long maxDirect;
+    private final boolean spectators;
+    private final Map<Long, Sample> samples = new HashMap<>();
+
+    // Constructor - limits to plan against (bytes) and whether spectators mirror the board
+    public MemoryEstimator(long maxHeap, long maxDirect, boolean spectators) {
+        this.maxHeap = maxHeap;
+        this.maxDirect = maxDirect;
+        this.spectators = spectators;
+    }
+
+    // Estimator for the running JVM's -Xmx and -XX:MaxDirectMemorySize (which defaults to -Xmx)
+    public static MemoryEstimator forThisJvm() {
+        long maxHeap = Runtime.getRuntime().maxMemory();
+        long maxDirect = maxHeap;
+        for (String argument : ManagementFactory.getRuntimeMXBean().getInputArguments()) {
+            if (argument.startsWith("-XX:MaxDirectMemorySize=")) {
+                maxDirect = parseSize(argument.substring(argument.indexOf('=') + 1));
+            }
+        }
+        return new MemoryEstimator(maxHeap, maxDirect, GameConstants.SPECTATOR_PORT > 0);
+    }
+
+    private static long parseSize(String size) {
+        char unit = Character.toLowerCase(size.charAt(size.length() - 1));
+        int shift = unit == 'k' ? 10 : unit == 'm' ? 20 : unit == 'g' ? 30 : unit == 't' ? 40 : 0;
+        return Long.parseLong(shift == 0 ? size : size.substring(0, size.length() - 1)) << shift;
+    }
+
+    // What one configuration would use with one backend
+    public static final class Estimate {
+        private final Backend backend;
+        private final long startHeap;   // Retained once the first click has placed the mines
+        private final long gameHeap;    // Retained after a whole game (history included)
+        private final long peakHeap;    // Most in use at once, with the biggest reveal's temporary data
+        private final long offHeap;     // Direct memory (cells of a DIRECT board)
+        private final long budget;      // Heap the game may use
+        private final String problem;   // Why it does not fit (null if it does)
+
+        private Estimate(Backend backend, long startHeap, long gameHeap, long peakHeap, long offHeap, long budget, String problem) {
+            this.backend = backend;
+            this.startHeap = startHeap;
+            this.gameHeap = gameHeap;
+            this.peakHeap = peakHeap;
+            this.offHeap = offHeap;
+            this.budget = budget;
+            this.problem = problem;
+        }
+
+        public Backend getBackend() { return backend; }
+        public long getStartHeapBytes() { return startHeap; }
+        public long getGameHeapBytes() { return gameHeap; }
+        public long getPeakHeapBytes() { return peakHeap; }
+        public long getOffHeapBytes() { return offHeap; }
+        public long getBudgetBytes() { return budget; }
+        public boolean fits() { return problem == null; }
+        public String getProblem() { return problem; }
+
+        @Override
+        public String toString() {
+            return String.format("%s: %,d MB heap at peak of %,d MB available%s%s", backend, peakHeap >> 20, budget >> 20,
+                    offHeap > 0 ? String.format(", %,d MB off-heap", offHeap >> 20) : "",
+                    problem != null ? " - " + problem : "");
+        }
+    }
+
+    // The fastest backend that fits, or the leanest one's estimate (which says why not) if none does
+    public Estimate choose(int rows, int cols, int mines, Topology topology) {
+        Estimate estimate = null;
+        for (Backend backend : Backend.values()) {
+            estimate = estimate(rows, cols, mines, topology, backend);
+            if (estimate.fits()) break;
+        }
+        return estimate;
+    }
+
+    // Largest square board at a mine density (mines per cell) that fits with some backend
+    public int getMaxSide(double density, Topology topology) {
+        int low = 1;
+        int high = (int) Math.sqrt(MAX_ARRAY);
+        while (low < high) {
+            int side = (int) (((long) low + high + 1) / 2);
+            if (choose(side, side, (int) (density * side * side), topology).fits()) low = side;
+            else high = side - 1;
+        }
+        return low;
+    }
+
+    // Project one configuration with one backend
+    public Estimate estimate(int rows, int cols, int mines, Topology topology, Backend backend) {
+        long cells = (long) rows * cols;
+        long safeCells = cells - mines;
+        Sample sample = sample((double) mines / cells, topology);
+        boolean heap = backend == Backend.HEAP;
+        long budget = (long) (maxHeap * HEAP_SHARE) - BASELINE_BYTES;
+
+        // Kept for the whole game
+        long fixed = VIEW_BYTES * cells + (spectators ? SPECTATOR_BYTES * cells : 0);
+        long build = 0;  // Temporary while the board is built
+        if (heap) {
+            long table = 4 * (cells + 1) + 4L * sample.maxDegree * cells;
+            long index = (long) (sample.indexBytesPerCell * cells);
+            fixed += cells + table + index + 4L * mines + HINT_BYTES * cells;  // Storage, table, index, layout, hints
+            build = Math.max(4L * sample.maxDegree * cells, 8 * cells + cells / 8);  // Table buffer; union-find and zero cells by opening, layout bits
+        }
+
+        // History: each move saves the cells it reveals (the first click its opening) until old moves spill
+        long firstOpening = scaleOpening(sample.firstOpeningFraction, sample.firstOpeningCells, cells, safeCells);
+        long largestOpening = scaleOpening(sample.largestOpeningFraction, sample.largestOpeningCells, cells, safeCells);
+        long firstMove = stateBytes(firstOpening);
+        if (heap) fixed += (long) (HINT_QUEUE_BYTES * CAPACITY_SLACK * firstOpening);  // First hint queues the opening
+        long moves = Math.max(1, (long) (sample.movesPerCell * cells));
+        long laterCells = Math.max(0, safeCells - firstOpening);
+        long limit = HistoryTree.DEFAULT_RESIDENT_LIMIT;
+        long history;
+        if (moves < limit) {
+            history = firstMove + (long) (laterCells * (CHANGED_CELL_BYTES * CAPACITY_SLACK + 1)) + moves * MOVE_BYTES;
+        } else {
+            history = (long) (laterCells * (double) limit / moves * (CHANGED_CELL_BYTES * CAPACITY_SLACK + 1))
+                    + limit * MOVE_BYTES + (moves - limit) * SPILLED_MOVE_BYTES;
+        }
+
+        // The biggest reveal's undo record while it grows (the old arrays are copied into twice as big ones)
+        long reveal = (long) (CHANGED_CELL_BYTES * CAPACITY_SLACK * largestOpening);
+        long start = fixed + firstMove + MOVE_BYTES;
+        long whole = fixed + history;
+        long peak = Math.max(start, whole) + Math.max(build, reveal);
+        long offHeap = backend == Backend.DIRECT ? cells : 0;
+
+        String problem = null;
+        if (cells > MAX_ARRAY) {
+            problem = "the board view keeps one byte per cell in an array, limited to 2^31 cells";
+        } else if (heap && cells * sample.maxDegree > Integer.MAX_VALUE) {
+            problem = "too many cells for an in-memory neighbor table";
+        } else if (peak > budget) {
+            problem = String.format("needs %,d MB of heap, %,d MB available (raise -Xmx)", peak >> 20, Math.max(0, budget) >> 20);
+        } else if (offHeap > maxDirect) {
+            problem = String.format("needs %,d MB of direct memory, %,d MB allowed (-XX:MaxDirectMemorySize)",
+                    offHeap >> 20, maxDirect >> 20);
+        }
+        return new Estimate(backend, start, whole, peak, offHeap, budget, problem);
+    }
+
+    // Openings that percolate on the sample cover a share of any board; others stay about the sample's size
+    private static long scaleOpening(double fraction, int sampleCells, long cells, long safeCells) {
+        long scaled = fraction > PERCOLATING ? (long) (fraction * cells) : (long) sampleCells * SUBCRITICAL_GROWTH;
+        return Math.min(safeCells, scaled);
+    }
+
+    // Heap of an undo record with n changed cells (arrays double from 4 as cells are added)
+    private static long stateBytes(long n) {
+        long capacity = 4;
+        while (capacity < n) capacity *= 2;
+        return 3 * 16 + 2 * 4 * capacity + capacity + 16 + n;
+    }
+
+    // Opening statistics of a sample board with the same density and topology (cached)
+    private Sample sample(double density, Topology topology) {
+        int mines = (int) Math.round(density * SAMPLE_SIDE * SAMPLE_SIDE);
+        long key = (long) mines << 8 | topology.ordinal();
+        return samples.computeIfAbsent(key, k -> new Sample(mines, topology));
+    }
+
+    private static final class Sample {
+        final int maxDegree;
+        final double indexBytesPerCell;
+        final double movesPerCell;
+        final double firstOpeningFraction;
+        final int firstOpeningCells;
+        final double largestOpeningFraction;
+        final int largestOpeningCells;
+
+        Sample(int mines, Topology topology) {
+            int cells = SAMPLE_SIDE * SAMPLE_SIDE;
+            Board board = new Board(SAMPLE_SIDE, SAMPLE_SIDE, Math.min(mines, cells - 50), topology);
+            int center = SAMPLE_SIDE / 2;
+            board.placeMines(center, center, 1L);
+            NeighborTable table = board.getNeighborTable();
+            OpeningIndex index = board.getOpeningIndex();
+
+            int largest = 0;
+            for (int k = 0; k < index.getOpeningCount(); k++) {
+                largest = Math.max(largest, index.getRegionEnd(k) - index.getRegionStart(k));
+            }
+            int first = index.getOpening(center * SAMPLE_SIDE + center);
+            int moves = countMoves(board, index, first);
+            maxDegree = table.getMaxDegree();
+            indexBytesPerCell = (double) index.getMemoryBytes() / cells;
+            movesPerCell = (double) moves / cells;
+            firstOpeningCells = first >= 0 ? index.getRegionEnd(first) - index.getRegionStart(first) : 1;
+            firstOpeningFraction = (double) firstOpeningCells / cells;
+            largestOpeningCells = largest;
+            largestOpeningFraction = (double) largest / cells;
+        }
+
+        // Reveals after the first click by a player going through the board in reading order
+        // (more than the 3BV minimum: numbers next to an opening are often clicked before the opening)
+        private static int countMoves(Board board, OpeningIndex index, int first) {
+            boolean[] revealed = new boolean[SAMPLE_SIDE * SAMPLE_SIDE];
+            if (first >= 0) revealRegion(index, first, revealed);
+            int moves = 0;
+            for (int cell = 0; cell < revealed.length; cell++) {
+                if (revealed[cell] || board.isMine(cell / SAMPLE_SIDE, cell % SAMPLE_SIDE)) continue;
+                moves++;
+                revealed[cell] = true;
+                if (index.getOpening(cell) >= 0) revealRegion(index, index.getOpening(cell), revealed);
+            }
+            return moves;
+        }
+
+        private static void revealRegion(OpeningIndex index, int opening, boolean[] revealed) {
+            for (int k = index.getRegionStart(opening); k < index.getRegionEnd(opening); k++) {
+                revealed[index.getRegionCell(k)] = true;
+            }
+        }
+    }
+}